@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+// responses of the server-side plugin by URL, shared by all components of the plugin
+const responseCache = new Map();
+
+// requests currently in progress by URL, so that components requesting the same document at once share one request
+const pendingRequests = new Map();
+
+/**
+ * Fetch the JSON document available at the given URL, revalidating a previously retrieved copy using its ETag
+ * instead of downloading it again
+ *
+ * @param url the URL to retrieve the JSON document from
+ * @param options the options of the request
+ * @returns the retrieved JSON document
+ */
+export function fetchJsonWithETag(url, options = {}) {
+    const pending = pendingRequests.get(url);
+    if (pending) {
+        return pending;
+    }
+
+    const request = fetchAndCacheJson(url, options);
+    pendingRequests.set(url, request);
+    const removePending = () => pendingRequests.delete(url);
+    request.then(removePending, removePending);
+    return request;
+}
+
+async function fetchAndCacheJson(url, options) {
+    const cached = responseCache.get(url);
+    const headers = Object.assign({}, options.headers);
+    if (cached) {
+        headers['If-None-Match'] = cached.etag;
+    }
+
+    const res = await fetch(url, Object.assign({}, options, {headers: headers}));
+    if (res.status === 304 && cached) {
+        console.log('Reusing unmodified response for URL: ', url);
+        return cached.body;
+    }
+
+    const body = await res.json();
+    const etag = res.headers.get('ETag');
+    if (res.ok && etag) {
+        responseCache.set(url, {etag: etag, body: body});
+    }
+    return body;
+}
@@ -12,14 +12,68 @@
 export async function renderDeploymentInformationTable(node, {processInstanceId, api}) {
     node.innerHTML = "Loading..."
     const {cockpitApi, engine} = api;
-    const processViewEndpoint = `${cockpitApi}/plugin/camunda-deployment-view-plugin/${engine}/process-instance/${processInstanceId}/deployment-info`;
-    console.log('Retrieving currently active view using URL: ', processViewEndpoint);
-    let res = await fetch(processViewEndpoint, {
-        headers: {
-            'Accept': 'application/json'
+    const updatesEndpoint = `${cockpitApi}/plugin/camunda-deployment-view-plugin/${engine}/process-instance/${processInstanceId}/deployment-info/updates`;
+    console.log('Retrieving deployment information using URL: ', updatesEndpoint);
+
+    // the initial request returns all deployments, later requests wait until deployments changed and only return those
+    const deployments = new Map();
+    let version = 0;
+    let epoch = '';
+    let initial = true;
+    while (initial || node.isConnected) {
+        let updates;
+        try {
+            let res = await fetch(`${updatesEndpoint}?since=${version}&epoch=${encodeURIComponent(epoch)}`, {
+                headers: {
+                    'Accept': 'application/json'
+                }
+            })
+            if (!res.ok) {
+                throw new Error(`Unexpected status ${res.status}`);
+            }
+            updates = await res.json();
+        } catch (e) {
+            console.log('Unable to retrieve deployment updates: ', e);
+            if (initial) {
+                node.innerHTML = "Unable to retrieve deployments.";
+                return;
+            }
+            await new Promise(resolve => setTimeout(resolve, 5000));
+            continue;
+        }
+
+        // the server sends a full snapshot if the version belongs to another epoch, e.g., after a restart, whose log
+        // offsets and dropped log counts refer to all entries again, thus, it replaces the known deployments
+        if (updates.epoch !== epoch) {
+            deployments.clear();
+        }
+        for (const change of updates.changes) {
+            // only log entries added since the last update are sent, the offsets refer to all entries of the build plan
+            const previous = deployments.get(change.elementId);
+            if (previous && change.logOffset >= previous.logOffset) {
+                const logs = previous.logs.slice(0, change.logOffset - previous.logOffset).concat(change.logs);
+                const droppedLogCount = previous.droppedLogCount + change.droppedLogCount;
+                deployments.set(change.elementId, {...change, logOffset: previous.logOffset, logs, droppedLogCount});
+            } else {
+                deployments.set(change.elementId, change);
+            }
+        }
+        if (initial || updates.changes.length > 0) {
+            renderTable(node, Array.from(deployments.values()));
         }
-    })
-    const deploymentInformation = await res.json();
+        version = updates.version;
+        epoch = updates.epoch;
+        initial = false;
+
+        // deployments without build plan instance never change, but OpenTOSCA may also be unavailable temporarily, in
+        // which case the server rejects requests for some time, thus, check again later instead of polling eagerly
+        if (Array.from(deployments.values()).every(({buildPlanState}) => buildPlanState === "UNAVAILABLE")) {
+            await new Promise(resolve => setTimeout(resolve, 30000));
+        }
+    }
+}
+
+function renderTable(node, deploymentInformation) {
     if (deploymentInformation.length === 0) {
         node.innerHTML = "No deployments found.";
         return;
@@ -29,12 +83,15 @@ export async function renderDeploymentInformationTable(node, {processInstanceId,
                   csarName,
                   buildPlanState,
                   instanceState,
-                  instanceCreatedAt
+                  instanceCreatedAt,
+                  logs,
+                  droppedLogCount
               }) => `<tr>
                                 <td>${csarName}</td>
                                 <td>${buildPlanState}</td>
                                 <td>${instanceState}</td>
                                 <td>${new Date(instanceCreatedAt).toISOString()}</td>
+                                <td>${(logs || []).length}${droppedLogCount > 0 ? ` (${droppedLogCount} older entries dropped)` : ""}</td>
                             </tr>`).join("\n")
 
     node.innerHTML = `<table class="cam-table">
@@ -44,6 +101,7 @@ export async function renderDeploymentInformationTable(node, {processInstanceId,
                         <th>Build plan state</th>
                         <th>Instance plan state</th>
                         <th>Instance created at</th>
+                        <th>Log entries</th>
                     </tr>
                 </thead>
                 <tbody>
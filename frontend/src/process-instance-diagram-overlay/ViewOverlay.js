@@ -22,6 +22,8 @@ import openTOSCAModule from './opentosca';
 import patternModule from './quantme/pattern';
 import CustomRenderer from './quantme/CustomRenderer';
 import * as consts from './quantme/Constants';
+import {fetchViewBundle} from '../view-bundle';
+import {fetchActiveViewXml} from '../view-xml';
 
 const quantMETaskType = "quantme:quantmeTaskType";
 /**
@@ -36,10 +38,12 @@ export async function renderOverlay(viewer, camundaAPI, processInstanceId) {
     console.log('View corresponds to process instance ID: ', processInstanceId)
     console.log('Camunda APIs to generate overlays: ', camundaAPI);
 
-    // get active process view name and corresponding Xml from backend
-    let response = await getActiveProcessView(camundaAPI, processInstanceId);
+    // get active process view name, the corresponding Xml, activity instances, and variables from backend
+    let response = await fetchViewBundle(camundaAPI, processInstanceId);
     let activeView = response['activeProcessView'];
-    let activeViewXml = response['activeProcessViewXml'];
+
+    // only the parts of the Xml differing from the view rendered last are transferred when switching views
+    let activeViewXml = await fetchActiveViewXml(camundaAPI, processInstanceId, response);
     console.log("Active view to visualize process view overlay for: ", activeView);
 
     // get element registry and overlays to retrieve elements and attach new overlays to them
@@ -90,12 +94,12 @@ export async function renderOverlay(viewer, camundaAPI, processInstanceId) {
         console.log("all elements are: ", quantmeElementArray);
 
         // get the currently active activities for the process instance
-        let activeActivity = await getActiveActivities(camundaAPI, processInstanceId);
+        let activeActivity = getActiveActivities(response['activityInstance']);
         console.log('Currently active activities to visualize: ', activeActivity);
 
         // if the workflow contains loops, transition activities can hold the active activity
         if (activeActivity.length === 0) {
-            activeActivity = await getActiveTransitionActivities(camundaAPI, processInstanceId);
+            activeActivity = getActiveTransitionActivities(response['activityInstance']);
         }
         console.log('Currently active transition activities to visualize: ', activeActivity);
 
@@ -105,7 +109,7 @@ export async function renderOverlay(viewer, camundaAPI, processInstanceId) {
 
         
         if (activeView.includes('view-before-rewriting')) {
-            await computeOverlay(camundaAPI, processInstanceId, quantmeElementArray, allElements, quantmeElementRegistry);
+            await computeOverlay(camundaAPI, response['variables'], quantmeElementArray, allElements, quantmeElementRegistry);
             registerOverlay(quantmeElementArray, quantmeElementRegistry);
         }
     } else {
@@ -119,9 +123,8 @@ export async function renderOverlay(viewer, camundaAPI, processInstanceId) {
 *
 * @param diagramElements contains the diagram elements to retrieve data
 */
-async function computeOverlay(camundaAPI, processInstanceId, diagramElements, elementArray, quantmeElementRegistry) {
+async function computeOverlay(camundaAPI, variables, diagramElements, elementArray, quantmeElementRegistry) {
     console.log("Compute overlay for diagram elements ", diagramElements);
-    let variables = await getVariables(camundaAPI, processInstanceId);
 
     // extract qprov endpoint & provider
     const qprovEndpoint = variables["QProvEndpoint"]?.value ?? variables["QPROV_ENDPOINT"]?.value;
@@ -243,7 +246,7 @@ async function computeOverlay(camundaAPI, processInstanceId, diagramElements, el
         let leftPosition = quantmeDiagramElement.x - 25;
         for (let fileVariable of fileVariables) {
             console.log("----fileVariable")
-            let variableInstanceId = await getVariableInstanceId(camundaAPI, processInstanceId, fileVariable);
+            let variableInstanceId = variables[fileVariable].id;
             let value = await getVariableInstanceData(camundaAPI, variableInstanceId);
             if (value !== "") {
                 console.log(value);
@@ -430,25 +433,16 @@ function registerOverlay(diagramElements, quantmeElementRegistry) {
 
 
 /**
-* Get the currently active activities for the given process instance
+* Get the currently active activities from the activity instance tree of a process instance
 *
-* @param camundaAPI the Camunda APIs to access the backend
-* @param processInstanceId the ID of the process instance to retrieve the active activity for
+* @param activityInstance the root of the activity instance tree of the process instance
 * @returns an array with currently active activities
 */
-async function getActiveActivities(camundaAPI, processInstanceId) {
-    const activityInstanceEndpoint = `/engine-rest/process-instance/${processInstanceId}/activity-instances`
-    console.log("Retrieving active activity from URL: ", activityInstanceEndpoint)
-    let res = await fetch(activityInstanceEndpoint,
-        {
-            headers: {
-                'Accept': 'application/json',
-                "X-XSRF-TOKEN": camundaAPI.CSRFToken,
-            }
-        }
-    )
-    let response = await res.json();
-    let activeActivities = collectActivityInstances(response['childActivityInstances'][0]);
+function getActiveActivities(activityInstance) {
+    if (!activityInstance || activityInstance['childActivityInstances'].length === 0) {
+        return [];
+    }
+    let activeActivities = collectActivityInstances(activityInstance['childActivityInstances'][0]);
     console.log("The active activities are ", activeActivities);
 
     return activeActivities;
@@ -478,46 +472,13 @@ function collectActivityInstances(activityInstance) {
 }
 
 /**
-* Get the currently active transition activities for the given process instance
+* Get the currently active transition activities from the activity instance tree of a process instance
 *
-* @param camundaAPI the Camunda APIs to access the backend
-* @param processInstanceId the ID of the process instance to retrieve the active transition activity for
+* @param activityInstance the root of the activity instance tree of the process instance
 * @returns an array with currently active transition activities
 */
-async function getActiveTransitionActivities(camundaAPI, processInstanceId) {
-    const activityInstanceEndpoint = `/engine-rest/process-instance/${processInstanceId}/activity-instances`
-    console.log("Retrieving active activity from URL: ", activityInstanceEndpoint)
-    let res = await fetch(activityInstanceEndpoint,
-        {
-            headers: {
-                'Accept': 'application/json',
-                "X-XSRF-TOKEN": camundaAPI.CSRFToken,
-            }
-        }
-    )
-    return (await res.json())['childTransitionInstances'];
-
-}
-
-/**
- * Get the variable instance id from the process instance
- *
- * @param camundaAPI the Camunda APIs to access the backend
- * @param processInstanceId the ID of the process instance to retrieve the active activity for
- * @returns an array with variables
- */
-async function getVariableInstanceId(camundaAPI, processInstanceId, variableName) {
-    const activityInstanceEndpoint = `/engine-rest/variable-instance?processInstanceId=${processInstanceId}&variableName=${variableName}`
-    console.log("Retrieving variables from URL: ", activityInstanceEndpoint)
-    let res = await fetch(activityInstanceEndpoint,
-        {
-            headers: {
-                'Accept': 'application/json',
-                "X-XSRF-TOKEN": camundaAPI.CSRFToken,
-            }
-        }
-    )
-    return (await res.json())[0].id;
+function getActiveTransitionActivities(activityInstance) {
+    return activityInstance ? activityInstance['childTransitionInstances'] : [];
 }
 
 /**
@@ -542,27 +503,6 @@ async function getVariableInstanceData(camundaAPI, variableInstanceId) {
 }
 
 
-/**
- * Get the variable instance id from the process instance
- *
- * @param camundaAPI the Camunda APIs to access the backend
- * @param processInstanceId the ID of the process instance to retrieve the active activity for
- * @returns an array with variables
- */
-async function getVariables(camundaAPI, processInstanceId) {
-    const activityInstanceEndpoint = `/engine-rest/process-instance/${processInstanceId}/variables`
-    console.log("Retrieving variables from URL: ", activityInstanceEndpoint)
-    let res = await fetch(activityInstanceEndpoint,
-        {
-            headers: {
-                'Accept': 'application/json',
-                "X-XSRF-TOKEN": camundaAPI.CSRFToken,
-            }
-        }
-    )
-    return (await res.json());
-}
-
 /**
  * Get the id of the selected provider from QProv.
  *
@@ -709,28 +649,6 @@ async function visualizeActiveActivities(activeActivityId, quantmeElementRegistr
     }
 }
 
-/**
- * Get the currently active process view and the corresponding Xml file from the backend
- *
- * @param camundaAPI the Camunda APIs to access the backend
- * @param processInstanceId the ID of the process instance to retrieve the active process view for
- * @returns the Json returned by the backend comprising the active process view and the corresponding Xml file
- */
-async function getActiveProcessView(camundaAPI, processInstanceId) {
-    const cockpitApi = camundaAPI.cockpitApi;
-    const processViewEndpoint = `${cockpitApi}/plugin/camunda-process-views-plugin/default/process-instance/${processInstanceId}/active-view`;
-    console.log('Retrieving currently active view using URL: ', processViewEndpoint);
-    let res = await fetch(processViewEndpoint,
-        {
-            headers: {
-                'Accept': 'application/json',
-                "X-XSRF-TOKEN": camundaAPI.CSRFToken,
-            }
-        }
-    )
-    return await res.json();
-}
-
 async function getXml(modeler) {
     console.log(modeler)
     function saveXmlWrapper() {
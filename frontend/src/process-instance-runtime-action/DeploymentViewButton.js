@@ -12,6 +12,7 @@
 import React, {useEffect, useState} from "react";
 
 import "./process-view-button.scss"
+import {fetchJsonWithETag} from "../conditional-fetch";
 import OpenTOSCARenderer from "../process-instance-diagram-overlay/opentosca/OpenTOSCARenderer";
 
 function DeploymentViewButton({camundaAPI, processInstanceId, viewer}) {
@@ -33,17 +34,16 @@ function DeploymentViewButton({camundaAPI, processInstanceId, viewer}) {
     // get the currently active view by retrieving the corresponding variable of the process instance
     useEffect(() => {
         localStorage.setItem("buttonClicked", buttonClicked);
-        fetch(
+        fetchJsonWithETag(
             processViewEndpoint + '/active-view',
             {
                 headers: {
                     'Accept': 'application/json'
                 }
             }
-        ).then(async res => {
+        ).then(response => {
 
             // retrieve value from response
-            let response = await res.json();
             setActivatedView(response['activeProcessView']);
             console.log('Currently activated view: ', response['activeProcessView'])
         }).catch(err => {
@@ -12,6 +12,7 @@
 import React, { useEffect, useState } from "react";
 
 import "./process-view-button.scss"
+import {fetchViewBundle} from "../view-bundle";
 
 function ProcessViewButton({ camundaAPI, processInstanceId }) {
     const [activatedView, setActivatedView] = useState();
@@ -26,17 +27,10 @@ function ProcessViewButton({ camundaAPI, processInstanceId }) {
 
     // get the currently active view by retrieving the corresponding variable of the process instance
     useEffect(() => {
-        fetch(
-            processViewEndpoint + '/active-view',
-            {
-                headers: {
-                    'Accept': 'application/json'
-                }
-            }
-        ).then(async res => {
+        // shares the request of the view bundle with the diagram overlay and the variables tab
+        fetchViewBundle(camundaAPI, processInstanceId).then(response => {
 
             // retrieve value from response
-            let response = await res.json();
             setActivatedView(response['activeProcessView']);
             console.log('Currently activated view: ', response['activeProcessView'])
         }).catch(err => {
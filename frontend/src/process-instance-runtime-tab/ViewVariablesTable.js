@@ -11,8 +11,32 @@
 
 import "../camunda.scss"
 
+// number of variables displayed per page of the table
+const PAGE_SIZE = 50;
+
+// types of variables whose values can be displayed as text
+const TEXT_TYPES = ['Boolean', 'Short', 'Integer', 'Long', 'Double', 'String', 'Json', 'Xml', 'Object'];
+
 export async function renderTable(camundaAPI, processInstanceId, node) {
 
+    // the backend only returns the variables visible in the active view, page by page
+    const cockpitApi = camundaAPI.cockpitApi;
+    const engine = camundaAPI.engine;
+    const viewVariablesEndpoint = `${cockpitApi}/plugin/camunda-process-views-plugin/${engine}/process-instance/${processInstanceId}/view-variables`;
+    const processVariablesEndpoint = `${camundaAPI.engineApi}/process-instance/${processInstanceId}/variables`;
+    const headers = {
+        "Accept": "application/json",
+        "X-XSRF-TOKEN": camundaAPI.CSRFToken,
+    };
+    let nameLike = '';
+    let firstResult = 0;
+
+    // create input to filter the variables by name
+    const filter = document.createElement("input");
+    filter.type = "text";
+    filter.className = "form-control";
+    filter.placeholder = "Filter variables by name";
+
     // create headers for the table
     const table = document.createElement("table");
     table.className = "cam-table";
@@ -22,90 +46,113 @@ export async function renderTable(camundaAPI, processInstanceId, node) {
         <th>Type</th>
         <th>Value</th>
     </tr>`;
-
-    // retrieve active view to apply variable filtering if required
-    const engineApi = camundaAPI.engineApi;
-    const cockpitApi = camundaAPI.cockpitApi;
-    const engine = camundaAPI.engine;
-    const processViewEndpoint = `${cockpitApi}/plugin/camunda-process-views-plugin/${engine}/process-instance/${processInstanceId}/active-view`;
-    console.log('Retrieving currently active view using URL: ', processViewEndpoint);
-    let res = await fetch(processViewEndpoint,
-        {
-            headers: {
-                'Accept': 'application/json'
-            }
-        }
-    )
-    let response = await res.json();
-    let activeView = response['activeProcessView'];
-    console.log("Active view to visualize variables for: ", activeView);
-
-    // get all variables for the current process instance
-    const processVariablesEndpoint = `${engineApi}/process-instance/${processInstanceId}/variables`
-    console.log("Retrieving variables from URL: ", processVariablesEndpoint)
-    res = await fetch(processVariablesEndpoint,
-        {method: 'GET',
-            headers: {
-                "Accept": "application/json",
-                "X-XSRF-TOKEN": camundaAPI.CSRFToken,
-            }});
-    let variablesJson = await res.json();
-    console.log("Retrieved result for current variables: ", variablesJson);
-
-    // create body containing the variables
     const body = table.createTBody();
 
-    // iterate through variables and add them to the table
-    for (const [key, value] of Object.entries(variablesJson)) {
-        console.log("Found variable with name: ", key)
+    // create controls to switch between the pages
+    const pager = document.createElement("div");
+    const previousButton = document.createElement("button");
+    previousButton.className = "btn btn-default";
+    previousButton.innerText = "Previous";
+    const nextButton = document.createElement("button");
+    nextButton.className = "btn btn-default";
+    nextButton.innerText = "Next";
+    const pageInfo = document.createElement("span");
+    pager.appendChild(previousButton);
+    pager.appendChild(pageInfo);
+    pager.appendChild(nextButton);
 
-        // do not visualize variable storing currently active view
-        if (key === "process-view-extension-active-view") {
-            continue;
+    async function loadPage() {
+        const params = new URLSearchParams({firstResult: firstResult, maxResults: PAGE_SIZE});
+        if (nameLike) {
+            params.set('nameLike', nameLike);
         }
+        console.log("Retrieving variables from URL: ", `${viewVariablesEndpoint}?${params}`);
+        const res = await fetch(`${viewVariablesEndpoint}?${params}`, {method: 'GET', headers: headers});
+        const page = await res.json();
+        console.log("Retrieved variables visible in view " + page['activeProcessView'] + ": ", page);
 
-        // skip variables related to hybrid jobs if not within corresponding view
-        if (!activeView.includes('view-before-rewriting') && key.startsWith('hybridJob-')) {
-            console.log('Skipping variable ' + key + ' as active view does not visualize data about hybrid Runtimes: ' + activeView);
-            continue;
+        body.innerHTML = "";
+        for (const variable of page['variables']) {
+            const row = createRow(variable);
+            if (row) {
+                body.appendChild(row);
+            }
         }
 
-        // create new row
+        const count = page['count'];
+        const lastResult = firstResult + page['variables'].length;
+        pageInfo.innerText = count === 0 ? " No variables " : ` ${firstResult + 1} - ${lastResult} of ${count} `;
+        previousButton.disabled = firstResult === 0;
+        nextButton.disabled = lastResult >= count;
+    }
+
+    function createRow(variable) {
         const row = document.createElement("tr");
         const nameCol = document.createElement("td");
         const typeCol = document.createElement("td");
         const valueCol = document.createElement("td");
+        nameCol.innerText = variable['name'];
+        typeCol.innerText = variable['type'];
 
-        // handle variable types for which values can be directly accessed
-        if (value['type'] === 'Boolean' || value['type'] === 'Short' || value['type'] === 'Integer'
-            || value['type'] === 'Long' || value['type'] === 'Double' || value['type'] === 'String') {
-            nameCol.innerText = key;
-            typeCol.innerText = value['type'];
-            valueCol.innerText = value['value'];
-        } else if (value['type'] === 'File') {
-            // handle file variables
-            console.log("Handle file variable: ", key)
-            nameCol.innerText = key;
-            typeCol.innerText = 'File';
+        if (TEXT_TYPES.includes(variable['type'])) {
+            valueCol.innerText = variable['value'];
 
+            // large values are truncated by the backend and only loaded completely on request
+            if (variable['valueInfo'] && variable['valueInfo']['truncated']) {
+                valueCol.innerText += '... ';
+                let anchor = document.createElement('a');
+                anchor.appendChild(document.createTextNode(`Show all ${variable['valueInfo']['length']} characters`));
+                anchor.href = '#';
+                anchor.onclick = async (event) => {
+                    event.preventDefault();
+                    const res = await fetch(`${viewVariablesEndpoint}/${encodeURIComponent(variable['name'])}`,
+                        {method: 'GET', headers: headers});
+                    valueCol.innerText = (await res.json())['value'];
+                };
+                valueCol.appendChild(anchor);
+            }
+        } else if (variable['type'] === 'File') {
             // handle link to file
+            console.log("Handle file variable: ", variable['name'])
             let anchor = document.createElement('a');
             let textNode = document.createTextNode("Download");
             anchor.appendChild(textNode);
-            anchor.href = processVariablesEndpoint + '/' + key + '/data';
+            anchor.href = processVariablesEndpoint + '/' + variable['name'] + '/data';
             valueCol.appendChild(anchor);
-        } else{
+        } else {
             // other kinds of variables are not supported
-            continue;
+            return null;
         }
 
-        // add retrieved variables to body
         row.appendChild(nameCol);
         row.appendChild(typeCol);
         row.appendChild(valueCol);
-        body.appendChild(row);
+        return row;
     }
 
+    previousButton.onclick = () => {
+        firstResult = Math.max(0, firstResult - PAGE_SIZE);
+        loadPage();
+    };
+    nextButton.onclick = () => {
+        firstResult += PAGE_SIZE;
+        loadPage();
+    };
+
+    // reload the first page when the user stops typing
+    let filterTimeout;
+    filter.oninput = () => {
+        clearTimeout(filterTimeout);
+        filterTimeout = setTimeout(() => {
+            nameLike = filter.value;
+            firstResult = 0;
+            loadPage();
+        }, 300);
+    };
+
+    await loadPage();
     node.innerHTML = "";
+    node.appendChild(filter);
     node.appendChild(table);
+    node.appendChild(pager);
 }
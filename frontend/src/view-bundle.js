@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+import {fetchJsonWithETag} from "./conditional-fetch";
+
+/**
+ * Retrieve the active view of a process instance together with the reference to its Xml, the activity instance tree,
+ * and the variables visible in the view using one request, which is shared by all components rendering the process
+ * instance
+ *
+ * The Xml itself is retrieved using fetchActiveViewXml, which reuses or reconstructs it from views rendered before
+ *
+ * @param camundaAPI the Camunda APIs to access the backend
+ * @param processInstanceId the ID of the process instance to retrieve the bundle for
+ * @returns the Json returned by the backend comprising the active view, its Xml path and ETag, activity instances,
+ *          and variables
+ */
+export async function fetchViewBundle(camundaAPI, processInstanceId) {
+    const engine = camundaAPI.engine || 'default';
+    const viewBundleEndpoint = `${camundaAPI.cockpitApi}/plugin/camunda-process-views-plugin/${engine}/process-instance/${processInstanceId}/view-bundle`;
+    console.log('Retrieving view bundle using URL: ', viewBundleEndpoint);
+    return await fetchJsonWithETag(viewBundleEndpoint,
+        {
+            headers: {
+                'Accept': 'application/json',
+                "X-XSRF-TOKEN": camundaAPI.CSRFToken,
+            }
+        }
+    );
+}
+
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+// the Xml of recently rendered views is stored in the browser, as the page is reloaded when switching views
+const DATABASE_NAME = 'camunda-process-views';
+const STORE_NAME = 'view-xml';
+const MAX_STORED_VIEWS = 8;
+
+/**
+ * Retrieve the Xml of the active view of a process instance, reusing a stored copy if the view was rendered before
+ * and otherwise reconstructing it from the difference to the view rendered last, so that switching between the views
+ * of a deployment only transfers the parts that differ
+ *
+ * @param camundaAPI the Camunda APIs to access the backend
+ * @param processInstanceId the ID of the process instance the view belongs to
+ * @param bundle the view bundle comprising the name, path, and ETag of the active view
+ * @returns the Xml of the active view
+ */
+export async function fetchActiveViewXml(camundaAPI, processInstanceId, bundle) {
+    const etag = bundle['activeProcessViewXmlETag'];
+    const stored = await readViewXml(etag);
+    if (stored) {
+        console.log('Reusing stored Xml of view: ', bundle['activeProcessView']);
+        rememberLastView(processInstanceId, etag);
+        return stored.xml;
+    }
+
+    const engine = camundaAPI.engine || 'default';
+    const processInstanceEndpoint = `${camundaAPI.cockpitApi}/plugin/camunda-process-views-plugin/${engine}/process-instance/${processInstanceId}`;
+    let xml = await fetchViewXmlDiff(camundaAPI, processInstanceEndpoint, processInstanceId, bundle);
+    if (xml === undefined) {
+        const res = await fetch(`${processInstanceEndpoint}/${bundle['activeProcessViewXmlPath']}`, {
+            headers: {
+                'Accept': 'application/xml',
+                "X-XSRF-TOKEN": camundaAPI.CSRFToken,
+            }
+        });
+        if (!res.ok) {
+            throw new Error('Unable to retrieve Xml of view ' + bundle['activeProcessView'] + ': ' + res.status);
+        }
+        xml = await res.text();
+    }
+
+    await storeViewXml(etag, xml);
+    rememberLastView(processInstanceId, etag);
+    return xml;
+}
+
+/**
+ * Reconstruct the Xml of the active view from the view rendered last for the process instance and their difference
+ *
+ * @returns the Xml of the active view, or undefined if no base view is available or the difference can not be applied
+ */
+async function fetchViewXmlDiff(camundaAPI, processInstanceEndpoint, processInstanceId, bundle) {
+    const baseETag = readLastView(processInstanceId);
+    const base = baseETag ? await readViewXml(baseETag) : undefined;
+    if (!base) {
+        return undefined;
+    }
+
+    try {
+        const viewName = encodeURIComponent(bundle['activeProcessView']);
+        const res = await fetch(`${processInstanceEndpoint}/view/${viewName}/xml-diff?base=${encodeURIComponent(baseETag)}`, {
+            headers: {
+                'Accept': 'application/json',
+                "X-XSRF-TOKEN": camundaAPI.CSRFToken,
+            }
+        });
+        if (!res.ok) {
+            console.log('Difference to the view rendered last is not available: ', res.status);
+            return undefined;
+        }
+        const diff = await res.json();
+        const xml = applyViewXmlDiff(base.xml, diff['operations']);
+        if (diff['targetETag'] !== bundle['activeProcessViewXmlETag'] || xml.length !== diff['targetLength']) {
+            console.error('Reconstructed Xml does not match the active view, retrieving it completely');
+            return undefined;
+        }
+        console.log('Reconstructed Xml of view ' + bundle['activeProcessView'] + ' with ' + xml.length + ' characters');
+        return xml;
+    } catch (err) {
+        console.error('Unable to apply difference to the view rendered last: ', err);
+        return undefined;
+    }
+}
+
+/**
+ * Apply the operations of a difference returned by the backend, i.e., copied line ranges given as arrays comprising
+ * the first line and the number of lines, and inserted text given as strings, to the Xml of the base view
+ *
+ * @param baseXml the Xml of the base view
+ * @param operations the operations of the difference
+ * @returns the Xml of the target view
+ */
+export function applyViewXmlDiff(baseXml, operations) {
+    const lines = splitLines(baseXml);
+    const parts = [];
+    for (const operation of operations) {
+        if (typeof operation === 'string') {
+            parts.push(operation);
+        } else {
+            for (let i = operation[0]; i < operation[0] + operation[1]; i++) {
+                if (i >= lines.length) {
+                    throw new Error('Difference refers to line ' + i + ' not contained in the base Xml');
+                }
+                parts.push(lines[i]);
+            }
+        }
+    }
+    return parts.join('');
+}
+
+// lines include their line break, matching the lines the backend computes the difference of
+function splitLines(text) {
+    const lines = [];
+    let start = 0;
+    while (start < text.length) {
+        const end = text.indexOf('\n', start);
+        const next = end === -1 ? text.length : end + 1;
+        lines.push(text.substring(start, next));
+        start = next;
+    }
+    return lines;
+}
+
+function readLastView(processInstanceId) {
+    try {
+        return sessionStorage.getItem('process-views.last-view-xml.' + processInstanceId);
+    } catch (err) {
+        return null;
+    }
+}
+
+function rememberLastView(processInstanceId, etag) {
+    try {
+        sessionStorage.setItem('process-views.last-view-xml.' + processInstanceId, etag);
+    } catch (err) {
+        console.log('Unable to remember the view rendered last: ', err);
+    }
+}
+
+function openDatabase() {
+    return new Promise((resolve, reject) => {
+        if (typeof indexedDB === 'undefined') {
+            reject(new Error('IndexedDB is not available'));
+            return;
+        }
+        const request = indexedDB.open(DATABASE_NAME, 1);
+        request.onupgradeneeded = () => request.result.createObjectStore(STORE_NAME, {keyPath: 'etag'});
+        request.onsuccess = () => resolve(request.result);
+        request.onerror = () => reject(request.error);
+    });
+}
+
+async function readViewXml(etag) {
+    if (!etag) {
+        return undefined;
+    }
+    try {
+        const db = await openDatabase();
+        return await new Promise((resolve, reject) => {
+            const request = db.transaction(STORE_NAME, 'readonly').objectStore(STORE_NAME).get(etag);
+            request.onsuccess = () => resolve(request.result);
+            request.onerror = () => reject(request.error);
+        }).finally(() => db.close());
+    } catch (err) {
+        console.log('Unable to read stored view Xml: ', err);
+        return undefined;
+    }
+}
+
+async function storeViewXml(etag, xml) {
+    if (!etag) {
+        return;
+    }
+    try {
+        const db = await openDatabase();
+        await new Promise((resolve, reject) => {
+            const transaction = db.transaction(STORE_NAME, 'readwrite');
+            const store = transaction.objectStore(STORE_NAME);
+            store.put({etag: etag, xml: xml, storedAt: Date.now()});
+
+            // only the views rendered last are kept, evicting the oldest ones
+            const all = store.getAll();
+            all.onsuccess = () => {
+                all.result.sort((a, b) => b.storedAt - a.storedAt)
+                    .slice(MAX_STORED_VIEWS)
+                    .forEach(entry => store.delete(entry.etag));
+            };
+            transaction.oncomplete = () => resolve();
+            transaction.onerror = () => reject(transaction.error);
+        }).finally(() => db.close());
+    } catch (err) {
+        console.log('Unable to store view Xml: ', err);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.quantil.camunda.plugin.client.model.BuildPlanInstance;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Benchmarks of reading build plan instances with large logs as returned by OpenTOSCA
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuildPlanInstanceReaderBenchmark {
+
+    @Param({ "100", "10000" })
+    private int logCount;
+
+    private byte[] json;
+
+    private ObjectMapper objectMapper;
+
+    private BuildPlanInstanceReader reader;
+
+    @Setup
+    public void setUp() {
+        StringBuilder builder = new StringBuilder("{\"id\":1,\"state\":\"FINISHED\",\"logs\":[");
+        for (int i = 0; i < logCount; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append("{\"start_timestamp\":").append(1700000000000L + i)
+                    .append(",\"end_timestamp\":").append(1700000000001L + i)
+                    .append(",\"status\":\"INFO\",\"type\":\"INFO\",\"message\":\"Executed activity ").append(i)
+                    .append(" of the build plan\"}");
+        }
+        builder.append("],\"_links\":{\"self\":{\"href\":\"http://opentosca:1337/buildplans/build/instances/1\"},")
+                .append("\"service_template_instance\":{\"href\":\"http://opentosca:1337/instances/1\"}}}");
+        json = builder.toString().getBytes(StandardCharsets.UTF_8);
+
+        objectMapper = new ObjectMapper();
+        reader = new BuildPlanInstanceReader(objectMapper, 2000);
+    }
+
+    @Benchmark
+    public BuildPlanInstance bindCompleteInstance() throws IOException {
+        return objectMapper.readValue(new ByteArrayInputStream(json), BuildPlanInstance.class);
+    }
+
+    @Benchmark
+    public BuildPlanInstance streamLatestLogs() throws IOException {
+        return reader.read(new ByteArrayInputStream(json));
+    }
+}
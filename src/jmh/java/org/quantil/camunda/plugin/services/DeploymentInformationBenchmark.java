@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.quantil.camunda.plugin.client.OpenToscaClient;
+import org.quantil.camunda.plugin.client.model.BuildPlanInstance;
+import org.quantil.camunda.plugin.client.model.LogEntry;
+import org.quantil.camunda.plugin.client.model.Resource;
+import org.quantil.camunda.plugin.client.model.ServiceTemplateInstance;
+import org.quantil.camunda.plugin.dto.DeploymentInformation;
+
+/**
+ * Benchmarks of the mapping of build plan instances with large logs to deployment information
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeploymentInformationBenchmark {
+
+    private static final String DEPLOYMENT_MODEL_URL =
+            "http://winery:8080/winery/servicetemplates/ns/QuantumApplication/?csar";
+
+    @Param({ "100", "10000" })
+    private int logCount;
+
+    private List<DeploymentTarget> targets;
+
+    private DeploymentInformationService deploymentInformationService;
+
+    private BuildPlanInstance buildPlanInstance;
+
+    private LogSelection pagedLogSelection;
+
+    @Setup
+    public void setUp() {
+        buildPlanInstance = new BuildPlanInstance();
+        buildPlanInstance.setState("FINISHED");
+        List<LogEntry> logs = new ArrayList<>(logCount);
+        for (int i = 0; i < logCount; i++) {
+            LogEntry logEntry = new LogEntry();
+            logEntry.setStartTimestamp(1700000000000L + i);
+            logEntry.setEndTimestamp(1700000000000L + i + 1);
+            logEntry.setStatus(i % 50 == 0 ? "ERROR" : "INFO");
+            logEntry.setMessage("Executed activity " + i + " of the build plan");
+            logs.add(logEntry);
+        }
+        buildPlanInstance.setLogs(logs);
+        Resource.Link instanceLink = new Resource.Link();
+        instanceLink.setHref("http://opentosca:1337/csars/QuantumApplication.csar/servicetemplates/instances/1");
+        Map<String, Resource.Link> links = new HashMap<>();
+        links.put("service_template_instance", instanceLink);
+        buildPlanInstance.setLinks(links);
+
+        ServiceTemplateInstance serviceTemplateInstance = new ServiceTemplateInstance();
+        serviceTemplateInstance.setState("CREATED");
+        serviceTemplateInstance.setCreatedAt(1700000000000L);
+
+        // serve the instances from memory in place of OpenTOSCA
+        OpenToscaClient openToscaClient = new OpenToscaClient(null) {
+            @Override
+            public <T> T fetch(String url, Class<T> clazz) {
+                return clazz.cast(clazz == BuildPlanInstance.class ? buildPlanInstance : serviceTemplateInstance);
+            }
+        };
+        deploymentInformationService = new DeploymentInformationService(openToscaClient);
+        targets = Collections.singletonList(new DeploymentTarget("Task_1", DEPLOYMENT_MODEL_URL,
+                "http://opentosca:1337/csars/QuantumApplication.csar/buildplans/build/instances/1"));
+        pagedLogSelection = LogSelection.of(Collections.singletonList("Task_1:" + logCount / 2),
+                Collections.emptyList(), 100);
+    }
+
+    @Benchmark
+    public String extractCsarName() {
+        return DeploymentInformationService.extractCsarNameFromDeploymentModelUrl(DEPLOYMENT_MODEL_URL);
+    }
+
+    @Benchmark
+    public DeploymentInformation mapAllLogs() {
+        DeploymentInformation deploymentInformation = new DeploymentInformation();
+        deploymentInformation.setElementId("Task_1");
+        LogSelection.all().apply(deploymentInformation, buildPlanInstance.getLogs(), 0);
+        return deploymentInformation;
+    }
+
+    @Benchmark
+    public DeploymentInformation mapLogPage() {
+        DeploymentInformation deploymentInformation = new DeploymentInformation();
+        deploymentInformation.setElementId("Task_1");
+        pagedLogSelection.apply(deploymentInformation, buildPlanInstance.getLogs(), 0);
+        return deploymentInformation;
+    }
+
+    @Benchmark
+    public List<DeploymentInformation> fetchDeploymentInformation() {
+        return deploymentInformationService.fetchDeploymentInformation(targets, 10000);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Resolver serving a synthetic deployment from memory in place of the process engine or its REST API
+ */
+class InMemoryDeploymentResourceResolver implements DeploymentResourceResolver {
+
+    static final String DEPLOYMENT_ID = "deployment";
+
+    static final String PROCESS_INSTANCE_ID = "process-instance";
+
+    private final Map<String, String> resources = new LinkedHashMap<>();
+
+    /**
+     * @param viewCount the number of views contained in the deployment in addition to the workflow
+     */
+    InMemoryDeploymentResourceResolver(int viewCount) {
+        // deployments of QuantME workflows contain the workflow, the views and forms of its user tasks
+        for (int i = 0; i < viewCount; i++) {
+            resources.put("resource-" + i, String.format("view-%04d.xml", viewCount - i));
+            if (i % 10 == 0) {
+                resources.put("form-" + i, String.format("form-%04d.html", i));
+            }
+        }
+        resources.put("resource-workflow", "workflow.bpmn");
+    }
+
+    Map<String, String> getResources() {
+        return resources;
+    }
+
+    @Override
+    public ProcessInstanceDeployment getDeploymentForProcessInstance(String processInstanceId) {
+        if (!PROCESS_INSTANCE_ID.equals(processInstanceId)) {
+            throw new NoSuchElementException("Unknown process instance: " + processInstanceId);
+        }
+        return new ProcessInstanceDeployment("process-definition", DEPLOYMENT_ID);
+    }
+
+    @Override
+    public Map<String, String> getResourcesForDeployment(String deploymentId) {
+        return resources;
+    }
+
+    @Override
+    public long getDeploymentTime(String deploymentId) {
+        return 0;
+    }
+
+    @Override
+    public InputStream getResourceData(String deploymentId, String resourceId) {
+        String xml = "<definitions id=\"" + resourceId + "\"/>";
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.services;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the ordering and lookup of the views contained in deployments of different sizes
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ViewResolutionBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    private int viewCount;
+
+    private InMemoryDeploymentResourceResolver resolver;
+
+    private ProcessViewService processViewService;
+
+    private String middleView;
+
+    private String lastView;
+
+    @Setup
+    public void setUp() throws IOException {
+        resolver = new InMemoryDeploymentResourceResolver(viewCount);
+        processViewService = new ProcessViewService(resolver);
+
+        // start each trial with an empty cache, as the views differ between the parameters
+        ProcessViewService.getViewIndexCache().invalidateAll();
+        ViewIndex viewIndex = processViewService.getViewIndexForDeployment(InMemoryDeploymentResourceResolver.DEPLOYMENT_ID);
+        middleView = viewIndex.getOrderedViews().get(viewIndex.getOrderedViews().size() / 2);
+        lastView = viewIndex.getOrderedViews().get(viewIndex.getOrderedViews().size() - 1);
+    }
+
+    @Benchmark
+    public ViewIndex buildViewIndex() {
+        return ViewIndex.fromResources(InMemoryDeploymentResourceResolver.DEPLOYMENT_ID, resolver.getResources());
+    }
+
+    @Benchmark
+    public String findInitialView() throws IOException {
+        return processViewService.findInitialViewName(InMemoryDeploymentResourceResolver.PROCESS_INSTANCE_ID);
+    }
+
+    @Benchmark
+    public String nextView() throws IOException {
+        return processViewService.getNextProcessView(InMemoryDeploymentResourceResolver.PROCESS_INSTANCE_ID, lastView);
+    }
+
+    @Benchmark
+    public String selectViewBySuffix() throws IOException {
+        return processViewService.getProcessView(InMemoryDeploymentResourceResolver.PROCESS_INSTANCE_ID, lastView,
+                middleView.substring(middleView.indexOf('-')));
+    }
+
+    @Benchmark
+    public ViewReference resolveView() throws IOException {
+        return processViewService.resolveView(InMemoryDeploymentResourceResolver.PROCESS_INSTANCE_ID, middleView);
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin;
+
+/**
+ * Configuration of the server-side plugins
+ *
+ * Each setting is read from a system property (e.g., -Dprocess-views.view-index-cache-size=512) or, if the
+ * system property is not set, from the corresponding environment variable (e.g., PROCESS_VIEWS_VIEW_INDEX_CACHE_SIZE)
+ */
+public final class PluginConfiguration {
+
+    private static final String PREFIX = "process-views.";
+
+    private PluginConfiguration() {
+    }
+
+    /**
+     * @return the maximum number of deployments for which the view index is kept in memory
+     */
+    public static int getViewIndexCacheSize() {
+        return getInt("view-index-cache-size", 256);
+    }
+
+    /**
+     * @return the maximum number of deployments whose views are kept in the registry filled when they are deployed
+     */
+    public static int getViewRegistrySize() {
+        return getInt("view-registry-size", 10000);
+    }
+
+    /**
+     * @return true if view catalogs and terminal OpenTOSCA responses are shared with other Cockpit nodes using a table
+     *         in the database of the process engine
+     */
+    public static boolean isSharedCacheEnabled() {
+        return Boolean.parseBoolean(getString("shared-cache.enabled", "false"));
+    }
+
+    /**
+     * @return the time in milliseconds after which the version of a shared cache region is checked again to detect
+     *         invalidations by other Cockpit nodes
+     */
+    public static long getSharedCacheVersionCheckIntervalMillis() {
+        return getLong("shared-cache.version-check-interval-millis", 5000);
+    }
+
+    /**
+     * @return the directory of the persistent store holding the XML of the process views across restarts
+     */
+    public static String getViewXmlStoreDirectory() {
+        return getString("view-xml-store.directory",
+                System.getProperty("java.io.tmpdir") + "/camunda-process-views/view-xml");
+    }
+
+    /**
+     * @return the maximum size in bytes of the persistent view XML store, or zero to disable the store
+     */
+    public static long getViewXmlStoreMaxSizeBytes() {
+        return getLong("view-xml-store.max-size-bytes", 256L * 1024 * 1024);
+    }
+
+    /**
+     * @return the size in bytes of the segment files of the persistent view XML store, which are evicted as a whole
+     */
+    public static long getViewXmlStoreSegmentSizeBytes() {
+        return getLong("view-xml-store.segment-size-bytes", 16L * 1024 * 1024);
+    }
+
+    /**
+     * @return the maximum number of view pairs for which the difference between their XML is kept in memory
+     */
+    public static int getViewDiffCacheSize() {
+        return getInt("view-diff.cache-size", 256);
+    }
+
+    /**
+     * @return the maximum number of differing lines searched for a minimal difference between the XML of two views
+     */
+    public static int getViewDiffMaxEditDistance() {
+        return getInt("view-diff.max-edit-distance", 2000);
+    }
+
+    /**
+     * @return the maximum number of process instances for which the process definition and deployment is remembered
+     */
+    public static int getProcessInstanceDeploymentCacheSize() {
+        return getInt("process-instance-deployment-cache-size", 10000);
+    }
+
+    /**
+     * @return the time in milliseconds after which the remembered deployment of a process instance expires
+     */
+    public static long getProcessInstanceDeploymentCacheTtlMillis() {
+        return getLong("process-instance-deployment-cache-ttl-millis", 600000L);
+    }
+
+    /**
+     * @return true if process views should be resolved using the Camunda REST API instead of the Java API of the
+     *         process engine, i.e., if the view resolution mode is set to 'rest'
+     */
+    public static boolean isRestViewResolution() {
+        return "rest".equalsIgnoreCase(getString("view-resolution", "engine"));
+    }
+
+    /**
+     * @return the timeout in milliseconds for establishing HTTP connections to other services
+     */
+    public static int getHttpConnectTimeoutMillis() {
+        return getInt("http.connect-timeout-millis", 5000);
+    }
+
+    /**
+     * @return the timeout in milliseconds for reading HTTP responses of other services
+     */
+    public static int getHttpReadTimeoutMillis() {
+        return getInt("http.read-timeout-millis", 30000);
+    }
+
+    /**
+     * @return the maximum number of process instances that can be requested at once using the batch endpoints
+     */
+    public static int getBatchSizeLimit() {
+        return getInt("batch-size-limit", 1000);
+    }
+
+    /**
+     * @return the maximum number of variables that can be requested at once using the paged variable endpoint
+     */
+    public static int getVariablePageSizeLimit() {
+        return getInt("variables.page-size-limit", 200);
+    }
+
+    /**
+     * @return the number of characters of serialized variable values that are returned in variable listings, longer
+     *         values are truncated and have to be requested individually
+     */
+    public static int getVariablePreviewLength() {
+        return getInt("variables.preview-length", 1000);
+    }
+
+    /**
+     * @return the maximum number of process definitions for which the annotated OpenTOSCA deployments are kept in
+     *         memory
+     */
+    public static int getDeploymentDescriptorCacheSize() {
+        return getInt("deployment-descriptor-cache-size", 256);
+    }
+
+    /**
+     * @return the number of threads shared by all requests to fetch deployment information from OpenTOSCA
+     */
+    public static int getOpenToscaFetchThreads() {
+        return getInt("opentosca.fetch-threads", 16);
+    }
+
+    /**
+     * @return the maximum number of fetches from OpenTOSCA waiting for a thread
+     */
+    public static int getOpenToscaFetchQueueSize() {
+        return getInt("opentosca.fetch-queue-size", 256);
+    }
+
+    /**
+     * @return the time in milliseconds after which the retrieval of deployment information is aborted
+     */
+    public static long getOpenToscaRequestDeadlineMillis() {
+        return getLong("opentosca.request-deadline-millis", 10000);
+    }
+
+    /**
+     * @return the maximum number of concurrent requests to a single OpenTOSCA host
+     */
+    public static int getOpenToscaMaxConcurrentCallsPerHost() {
+        return getInt("opentosca.max-concurrent-calls-per-host", 8);
+    }
+
+    /**
+     * @return the number of consecutive failed requests to an OpenTOSCA host after which its circuit breaker opens
+     */
+    public static int getOpenToscaCircuitBreakerFailureThreshold() {
+        return getInt("opentosca.circuit-breaker.failure-threshold", 5);
+    }
+
+    /**
+     * @return the time in milliseconds requests to an OpenTOSCA host are rejected before a probe request is sent
+     */
+    public static long getOpenToscaCircuitBreakerOpenDurationMillis() {
+        return getLong("opentosca.circuit-breaker.open-duration-millis", 30000);
+    }
+
+    /**
+     * @return the maximum number of OpenTOSCA responses kept in memory
+     */
+    public static int getOpenToscaResponseCacheSize() {
+        return getInt("opentosca.response-cache-size", 1000);
+    }
+
+    /**
+     * @return the comma-separated states of build plan and service template instances that do not change anymore
+     */
+    public static String getOpenToscaTerminalStates() {
+        return getString("opentosca.terminal-states", "FINISHED,FAILED,ERROR,DELETED");
+    }
+
+    /**
+     * @return the time in milliseconds OpenTOSCA responses in a non-terminal state are cached
+     */
+    public static long getOpenToscaRunningStateTtlMillis() {
+        return getLong("opentosca.running-state-ttl-millis", 3000);
+    }
+
+    /**
+     * @return the maximum number of the latest log entries of a build plan instance that are kept in memory
+     */
+    public static int getOpenToscaMaxBufferedLogEntries() {
+        return getInt("opentosca.max-buffered-log-entries", 2000);
+    }
+
+    /**
+     * @return the maximum number of log entries returned per deployment by a request for deployment information
+     */
+    public static int getOpenToscaLogPageSize() {
+        return getInt("opentosca.log-page-size", 500);
+    }
+
+    /**
+     * @return the number of threads polling the state of watched deployments from OpenTOSCA
+     */
+    public static int getOpenToscaPollThreads() {
+        return getInt("opentosca.poll-threads", 4);
+    }
+
+    /**
+     * @return the time in milliseconds between two polls of the state of a watched deployment
+     */
+    public static long getOpenToscaPollIntervalMillis() {
+        return getLong("opentosca.poll-interval-millis", 2000);
+    }
+
+    /**
+     * @return the time in milliseconds after which a deployment is not polled anymore if no client watches it
+     */
+    public static long getOpenToscaPollerIdleTimeoutMillis() {
+        return getLong("opentosca.poller-idle-timeout-millis", 60000);
+    }
+
+    /**
+     * @return the maximum time in milliseconds a request for deployment updates waits for a change
+     */
+    public static long getOpenToscaLongPollTimeoutMillis() {
+        return getLong("opentosca.long-poll-timeout-millis", 25000);
+    }
+
+    static String getString(String name, String defaultValue) {
+        String value = System.getProperty(PREFIX + name);
+        if (value == null) {
+            value = System.getenv((PREFIX + name).replace('.', '_').replace('-', '_').toUpperCase());
+        }
+        return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+    }
+
+    static long getLong(String name, long defaultValue) {
+        String value = getString(name, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Ignoring invalid value '" + value + "' for configuration property " + PREFIX + name);
+            return defaultValue;
+        }
+    }
+
+    static int getInt(String name, int defaultValue) {
+        String value = getString(name, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Ignoring invalid value '" + value + "' for configuration property " + PREFIX + name);
+            return defaultValue;
+        }
+    }
+}
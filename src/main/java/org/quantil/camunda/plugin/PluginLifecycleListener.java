@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+
+import org.quantil.camunda.plugin.cache.SharedCache;
+import org.quantil.camunda.plugin.client.PluginHttpClient;
+import org.quantil.camunda.plugin.services.DeploymentInformationService;
+import org.quantil.camunda.plugin.services.DeploymentStatusPoller;
+import org.quantil.camunda.plugin.services.ProcessViewService;
+
+/**
+ * Releases the resources shared by the server-side plugins when the Camunda webapp is undeployed
+ *
+ * The listener is registered using the web-fragment.xml of the plugin jar
+ */
+public class PluginLifecycleListener implements ServletContextListener {
+
+    @Override
+    public void contextInitialized(ServletContextEvent servletContextEvent) {
+        // shared resources are created lazily on first use
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent servletContextEvent) {
+        System.out.println("Releasing resources of the process view plugins...");
+        DeploymentStatusPoller.shutdown();
+        DeploymentInformationService.shutdown();
+        PluginHttpClient.shutdown();
+        SharedCache.clear();
+        ProcessViewService.closeViewXmlStore();
+    }
+}
@@ -11,7 +11,9 @@
 
 package org.quantil.camunda.plugin;
 
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.camunda.bpm.cockpit.plugin.spi.impl.AbstractCockpitPlugin;
@@ -36,4 +38,10 @@ public class ProcessViewPlugin extends AbstractCockpitPlugin {
 
         return classes;
     }
+
+    @Override
+    public List<String> getMappingFiles() {
+        // statements of the shared cache, which are also used by the deployment view plugin
+        return Collections.singletonList("org/quantil/camunda/plugin/queries/shared-cache.xml");
+    }
 }
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Thread-safe cache with a bounded number of entries, evicting the least recently used entry once the maximum size is
+ * exceeded and, optionally, entries that are older than a given time to live
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the cached values
+ */
+public class LruCache<K, V> {
+
+    private static final class CacheEntry<V> {
+
+        private final V value;
+
+        private final long expiresAt;
+
+        private CacheEntry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final String name;
+
+    private final int maximumSize;
+
+    private final long expireAfterWriteMillis;
+
+    private final LinkedHashMap<K, CacheEntry<V>> entries;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * Create a new cache without expiry of its entries
+     *
+     * @param name        the name of the cache used for logging and statistics
+     * @param maximumSize the maximum number of entries, a value smaller than one disables caching
+     */
+    public LruCache(String name, int maximumSize) {
+        this(name, maximumSize, 0);
+    }
+
+    /**
+     * Create a new cache
+     *
+     * @param name                   the name of the cache used for logging and statistics
+     * @param maximumSize            the maximum number of entries, a value smaller than one disables caching
+     * @param expireAfterWriteMillis the time to live of the entries in milliseconds, a value smaller than one
+     *                               disables expiry
+     */
+    public LruCache(String name, int maximumSize, long expireAfterWriteMillis) {
+        this.name = name;
+        this.maximumSize = maximumSize;
+        this.expireAfterWriteMillis = expireAfterWriteMillis;
+        this.entries = new LinkedHashMap<K, CacheEntry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+                if (size() > LruCache.this.maximumSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get the cached value for the given key
+     *
+     * @param key the key to get the value for
+     * @return the cached value or null if no value is cached for the key or the value is expired
+     */
+    public V get(K key) {
+        V value = null;
+        synchronized (entries) {
+            CacheEntry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt > 0 && entry.expiresAt <= System.currentTimeMillis()) {
+                    entries.remove(key);
+                    expirations.increment();
+                } else {
+                    value = entry.value;
+                }
+            }
+        }
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Check whether a value is cached for the given key without counting a hit or miss, e.g., to decide whether a
+     * request can be served before performing it
+     *
+     * @param key the key to check
+     * @return true if a value that is not expired is cached for the key
+     */
+    public boolean containsKey(K key) {
+        synchronized (entries) {
+            CacheEntry<V> entry = entries.get(key);
+            return entry != null && (entry.expiresAt <= 0 || entry.expiresAt > System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Add the given value to the cache, possibly evicting the least recently used entry
+     *
+     * @param key   the key to store the value for
+     * @param value the value to store
+     */
+    public void put(K key, V value) {
+        put(key, value, expireAfterWriteMillis);
+    }
+
+    /**
+     * Add the given value to the cache using a specific time to live, possibly evicting the least recently used entry
+     *
+     * @param key              the key to store the value for
+     * @param value            the value to store
+     * @param timeToLiveMillis the time to live of the entry in milliseconds, a value smaller than one stores the entry
+     *                         until it is evicted
+     */
+    public void put(K key, V value, long timeToLiveMillis) {
+        if (maximumSize < 1 || key == null || value == null) {
+            return;
+        }
+        long expiresAt = timeToLiveMillis > 0 ? System.currentTimeMillis() + timeToLiveMillis : 0;
+        synchronized (entries) {
+            entries.put(key, new CacheEntry<>(value, expiresAt));
+        }
+    }
+
+    /**
+     * Remove the entry for the given key
+     *
+     * @param key the key of the entry to remove
+     */
+    public void invalidate(K key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Remove all entries whose key matches the given condition
+     *
+     * @param condition the condition of the keys to remove
+     */
+    public void invalidateIf(Predicate<? super K> condition) {
+        synchronized (entries) {
+            entries.keySet().removeIf(condition);
+        }
+    }
+
+    /**
+     * Remove all entries from the cache
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getExpirationCount() {
+        return expirations.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "Cache '" + name + "' [size=" + size() + "/" + maximumSize + ", hits=" + getHitCount() + ", misses="
+                + getMissCount() + ", evictions=" + getEvictionCount() + ", expirations=" + getExpirationCount() + "]";
+    }
+}
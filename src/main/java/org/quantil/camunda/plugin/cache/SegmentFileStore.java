@@ -0,0 +1,484 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Persistent store of immutable values, which are compressed and appended to segment files on disk
+ *
+ * Each record comprises a header with the lengths of its key and value, the key, the deflated value, and a checksum
+ * of the deflated value. The offsets of the records are kept in an in-memory index, which is rebuilt by scanning the
+ * segments when the store is opened, truncating records that were not written completely. Once a segment reached its
+ * maximum size, it is sealed and memory-mapped, so that values are inflated directly from the page cache of the
+ * operating system instead of being held on the heap. If the total size of the segments exceeds the maximum size of
+ * the store, the oldest segments are deleted. The channel of a segment stays open until the segment is deleted or the
+ * store is closed, so that readers that found the segment unsealed can still read from it while it is sealed.
+ */
+public class SegmentFileStore implements AutoCloseable {
+
+    private static final int RECORD_MAGIC = 0x50565831;
+
+    // magic, key length, uncompressed length, compressed length
+    private static final int HEADER_SIZE = 16;
+
+    private static final int CHECKSUM_SIZE = 8;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+
+    private static final String SEGMENT_SUFFIX = ".dat";
+
+    private final Path directory;
+
+    private final long maximumSizeBytes;
+
+    private final long segmentSizeBytes;
+
+    private final FileChannel lockChannel;
+
+    private final FileLock lock;
+
+    private final ConcurrentMap<String, Location> index = new ConcurrentHashMap<>();
+
+    // segments ordered by their IDs, i.e., from the oldest to the newest one
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+    // guarded by this
+    private Segment activeSegment;
+
+    private volatile long sizeBytes;
+
+    // guarded by this
+    private boolean closed;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private SegmentFileStore(Path directory, long maximumSizeBytes, long segmentSizeBytes, FileChannel lockChannel,
+            FileLock lock) {
+        this.directory = directory;
+        this.maximumSizeBytes = maximumSizeBytes;
+        this.segmentSizeBytes = Math.max(4096, Math.min(segmentSizeBytes, maximumSizeBytes));
+        this.lockChannel = lockChannel;
+        this.lock = lock;
+    }
+
+    /**
+     * Open the store in the given directory, recovering the values stored before
+     *
+     * @param directory        the directory containing the segment files, which is created if it does not exist
+     * @param maximumSizeBytes the maximum total size of the segment files
+     * @param segmentSizeBytes the size after which a segment is sealed and a new one is started
+     * @return the opened store
+     * @throws IOException if the directory can not be accessed or is already used by another process
+     */
+    public static SegmentFileStore open(Path directory, long maximumSizeBytes, long segmentSizeBytes)
+            throws IOException {
+        Files.createDirectories(directory);
+
+        // the segments must not be written by several processes, e.g., several webapps sharing the directory
+        FileChannel lockChannel = FileChannel.open(directory.resolve("store.lock"), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // the directory is used by another webapp within the same JVM
+            lock = null;
+        } catch (IOException | RuntimeException e) {
+            lockChannel.close();
+            throw e;
+        }
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException("Store directory " + directory + " is used by another process");
+        }
+
+        SegmentFileStore store = new SegmentFileStore(directory, maximumSizeBytes, segmentSizeBytes, lockChannel, lock);
+        try {
+            store.recover();
+        } catch (IOException | RuntimeException e) {
+            store.close();
+            throw e;
+        }
+        return store;
+    }
+
+    /**
+     * Open the value of the given key
+     *
+     * @param key the key of the value
+     * @return the stream inflating the value, or null if the store does not contain the key
+     */
+    public InputStream open(String key) throws IOException {
+        Location location = index.get(key);
+        Segment segment = location == null ? null : segments.get(location.segmentId);
+        if (segment == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+
+        ByteBuffer compressed;
+        MappedByteBuffer mapped = segment.mapped;
+        if (mapped != null) {
+            compressed = mapped.duplicate();
+            compressed.position((int) location.offset);
+            compressed.limit((int) (location.offset + location.compressedLength));
+        } else {
+            // the active segment is still growing, thus, only the compressed value is read into the heap
+            compressed = ByteBuffer.allocate(location.compressedLength);
+            segment.read(compressed, location.offset);
+            compressed.flip();
+        }
+        return new InflaterInputStream(new ByteBufferInputStream(compressed));
+    }
+
+    /**
+     * @param key the key of the value
+     * @return true if the store contains a value for the given key
+     */
+    public boolean contains(String key) {
+        Location location = index.get(key);
+        return location != null && segments.containsKey(location.segmentId);
+    }
+
+    /**
+     * Compress the given value and append it to the store, replacing a previous value of the key
+     *
+     * @param key   the key of the value
+     * @param value the stream providing the value, which is read completely but not closed
+     * @return true if the value was stored, false if writing to the store failed or the store is closed
+     * @throws IOException if the value can not be read
+     */
+    public boolean put(String key, InputStream value) throws IOException {
+        // only the compressed value is kept in memory until it is written
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        long uncompressedLength = 0;
+        try (DeflaterOutputStream deflater = new DeflaterOutputStream(compressed)) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = value.read(buffer)) != -1) {
+                deflater.write(buffer, 0, read);
+                uncompressedLength += read;
+            }
+        }
+        if (uncompressedLength > Integer.MAX_VALUE) {
+            return false;
+        }
+
+        try {
+            append(key.getBytes(StandardCharsets.UTF_8), compressed.toByteArray(), (int) uncompressedLength);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Unable to write " + key + " to store " + directory + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private synchronized void append(byte[] key, byte[] compressed, int uncompressedLength) throws IOException {
+        if (closed) {
+            throw new IOException("Store is closed");
+        }
+        int recordLength = HEADER_SIZE + key.length + compressed.length + CHECKSUM_SIZE;
+        if (activeSegment == null || (activeSegment.size > 0 && activeSegment.size + recordLength > segmentSizeBytes)) {
+            startSegment();
+        }
+
+        CRC32 checksum = new CRC32();
+        checksum.update(compressed, 0, compressed.length);
+        ByteBuffer record = ByteBuffer.allocate(recordLength);
+        record.putInt(RECORD_MAGIC).putInt(key.length).putInt(uncompressedLength).putInt(compressed.length);
+        record.put(key).put(compressed).putLong(checksum.getValue());
+        record.flip();
+
+        Segment segment = activeSegment;
+        long offset = segment.size;
+        while (record.hasRemaining()) {
+            segment.channel.write(record, offset + record.position());
+        }
+        segment.size += recordLength;
+        sizeBytes += recordLength;
+        index.put(new String(key, StandardCharsets.UTF_8), new Location(segment.id,
+                offset + HEADER_SIZE + key.length, compressed.length));
+
+        evictOldestSegments();
+    }
+
+    private void startSegment() throws IOException {
+        long id = 0;
+        if (activeSegment != null) {
+            activeSegment.seal();
+            id = activeSegment.id + 1;
+        } else if (!segments.isEmpty()) {
+            id = segments.lastKey() + 1;
+        }
+        Path path = directory.resolve(SEGMENT_PREFIX + id + SEGMENT_SUFFIX);
+        activeSegment = new Segment(id, path, FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE), 0);
+        segments.put(id, activeSegment);
+    }
+
+    private void evictOldestSegments() throws IOException {
+        while (sizeBytes > maximumSizeBytes && segments.size() > 1) {
+            Segment oldest = segments.pollFirstEntry().getValue();
+            index.values().removeIf(location -> location.segmentId == oldest.id);
+            sizeBytes -= oldest.size;
+            evictions.increment();
+
+            // streams reading from the mapped segment remain valid, as the mapping is only released by the GC
+            oldest.close();
+            Files.deleteIfExists(oldest.path);
+            System.out.println("Evicted segment " + oldest.path + " with " + oldest.size + " bytes from store");
+        }
+    }
+
+    private synchronized void recover() throws IOException {
+        Map<Long, Path> segmentFiles = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    segmentFiles.put(Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())), file);
+                } catch (NumberFormatException e) {
+                    System.err.println("Ignoring unexpected file in store: " + file);
+                }
+            }
+        }
+
+        for (Map.Entry<Long, Path> segmentFile : segmentFiles.entrySet()) {
+            FileChannel channel = FileChannel.open(segmentFile.getValue(), StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            Segment segment = new Segment(segmentFile.getKey(), segmentFile.getValue(), channel, 0);
+            segment.size = scan(segment);
+            segments.put(segment.id, segment);
+            sizeBytes += segment.size;
+            if (activeSegment != null) {
+                activeSegment.seal();
+            }
+            activeSegment = segment;
+        }
+        if (activeSegment != null && activeSegment.size >= segmentSizeBytes) {
+            activeSegment.seal();
+            activeSegment = null;
+        }
+        evictOldestSegments();
+        System.out.println("Opened store " + directory + " with " + index.size() + " entries in " + segments.size()
+                + " segments and " + sizeBytes + " bytes");
+    }
+
+    /**
+     * Add the records of the given segment to the index, truncating the segment after the last complete record
+     *
+     * @return the size of the segment containing only complete records
+     */
+    private long scan(Segment segment) throws IOException {
+        long fileSize = segment.channel.size();
+        long offset = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (offset + HEADER_SIZE <= fileSize) {
+            header.clear();
+            segment.read(header, offset);
+            header.flip();
+            int magic = header.getInt();
+            int keyLength = header.getInt();
+            header.getInt();
+            int compressedLength = header.getInt();
+            long recordLength = (long) HEADER_SIZE + keyLength + compressedLength + CHECKSUM_SIZE;
+            if (magic != RECORD_MAGIC || keyLength < 0 || compressedLength < 0 || offset + recordLength > fileSize) {
+                break;
+            }
+
+            ByteBuffer body = ByteBuffer.allocate(keyLength + compressedLength + CHECKSUM_SIZE);
+            segment.read(body, offset + HEADER_SIZE);
+            body.flip();
+            CRC32 checksum = new CRC32();
+            checksum.update(body.array(), keyLength, compressedLength);
+            if (body.getLong(keyLength + compressedLength) != checksum.getValue()) {
+                break;
+            }
+
+            // later records of a key replace earlier ones
+            String key = new String(body.array(), 0, keyLength, StandardCharsets.UTF_8);
+            index.put(key, new Location(segment.id, offset + HEADER_SIZE + keyLength, compressedLength));
+            offset += recordLength;
+        }
+        if (offset < fileSize) {
+            System.err.println("Truncating incomplete records of " + segment.path + " after " + offset + " bytes");
+            segment.channel.truncate(offset);
+        }
+        return offset;
+    }
+
+    /**
+     * @return the number of values in the store
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * @return the total size of the segment files in bytes
+     */
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            for (Segment segment : segments.values()) {
+                segment.close();
+            }
+            segments.clear();
+            index.clear();
+            activeSegment = null;
+        } finally {
+            try {
+                lock.release();
+            } finally {
+                lockChannel.close();
+            }
+        }
+    }
+
+    /**
+     * Position of a value within the segments
+     */
+    private static final class Location {
+
+        private final long segmentId;
+
+        private final long offset;
+
+        private final int compressedLength;
+
+        private Location(long segmentId, long offset, int compressedLength) {
+            this.segmentId = segmentId;
+            this.offset = offset;
+            this.compressedLength = compressedLength;
+        }
+    }
+
+    /**
+     * Segment file, which is written using its channel while active and read from its mapping once sealed
+     */
+    private static final class Segment {
+
+        private final long id;
+
+        private final Path path;
+
+        private final FileChannel channel;
+
+        private volatile MappedByteBuffer mapped;
+
+        private volatile long size;
+
+        private Segment(long id, Path path, FileChannel channel, long size) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.size = size;
+        }
+
+        private void read(ByteBuffer buffer, long position) throws IOException {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of segment " + path);
+                }
+            }
+        }
+
+        private void seal() throws IOException {
+            channel.force(false);
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+
+        private void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Stream reading the remaining bytes of a buffer without copying them
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int read = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, read);
+            return read;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
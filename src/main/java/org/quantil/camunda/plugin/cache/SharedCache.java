@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.ibatis.session.SqlSession;
+import org.camunda.bpm.cockpit.Cockpit;
+import org.camunda.bpm.cockpit.db.CommandExecutor;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.quantil.camunda.plugin.PluginConfiguration;
+import org.quantil.camunda.plugin.metrics.PluginMetrics;
+import org.quantil.camunda.plugin.metrics.Timer;
+
+/**
+ * Cache tier shared by all Cockpit nodes using the same engine database, storing values in a table of the plugin
+ *
+ * The in-memory caches of the callers act as near caches in front of the shared cache. Each region has a version
+ * that is incremented whenever an entry of the region is invalidated, and which is checked at most once per
+ * configured interval, notifying the caller to clear its near cache if the version changed on another node. Entries
+ * are stored with the version of their region and only returned while it is current, thus, incrementing the version
+ * invalidates all entries of the region immediately. The shared cache is a best-effort tier, thus, failing database operations are logged and treated as cache misses.
+ */
+public class SharedCache {
+
+    private static final String NAMESPACE = "cockpit.processViews.sharedCache.";
+
+    private static final String TABLE_NAME = "PV_SHARED_CACHE_";
+
+    // key of the entry holding the version of a region, which can not collide with the hashes of other keys
+    private static final String VERSION_KEY = "#version";
+
+    private static final ConcurrentMap<String, SharedCache> SHARED_CACHES = new ConcurrentHashMap<>();
+
+    // engines whose database is known to contain the table of the shared cache
+    private static final Set<String> INITIALIZED_ENGINES = ConcurrentHashMap.newKeySet();
+
+    private final String engineName;
+
+    private final String region;
+
+    private final CommandExecutor commandExecutor;
+
+    private final Runnable onInvalidation;
+
+    private final long versionCheckIntervalNanos;
+
+    private final AtomicLong nextVersionCheck = new AtomicLong(System.nanoTime());
+
+    private volatile long knownVersion = -1;
+
+    SharedCache(String engineName, String region, CommandExecutor commandExecutor, Runnable onInvalidation,
+            long versionCheckIntervalMillis) {
+        this.engineName = engineName;
+        this.region = region;
+        this.commandExecutor = commandExecutor;
+        this.onInvalidation = onInvalidation;
+        this.versionCheckIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, versionCheckIntervalMillis));
+    }
+
+    /**
+     * Get the shared cache of the given region in the database of the given process engine
+     *
+     * @param engineName     the name of the process engine whose database stores the cache
+     * @param region         the region of the cache, separating different kinds of values
+     * @param onInvalidation called if entries of the region were invalidated, e.g., to clear the near cache
+     * @return the shared cache, or null if the shared cache is disabled or the engine is not available
+     */
+    public static SharedCache forEngine(String engineName, String region, Runnable onInvalidation) {
+        if (!PluginConfiguration.isSharedCacheEnabled() || engineName == null) {
+            return null;
+        }
+        return SHARED_CACHES.computeIfAbsent(engineName + "/" + region, name -> {
+            CommandExecutor commandExecutor = Cockpit.getCommandExecutor(engineName);
+            return commandExecutor == null ? null : new SharedCache(engineName, region, commandExecutor,
+                    onInvalidation, PluginConfiguration.getSharedCacheVersionCheckIntervalMillis());
+        });
+    }
+
+    /**
+     * Get the value of the given key from the shared cache
+     *
+     * @param key the key of the value
+     * @return the cached value, or null if the value is not cached or could not be retrieved
+     */
+    public String get(String key) {
+        checkVersion();
+
+        // the entry is only returned if it was written with the current version of the region
+        Map<String, Object> parameters = parameters(hash(key));
+        parameters.put("versionKey", VERSION_KEY);
+        SharedCacheEntry entry = execute("get", commandContext -> commandContext.getDbSqlSession().getSqlSession()
+                .selectOne(NAMESPACE + "selectSharedCacheEntry", parameters));
+        return entry == null || entry.getValue() == null ? null
+                : new String(entry.getValue(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Add the given value to the shared cache, replacing the current value of the key
+     *
+     * @param key   the key of the value
+     * @param value the value to cache
+     */
+    public void put(String key, String value) {
+        checkVersion();
+        SharedCacheEntry entry = new SharedCacheEntry();
+        entry.setRegion(region);
+        entry.setKey(hash(key));
+        entry.setVersion(Math.max(0, knownVersion));
+        entry.setValue(value.getBytes(StandardCharsets.UTF_8));
+        execute("put", commandContext -> {
+            SqlSession sqlSession = commandContext.getDbSqlSession().getSqlSession();
+            if (sqlSession.update(NAMESPACE + "updateSharedCacheEntry", entry) == 0) {
+                sqlSession.insert(NAMESPACE + "insertSharedCacheEntry", entry);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Remove the value of the given key from the shared cache and increment the version of the region, so that all
+     * nodes clear their near caches
+     *
+     * @param key the key of the value to remove
+     */
+    public void invalidate(String key) {
+        Long version = execute("invalidate", commandContext -> {
+            SqlSession sqlSession = commandContext.getDbSqlSession().getSqlSession();
+            sqlSession.delete(NAMESPACE + "deleteSharedCacheEntry", parameters(hash(key)));
+            Map<String, Object> versionParameters = parameters(VERSION_KEY);
+            if (sqlSession.update(NAMESPACE + "incrementSharedCacheVersion", versionParameters) == 0) {
+                sqlSession.insert(NAMESPACE + "insertSharedCacheEntry", versionEntry(1));
+            }
+            return sqlSession.selectOne(NAMESPACE + "selectSharedCacheVersion", versionParameters);
+        });
+        if (version != null) {
+            knownVersion = version;
+        }
+        onInvalidation.run();
+    }
+
+    /**
+     * Check whether the version of the region changed on another node if the check interval elapsed, notifying the
+     * caller to clear its near cache if so
+     */
+    public void checkVersion() {
+        long now = System.nanoTime();
+        long next = nextVersionCheck.get();
+        if (now - next < 0 || !nextVersionCheck.compareAndSet(next, now + versionCheckIntervalNanos)) {
+            return;
+        }
+
+        Long version = execute("check-version", commandContext -> {
+            SqlSession sqlSession = commandContext.getDbSqlSession().getSqlSession();
+            Long storedVersion = sqlSession.selectOne(NAMESPACE + "selectSharedCacheVersion", parameters(VERSION_KEY));
+            if (storedVersion == null) {
+                // create the version of the region, so that it can also be incremented manually to flush all nodes
+                sqlSession.insert(NAMESPACE + "insertSharedCacheEntry", versionEntry(0));
+            }
+            return storedVersion;
+        });
+        long currentVersion = version == null ? 0 : version;
+        long previousVersion = knownVersion;
+        knownVersion = currentVersion;
+        if (previousVersion >= 0 && previousVersion != currentVersion) {
+            System.out.println("Version of shared cache region " + region + " changed from " + previousVersion + " to "
+                    + currentVersion + ", clearing near cache");
+            onInvalidation.run();
+        }
+    }
+
+    private <T> T execute(String operation, Command<T> command) {
+        Timer.Sample sample = PluginMetrics.SHARED_CACHE.labels(region, operation).start();
+        try {
+            initializeTable();
+            return commandExecutor.executeCommand(command);
+        } catch (RuntimeException e) {
+            sample.failed();
+            System.err.println("Shared cache operation " + operation + " failed for region " + region + ": "
+                    + e.getMessage());
+            return null;
+        } finally {
+            sample.stop();
+        }
+    }
+
+    private SharedCacheEntry versionEntry(long version) {
+        SharedCacheEntry versionEntry = new SharedCacheEntry();
+        versionEntry.setRegion(region);
+        versionEntry.setKey(VERSION_KEY);
+        versionEntry.setVersion(version);
+        // the version marker has no value, which is written as empty value as not all drivers bind null as binary
+        versionEntry.setValue(new byte[0]);
+        return versionEntry;
+    }
+
+    private Map<String, Object> parameters(String key) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("region", region);
+        parameters.put("key", key);
+        return parameters;
+    }
+
+    private void initializeTable() {
+        if (INITIALIZED_ENGINES.contains(engineName)) {
+            return;
+        }
+        synchronized (INITIALIZED_ENGINES) {
+            if (INITIALIZED_ENGINES.contains(engineName)) {
+                return;
+            }
+            commandExecutor.executeCommand(commandContext -> {
+                SqlSession sqlSession = commandContext.getDbSqlSession().getSqlSession();
+                try {
+                    DatabaseMetaData metaData = sqlSession.getConnection().getMetaData();
+                    if (!tableExists(metaData)) {
+                        sqlSession.update(NAMESPACE + "createSharedCacheTable", columnTypes(metaData));
+                        System.out.println("Created table " + TABLE_NAME + " for the shared cache of engine "
+                                + engineName);
+                    }
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Unable to create table " + TABLE_NAME, e);
+                }
+                return null;
+            });
+            INITIALIZED_ENGINES.add(engineName);
+        }
+    }
+
+    private static boolean tableExists(DatabaseMetaData metaData) throws SQLException {
+        // unquoted identifiers are stored in upper or lower case depending on the database
+        for (String tableName : new String[] { TABLE_NAME, TABLE_NAME.toLowerCase(Locale.ROOT) }) {
+            try (ResultSet tables = metaData.getTables(null, null, tableName, new String[] { "TABLE" })) {
+                if (tables.next()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, Object> columnTypes(DatabaseMetaData metaData) throws SQLException {
+        String product = metaData.getDatabaseProductName().toLowerCase(Locale.ROOT);
+        Map<String, Object> types = new HashMap<>();
+        types.put("longType", product.contains("oracle") ? "number(19,0)" : "bigint");
+        if (product.contains("postgres")) {
+            types.put("blobType", "bytea");
+        } else if (product.contains("mysql") || product.contains("mariadb")) {
+            types.put("blobType", "longblob");
+        } else if (product.contains("microsoft")) {
+            types.put("blobType", "varbinary(max)");
+        } else {
+            types.put("blobType", "blob");
+        }
+        return types;
+    }
+
+    private static String hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    /**
+     * Forget the shared caches and initialized tables, e.g., when the plugins are undeployed
+     */
+    public static void clear() {
+        SHARED_CACHES.clear();
+        INITIALIZED_ENGINES.clear();
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.quantil.camunda.plugin.client.model.BuildPlanInstance;
+import org.quantil.camunda.plugin.client.model.LogEntry;
+import org.quantil.camunda.plugin.client.model.Resource;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * Streaming reader for build plan instances of OpenTOSCA, which only keeps the last log entries in memory
+ *
+ * The log of a build plan instance can comprise thousands of entries, thus, binding the complete response would
+ * materialize all of them before most are dropped again. Instead, the reader pulls the state and links of the instance
+ * from the parser and reads the log entries into a ring buffer of reused entries, skipping all other fields.
+ */
+final class BuildPlanInstanceReader {
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectReader linksReader;
+
+    private final int maxLogEntries;
+
+    BuildPlanInstanceReader(ObjectMapper objectMapper, int maxLogEntries) {
+        this.objectMapper = objectMapper;
+        this.linksReader = objectMapper.readerFor(new TypeReference<Map<String, Resource.Link>>() {
+        });
+        this.maxLogEntries = maxLogEntries < 1 ? Integer.MAX_VALUE : maxLogEntries;
+    }
+
+    /**
+     * Read the build plan instance from the given stream
+     *
+     * @param inputStream the stream providing the JSON representation of the build plan instance
+     * @return the build plan instance containing at most the configured number of log entries, i.e., the latest ones
+     */
+    BuildPlanInstance read(InputStream inputStream) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Build plan instance is not a JSON object");
+            }
+
+            BuildPlanInstance buildPlanInstance = new BuildPlanInstance();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("state".equals(fieldName)) {
+                    buildPlanInstance.setState(value == JsonToken.VALUE_NULL ? null : parser.getValueAsString());
+                } else if ("_links".equals(fieldName) && value == JsonToken.START_OBJECT) {
+                    buildPlanInstance.setLinks(linksReader.readValue(parser));
+                } else if ("logs".equals(fieldName) && value == JsonToken.START_ARRAY) {
+                    readLogs(parser, buildPlanInstance);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (buildPlanInstance.getLogs() == null) {
+                buildPlanInstance.setLogs(new ArrayList<>());
+            }
+            return buildPlanInstance;
+        }
+    }
+
+    private void readLogs(JsonParser parser, BuildPlanInstance buildPlanInstance) throws IOException {
+        List<LogEntry> ring = new ArrayList<>();
+        int count = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+
+            // once the buffer is full, the oldest entry is overwritten by the next one
+            LogEntry logEntry;
+            if (ring.size() < maxLogEntries) {
+                logEntry = new LogEntry();
+                ring.add(logEntry);
+            } else {
+                logEntry = ring.get(count % maxLogEntries);
+            }
+            readLogEntry(parser, logEntry);
+            count++;
+        }
+
+        // order the buffered entries starting with the oldest one
+        List<LogEntry> logs = new ArrayList<>(ring.size());
+        int start = count > ring.size() ? count % ring.size() : 0;
+        for (int i = 0; i < ring.size(); i++) {
+            logs.add(ring.get((start + i) % ring.size()));
+        }
+        buildPlanInstance.setLogs(logs);
+        buildPlanInstance.setLogCount(count);
+        buildPlanInstance.setLogsOffset(count - logs.size());
+    }
+
+    private static void readLogEntry(JsonParser parser, LogEntry logEntry) throws IOException {
+        logEntry.setStartTimestamp(0);
+        logEntry.setEndTimestamp(0);
+        logEntry.setStatus(null);
+        logEntry.setType(null);
+        logEntry.setMessage(null);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                parser.skipChildren();
+            } else if (value == JsonToken.VALUE_NULL) {
+                continue;
+            } else if ("start_timestamp".equals(fieldName)) {
+                logEntry.setStartTimestamp(parser.getValueAsLong());
+            } else if ("end_timestamp".equals(fieldName)) {
+                logEntry.setEndTimestamp(parser.getValueAsLong());
+            } else if ("status".equals(fieldName)) {
+                logEntry.setStatus(parser.getValueAsString());
+            } else if ("type".equals(fieldName)) {
+                logEntry.setType(parser.getValueAsString());
+            } else if ("message".equals(fieldName)) {
+                logEntry.setMessage(parser.getValueAsString());
+            }
+        }
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.client;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.quantil.camunda.plugin.PluginConfiguration;
+import org.quantil.camunda.plugin.metrics.PluginMetrics;
+
+/**
+ * Circuit breaker and bulkhead protecting the threads of Cockpit from a slow or unavailable host
+ *
+ * The bulkhead limits the number of concurrent requests to the host, rejecting further requests instead of blocking
+ * more threads. After the configured number of consecutive failures, the circuit opens and all requests are rejected
+ * until the open duration elapsed. Afterwards, a single probe request is let through, closing the circuit if it
+ * succeeds and opening it again otherwise.
+ */
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    // one circuit breaker per host, as all requests to a host fail if the host is down
+    private static final ConcurrentMap<String, CircuitBreaker> CIRCUIT_BREAKERS = new ConcurrentHashMap<>();
+
+    private final String host;
+
+    private final int failureThreshold;
+
+    private final long openDurationNanos;
+
+    private final Semaphore bulkhead;
+
+    // the state and the time it was entered are replaced together, so that no request sees an outdated open time
+    private final AtomicReference<Circuit> circuit = new AtomicReference<>(new Circuit(State.CLOSED, 0));
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    private final AtomicBoolean probeInFlight = new AtomicBoolean();
+
+    private final AtomicLong stateGauge;
+
+    private final LongAdder circuitOpenRejections;
+
+    private final LongAdder bulkheadRejections;
+
+    CircuitBreaker(String host, int failureThreshold, long openDurationMillis, int maxConcurrentCalls) {
+        this.host = host;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMillis);
+        this.bulkhead = new Semaphore(Math.max(1, maxConcurrentCalls));
+        this.stateGauge = PluginMetrics.OPENTOSCA_CIRCUIT_STATE.labels(host);
+        this.circuitOpenRejections = PluginMetrics.OPENTOSCA_REJECTIONS.labels(host, "circuit-open");
+        this.bulkheadRejections = PluginMetrics.OPENTOSCA_REJECTIONS.labels(host, "bulkhead-full");
+    }
+
+    /**
+     * Get the circuit breaker of the host of the given URL
+     *
+     * @param url the URL to request
+     * @return the circuit breaker, which is created on first use
+     */
+    public static CircuitBreaker forUrl(String url) {
+        return CIRCUIT_BREAKERS.computeIfAbsent(getHost(url),
+                host -> new CircuitBreaker(host, PluginConfiguration.getOpenToscaCircuitBreakerFailureThreshold(),
+                        PluginConfiguration.getOpenToscaCircuitBreakerOpenDurationMillis(),
+                        PluginConfiguration.getOpenToscaMaxConcurrentCallsPerHost()));
+    }
+
+    private static String getHost(String url) {
+        try {
+            URI uri = URI.create(url);
+            if (uri.getHost() != null) {
+                return uri.getHost().toLowerCase(Locale.ROOT) + (uri.getPort() < 0 ? "" : ":" + uri.getPort());
+            }
+        } catch (IllegalArgumentException e) {
+            // the request fails later on with a meaningful error
+        }
+        return "unknown";
+    }
+
+    /**
+     * Check whether a request would currently be rejected as the circuit is open and no probe request is due yet,
+     * without counting a rejection as no request is attempted
+     *
+     * @return true if the circuit is open
+     */
+    public boolean isOpen() {
+        Circuit current = circuit.get();
+        return current.state == State.OPEN && System.nanoTime() - current.since < openDurationNanos;
+    }
+
+    /**
+     * Acquire a permit to send a request to the host, which has to be released by reporting the outcome of the request
+     *
+     * @return the acquired permit
+     * @throws OpenToscaUnavailableException if the circuit is open or the maximum number of concurrent requests is
+     *                                       reached
+     */
+    public Permit acquire() throws OpenToscaUnavailableException {
+        boolean probe = false;
+        Circuit current = circuit.get();
+        State currentState = current.state;
+        if (currentState == State.OPEN) {
+            if (System.nanoTime() - current.since < openDurationNanos || !transition(current, State.HALF_OPEN)) {
+                circuitOpenRejections.increment();
+                throw new OpenToscaUnavailableException("Circuit breaker for " + host + " is open");
+            }
+            currentState = State.HALF_OPEN;
+        }
+        if (currentState == State.HALF_OPEN) {
+            // only one request probes whether the host is available again
+            if (!probeInFlight.compareAndSet(false, true)) {
+                circuitOpenRejections.increment();
+                throw new OpenToscaUnavailableException("Circuit breaker for " + host + " is half-open");
+            }
+            probe = true;
+        }
+
+        if (!bulkhead.tryAcquire()) {
+            if (probe) {
+                probeInFlight.set(false);
+            }
+            bulkheadRejections.increment();
+            throw new OpenToscaUnavailableException("Maximum number of concurrent requests to " + host + " reached");
+        }
+        return new Permit(probe);
+    }
+
+    private void onSuccess(boolean probe) {
+        consecutiveFailures.set(0);
+        if (probe) {
+            Circuit current = circuit.get();
+            if (current.state == State.HALF_OPEN) {
+                transition(current, State.CLOSED);
+            }
+            probeInFlight.set(false);
+        }
+    }
+
+    private void onFailure(boolean probe) {
+        if (probe) {
+            open(State.HALF_OPEN, "the probe request failed");
+            probeInFlight.set(false);
+        } else {
+            int failures = consecutiveFailures.incrementAndGet();
+            if (failures >= failureThreshold) {
+                open(State.CLOSED, failures + " consecutive failures");
+            }
+        }
+    }
+
+    private void open(State expected, String reason) {
+        Circuit current = circuit.get();
+        if (current.state == expected && transition(current, State.OPEN)) {
+            System.err.println("Opened circuit breaker for " + host + " as " + reason);
+        }
+    }
+
+    /**
+     * Move the circuit to the given state if it was not changed concurrently, which also sets the time the state
+     * was entered
+     *
+     * @param expected the circuit that has to be current
+     * @param next     the state to move to
+     * @return true if the state was changed
+     */
+    private boolean transition(Circuit expected, State next) {
+        if (!circuit.compareAndSet(expected, new Circuit(next, System.nanoTime()))) {
+            return false;
+        }
+        stateGauge.set(next.ordinal());
+        if (next == State.CLOSED) {
+            System.out.println("Closed circuit breaker for " + host);
+        }
+        return true;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public State getState() {
+        return circuit.get().state;
+    }
+
+    public long getRejectionCount() {
+        return circuitOpenRejections.sum() + bulkheadRejections.sum();
+    }
+
+    /**
+     * State of the circuit together with the time it was entered
+     */
+    private static final class Circuit {
+
+        private final State state;
+
+        private final long since;
+
+        private Circuit(State state, long since) {
+            this.state = state;
+            this.since = since;
+        }
+    }
+
+    /**
+     * Permit to send a single request to the host, whose outcome has to be reported exactly once
+     */
+    public final class Permit {
+
+        private final boolean probe;
+
+        private Permit(boolean probe) {
+            this.probe = probe;
+        }
+
+        /**
+         * Report that the host answered the request, which includes client errors like missing resources
+         */
+        public void succeeded() {
+            bulkhead.release();
+            onSuccess(probe);
+        }
+
+        /**
+         * Report that the host did not answer the request or answered it with a server error
+         */
+        public void failed() {
+            bulkhead.release();
+            onFailure(probe);
+        }
+    }
+}
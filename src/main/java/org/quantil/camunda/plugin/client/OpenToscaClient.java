@@ -11,29 +11,259 @@
 
 package org.quantil.camunda.plugin.client;
 
-import jakarta.ws.rs.client.Client;
-import jakarta.ws.rs.client.ClientBuilder;
-import jakarta.ws.rs.core.MediaType;
-import org.quantil.camunda.plugin.client.model.BuildPlanInstances;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
-import java.util.List;
+import org.quantil.camunda.plugin.PluginConfiguration;
+import org.quantil.camunda.plugin.cache.LruCache;
+import org.quantil.camunda.plugin.cache.SharedCache;
+import org.quantil.camunda.plugin.cache.SingleFlight;
+import org.quantil.camunda.plugin.client.model.BuildPlanInstance;
+import org.quantil.camunda.plugin.client.model.ServiceTemplateInstance;
+import org.quantil.camunda.plugin.metrics.PluginMetrics;
+import org.quantil.camunda.plugin.metrics.Timer;
 
 public class OpenToscaClient implements AutoCloseable {
 
-    private final Client client;
+    // responses of OpenTOSCA by URL, shared by all clients as the resources are the same for all users
+    private static final LruCache<String, Object> RESPONSE_CACHE = PluginMetrics.registerCache(
+            new LruCache<>("opentosca-response", PluginConfiguration.getOpenToscaResponseCacheSize()));
+
+    // concurrent fetches of the same URL, e.g., by several tabs showing the same workflow, share a single request
+    private static final SingleFlight<String, Object> FETCHES = PluginMetrics
+            .registerSingleFlight(new SingleFlight<>("opentosca-fetch"));
+
+    // build plans and instances in one of these states do not change anymore
+    private static final Set<String> TERMINAL_STATES = Collections.unmodifiableSet(new HashSet<>(
+            Arrays.asList(PluginConfiguration.getOpenToscaTerminalStates().toUpperCase().split("\\s*,\\s*"))));
+
+    private static final Timer BUILD_PLAN_INSTANCE_FETCHES = PluginMetrics.OPENTOSCA_FETCHES
+            .labels(BuildPlanInstance.class.getSimpleName());
+
+    private static final Timer SERVICE_TEMPLATE_INSTANCE_FETCHES = PluginMetrics.OPENTOSCA_FETCHES
+            .labels(ServiceTemplateInstance.class.getSimpleName());
+
+    private static final String SHARED_RESPONSE_REGION = "opentosca-response";
+
+    private final PluginHttpClient httpClient;
+
+    private final BuildPlanInstanceReader buildPlanInstanceReader;
+
+    // optional tier shared with other Cockpit nodes holding responses in a terminal state
+    private final SharedCache sharedResponses;
 
     public OpenToscaClient() {
-        client = ClientBuilder.newClient();
+        this(PluginHttpClient.getInstance());
+    }
+
+    public OpenToscaClient(PluginHttpClient httpClient) {
+        this(httpClient, null);
+    }
+
+    public OpenToscaClient(PluginHttpClient httpClient, SharedCache sharedResponses) {
+        this.httpClient = httpClient;
+        this.sharedResponses = sharedResponses;
+        this.buildPlanInstanceReader = httpClient == null ? null : new BuildPlanInstanceReader(
+                httpClient.getObjectMapper(), PluginConfiguration.getOpenToscaMaxBufferedLogEntries());
+    }
+
+    /**
+     * Create a client sharing responses in a terminal state with other Cockpit nodes using the database of the given
+     * process engine, if the shared cache is enabled
+     *
+     * @param engineName the name of the process engine
+     * @return the client
+     */
+    public static OpenToscaClient forEngine(String engineName) {
+        return new OpenToscaClient(PluginHttpClient.getInstance(),
+                SharedCache.forEngine(engineName, SHARED_RESPONSE_REGION, RESPONSE_CACHE::invalidateAll));
+    }
+
+    /**
+     * Fetch the resource with the given URL, reusing a cached response if available
+     *
+     * Requests to OpenTOSCA are guarded by the {@link CircuitBreaker} of the host, failing with an
+     * {@link OpenToscaUnavailableException} without sending the request while the host is considered unavailable.
+     *
+     * Build plan and service template instances in a terminal state are cached until they are evicted, whereas
+     * instances in any other state are only cached for a short time, as their state is still changing.
+     *
+     * @param url   the URL of the resource to fetch
+     * @param clazz the class to map the resource to
+     * @return the fetched resource, which must not be modified as it may be shared with other requests
+     */
+    public <T> T fetch(String url, Class<T> clazz) throws IOException {
+        Timer.Sample sample = getFetchTimer(clazz).start();
+        try {
+            return fetchOrGetCached(url, clazz);
+        } catch (IOException | RuntimeException e) {
+            sample.failed();
+            throw e;
+        } finally {
+            sample.stop();
+        }
+    }
+
+    private <T> T fetchOrGetCached(String url, Class<T> clazz) throws IOException {
+        if (sharedResponses != null) {
+            sharedResponses.checkVersion();
+        }
+        Object cached = RESPONSE_CACHE.get(url);
+        if (clazz.isInstance(cached)) {
+            return clazz.cast(cached);
+        }
+
+        Object response = FETCHES.execute(url, () -> {
+            T shared = getSharedResponse(url, clazz);
+            if (shared != null) {
+                RESPONSE_CACHE.put(url, shared, 0);
+                return shared;
+            }
+
+            T fetched = fetchGuarded(url, clazz);
+            String state = getState(fetched);
+            if (state != null && TERMINAL_STATES.contains(state.toUpperCase())) {
+                RESPONSE_CACHE.put(url, fetched, 0);
+                putSharedResponse(url, fetched);
+            } else if (state != null && PluginConfiguration.getOpenToscaRunningStateTtlMillis() > 0) {
+                RESPONSE_CACHE.put(url, fetched, PluginConfiguration.getOpenToscaRunningStateTtlMillis());
+            }
+            return fetched;
+        });
+        if (!clazz.isInstance(response)) {
+            // the URL was fetched concurrently as another type, which is not expected for the resources of OpenTOSCA
+            return fetchGuarded(url, clazz);
+        }
+        return clazz.cast(response);
+    }
+
+    private <T> T getSharedResponse(String url, Class<T> clazz) {
+        String json = sharedResponses == null || (clazz != BuildPlanInstance.class
+                && clazz != ServiceTemplateInstance.class) ? null : sharedResponses.get(url);
+        if (json == null) {
+            return null;
+        }
+        try {
+            SharedResponse sharedResponse = httpClient.readerFor(SharedResponse.class).readValue(json);
+            if (clazz == BuildPlanInstance.class && sharedResponse.buildPlanInstance != null) {
+                sharedResponse.buildPlanInstance.setLogCount(sharedResponse.logCount);
+                sharedResponse.buildPlanInstance.setLogsOffset(sharedResponse.logsOffset);
+                return clazz.cast(sharedResponse.buildPlanInstance);
+            }
+            if (clazz == ServiceTemplateInstance.class && sharedResponse.serviceTemplateInstance != null) {
+                return clazz.cast(sharedResponse.serviceTemplateInstance);
+            }
+        } catch (IOException e) {
+            System.err.println("Ignoring invalid shared response for " + url + ": " + e.getMessage());
+        }
+        // responses that can not be read, e.g., as they were written by another version of the plugin, are replaced
+        return null;
+    }
+
+    private void putSharedResponse(String url, Object response) throws IOException {
+        if (sharedResponses == null) {
+            return;
+        }
+        SharedResponse sharedResponse = new SharedResponse();
+        if (response instanceof BuildPlanInstance) {
+            sharedResponse.buildPlanInstance = (BuildPlanInstance) response;
+            sharedResponse.logCount = sharedResponse.buildPlanInstance.getLogCount();
+            sharedResponse.logsOffset = sharedResponse.buildPlanInstance.getLogsOffset();
+        } else if (response instanceof ServiceTemplateInstance) {
+            sharedResponse.serviceTemplateInstance = (ServiceTemplateInstance) response;
+        } else {
+            return;
+        }
+        sharedResponses.put(url, httpClient.getObjectMapper().writeValueAsString(sharedResponse));
     }
 
-    public <T> T fetch(String url, Class<T> clazz) {
-        return client.target(url)
-                .request(MediaType.APPLICATION_JSON_TYPE)
-                .get(clazz);
+    private <T> T fetchGuarded(String url, Class<T> clazz) throws IOException {
+        CircuitBreaker.Permit permit = CircuitBreaker.forUrl(url).acquire();
+        boolean answered = false;
+        try {
+            T response;
+            if (clazz == BuildPlanInstance.class) {
+                // build plan instances are parsed incrementally, as their logs can be very large
+                try (InputStream inputStream = httpClient.openStream(url, "application/json")) {
+                    response = clazz.cast(buildPlanInstanceReader.read(inputStream));
+                }
+            } else {
+                response = httpClient.getJson(url, clazz);
+            }
+            answered = true;
+            return response;
+        } catch (HttpStatusException e) {
+            // client errors like missing instances do not indicate that the host is unavailable
+            answered = e.getStatusCode() < 500;
+            throw e;
+        } finally {
+            if (answered) {
+                permit.succeeded();
+            } else {
+                permit.failed();
+            }
+        }
+    }
+
+    /**
+     * Check whether the resource with the given URL can currently be fetched, i.e., whether a cached response is
+     * available or the circuit breaker of its host is not open
+     *
+     * @param url the URL of the resource
+     * @return false if fetching the resource would fail immediately, which is neither counted by the cache nor the
+     *         circuit breaker as no request is performed
+     */
+    public boolean isAvailable(String url) {
+        return RESPONSE_CACHE.containsKey(url) || !CircuitBreaker.forUrl(url).isOpen();
+    }
+
+    private static Timer getFetchTimer(Class<?> clazz) {
+        if (clazz == BuildPlanInstance.class) {
+            return BUILD_PLAN_INSTANCE_FETCHES;
+        }
+        if (clazz == ServiceTemplateInstance.class) {
+            return SERVICE_TEMPLATE_INSTANCE_FETCHES;
+        }
+        return PluginMetrics.OPENTOSCA_FETCHES.labels(clazz.getSimpleName());
+    }
+
+    private static String getState(Object response) {
+        if (response instanceof BuildPlanInstance) {
+            return ((BuildPlanInstance) response).getState();
+        }
+        if (response instanceof ServiceTemplateInstance) {
+            return ((ServiceTemplateInstance) response).getState();
+        }
+        return null;
+    }
+
+    /**
+     * @return the cache holding the responses of OpenTOSCA
+     */
+    public static LruCache<String, Object> getResponseCache() {
+        return RESPONSE_CACHE;
     }
 
     @Override
-    public void close() throws Exception {
-        client.close();
+    public void close() {
+        // the shared HTTP client is closed when the plugins are undeployed
+    }
+
+    /**
+     * Response in a terminal state as stored in the shared cache, including the position of the buffered log entries
+     */
+    static class SharedResponse {
+
+        public BuildPlanInstance buildPlanInstance;
+
+        public ServiceTemplateInstance serviceTemplateInstance;
+
+        public int logCount;
+
+        public int logsOffset;
     }
 }
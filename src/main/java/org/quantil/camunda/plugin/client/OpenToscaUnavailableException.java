@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.client;
+
+import java.io.IOException;
+
+/**
+ * Signals that a request to OpenTOSCA was not sent, as the circuit breaker of the host is open or the maximum number
+ * of concurrent requests to the host is reached
+ */
+public class OpenToscaUnavailableException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public OpenToscaUnavailableException(String message) {
+        super(message);
+    }
+}
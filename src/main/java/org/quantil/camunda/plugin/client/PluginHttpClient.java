@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.quantil.camunda.plugin.PluginConfiguration;
+import org.quantil.camunda.plugin.metrics.Histogram;
+import org.quantil.camunda.plugin.metrics.PluginMetrics;
+import org.quantil.camunda.plugin.metrics.SizeRecordingInputStream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * HTTP and JSON infrastructure shared by all server-side plugins
+ *
+ * Connections are opened with the configured timeouts and their streams are always consumed and closed instead of
+ * disconnecting them, so that the underlying sockets are kept alive and reused by the connection pool of the JVM. The
+ * size of this pool can be configured using the 'http.maxConnections' system property.
+ */
+public final class PluginHttpClient implements AutoCloseable {
+
+    private static PluginHttpClient instance;
+
+    private static final Histogram RESPONSE_SIZES = PluginMetrics.PAYLOAD_SIZES.labels("http-response");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ConcurrentMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    private final int connectTimeoutMillis;
+
+    private final int readTimeoutMillis;
+
+    private volatile boolean closed;
+
+    PluginHttpClient(int connectTimeoutMillis, int readTimeoutMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    /**
+     * @return the client shared by all plugins, which is created on first use or after the plugins were shut down
+     */
+    public static synchronized PluginHttpClient getInstance() {
+        if (instance == null || instance.closed) {
+            instance = new PluginHttpClient(PluginConfiguration.getHttpConnectTimeoutMillis(),
+                    PluginConfiguration.getHttpReadTimeoutMillis());
+        }
+        return instance;
+    }
+
+    /**
+     * Close the shared client, e.g., when the plugins are undeployed
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.close();
+            instance = null;
+        }
+    }
+
+    /**
+     * @return the object mapper shared by all plugins, which must not be reconfigured after its creation
+     */
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    /**
+     * Get the thread-safe reader to deserialize JSON into objects of the given type
+     *
+     * @param type the type to deserialize to
+     * @return the reader for the given type
+     */
+    public ObjectReader readerFor(Class<?> type) {
+        return readers.computeIfAbsent(type, objectMapper::readerFor);
+    }
+
+    /**
+     * Retrieve the JSON document available at the given URL
+     *
+     * @param url the URL to retrieve the JSON document from
+     * @return the root node of the retrieved document
+     */
+    public JsonNode getJsonTree(String url) throws IOException {
+        try (InputStream inputStream = openStream(url, "application/json")) {
+            return objectMapper.readTree(inputStream);
+        }
+    }
+
+    /**
+     * Retrieve the JSON document available at the given URL and deserialize it
+     *
+     * @param url  the URL to retrieve the JSON document from
+     * @param type the type to deserialize the document to
+     * @return the deserialized document
+     */
+    public <T> T getJson(String url, Class<T> type) throws IOException {
+        try (InputStream inputStream = openStream(url, "application/json")) {
+            return readerFor(type).readValue(inputStream);
+        }
+    }
+
+    /**
+     * Send a GET request to the given URL and open the stream containing the response
+     *
+     * @param url    the URL to send the request to
+     * @param accept the media type to accept
+     * @return the stream providing the response body, which has to be closed by the caller to release the connection
+     * @throws IOException if the request fails or the response indicates an error, which is signaled by an
+     *                     {@link HttpStatusException}
+     */
+    public InputStream openStream(String url, String accept) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("HTTP client of the plugin is already closed");
+        }
+
+        HttpURLConnection http = (HttpURLConnection) new URL(url).openConnection();
+        http.setConnectTimeout(connectTimeoutMillis);
+        http.setReadTimeout(readTimeoutMillis);
+        http.setUseCaches(false);
+        if (accept != null) {
+            http.setRequestProperty("Accept", accept);
+        }
+
+        int responseCode = http.getResponseCode();
+        if (responseCode >= 400) {
+            // consume the error response to be able to reuse the connection
+            InputStream errorStream = http.getErrorStream();
+            if (errorStream != null) {
+                try (InputStream toDrain = errorStream) {
+                    byte[] buffer = new byte[4096];
+                    while (toDrain.read(buffer) != -1) {
+                        // discard
+                    }
+                }
+            }
+            throw new HttpStatusException(url, responseCode);
+        }
+        return new SizeRecordingInputStream(http.getInputStream(), RESPONSE_SIZES);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        readers.clear();
+    }
+}
@@ -11,6 +11,7 @@
 
 package org.quantil.camunda.plugin.client.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import org.quantil.camunda.plugin.client.model.LogEntry;
 import org.quantil.camunda.plugin.client.model.Resource;
@@ -23,6 +24,13 @@ public class BuildPlanInstance extends Resource {
 
     private List<LogEntry> logs;
 
+    // total number of log entries of the instance, of which only the latest ones may be contained in the logs
+    @JsonIgnore
+    private int logCount = -1;
+
+    @JsonIgnore
+    private int logsOffset;
+
     public String getState() {
         return state;
     }
@@ -38,4 +46,23 @@ public class BuildPlanInstance extends Resource {
     public void setLogs(List<LogEntry> logs) {
         this.logs = logs;
     }
+
+    public int getLogCount() {
+        return logCount < 0 && logs != null ? logs.size() : Math.max(logCount, 0);
+    }
+
+    public void setLogCount(int logCount) {
+        this.logCount = logCount;
+    }
+
+    /**
+     * @return the index of the first contained log entry within all log entries of the instance
+     */
+    public int getLogsOffset() {
+        return logsOffset;
+    }
+
+    public void setLogsOffset(int logsOffset) {
+        this.logsOffset = logsOffset;
+    }
 }
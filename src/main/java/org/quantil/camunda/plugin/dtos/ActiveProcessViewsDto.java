@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.dtos;
+
+import java.util.List;
+import java.util.Map;
+
+public class ActiveProcessViewsDto {
+
+    private List<ProcessInstanceViewDto> activeViews;
+
+    // XML of the active views by deployment ID and view name, each view is only contained once
+    private Map<String, Map<String, String>> viewXml;
+
+    public List<ProcessInstanceViewDto> getActiveViews() {
+        return activeViews;
+    }
+
+    public void setActiveViews(List<ProcessInstanceViewDto> activeViews) {
+        this.activeViews = activeViews;
+    }
+
+    public Map<String, Map<String, String>> getViewXml() {
+        return viewXml;
+    }
+
+    public void setViewXml(Map<String, Map<String, String>> viewXml) {
+        this.viewXml = viewXml;
+    }
+}
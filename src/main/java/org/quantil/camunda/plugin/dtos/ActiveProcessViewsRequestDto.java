@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.dtos;
+
+import java.util.List;
+
+public class ActiveProcessViewsRequestDto {
+
+    private List<String> processInstanceIds;
+
+    private boolean includeXml;
+
+    public List<String> getProcessInstanceIds() {
+        return processInstanceIds;
+    }
+
+    public void setProcessInstanceIds(List<String> processInstanceIds) {
+        this.processInstanceIds = processInstanceIds;
+    }
+
+    public boolean isIncludeXml() {
+        return includeXml;
+    }
+
+    public void setIncludeXml(boolean includeXml) {
+        this.includeXml = includeXml;
+    }
+}
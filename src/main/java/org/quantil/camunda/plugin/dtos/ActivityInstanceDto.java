@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.dtos;
+
+import java.util.List;
+
+/**
+ * Node of the activity instance tree of a process instance, structured like the one of the Camunda REST API
+ */
+public class ActivityInstanceDto {
+
+    private String id;
+
+    private String parentActivityInstanceId;
+
+    private String activityId;
+
+    private String activityType;
+
+    private String activityName;
+
+    private List<ActivityInstanceDto> childActivityInstances;
+
+    private List<TransitionInstanceDto> childTransitionInstances;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getParentActivityInstanceId() {
+        return parentActivityInstanceId;
+    }
+
+    public void setParentActivityInstanceId(String parentActivityInstanceId) {
+        this.parentActivityInstanceId = parentActivityInstanceId;
+    }
+
+    public String getActivityId() {
+        return activityId;
+    }
+
+    public void setActivityId(String activityId) {
+        this.activityId = activityId;
+    }
+
+    public String getActivityType() {
+        return activityType;
+    }
+
+    public void setActivityType(String activityType) {
+        this.activityType = activityType;
+    }
+
+    public String getActivityName() {
+        return activityName;
+    }
+
+    public void setActivityName(String activityName) {
+        this.activityName = activityName;
+    }
+
+    public List<ActivityInstanceDto> getChildActivityInstances() {
+        return childActivityInstances;
+    }
+
+    public void setChildActivityInstances(List<ActivityInstanceDto> childActivityInstances) {
+        this.childActivityInstances = childActivityInstances;
+    }
+
+    public List<TransitionInstanceDto> getChildTransitionInstances() {
+        return childTransitionInstances;
+    }
+
+    public void setChildTransitionInstances(List<TransitionInstanceDto> childTransitionInstances) {
+        this.childTransitionInstances = childTransitionInstances;
+    }
+}
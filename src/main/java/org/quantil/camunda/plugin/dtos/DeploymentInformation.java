@@ -51,6 +51,8 @@ public class DeploymentInformation {
         }
     }
 
+    private String elementId;
+
     private String csarName;
 
     private String buildPlanState;
@@ -61,6 +63,25 @@ public class DeploymentInformation {
 
     private List<LogEntry> logs;
 
+    // index of the first contained log entry, if only new log entries are contained
+    private int logOffset;
+
+    // cursor to pass to retrieve the log entries following the contained ones
+    private String nextLogCursor;
+
+    private boolean hasMoreLogs;
+
+    // number of log entries following the passed cursor that were dropped before they could be returned
+    private int droppedLogCount;
+
+    public String getElementId() {
+        return elementId;
+    }
+
+    public void setElementId(String elementId) {
+        this.elementId = elementId;
+    }
+
     public String getCsarName() {
         return csarName;
     }
@@ -93,6 +114,38 @@ public class DeploymentInformation {
         this.logs = logs;
     }
 
+    public int getLogOffset() {
+        return logOffset;
+    }
+
+    public void setLogOffset(int logOffset) {
+        this.logOffset = logOffset;
+    }
+
+    public String getNextLogCursor() {
+        return nextLogCursor;
+    }
+
+    public void setNextLogCursor(String nextLogCursor) {
+        this.nextLogCursor = nextLogCursor;
+    }
+
+    public boolean isHasMoreLogs() {
+        return hasMoreLogs;
+    }
+
+    public void setHasMoreLogs(boolean hasMoreLogs) {
+        this.hasMoreLogs = hasMoreLogs;
+    }
+
+    public int getDroppedLogCount() {
+        return droppedLogCount;
+    }
+
+    public void setDroppedLogCount(int droppedLogCount) {
+        this.droppedLogCount = droppedLogCount;
+    }
+
     public Date getInstanceCreatedAt() {
         return instanceCreatedAt;
     }
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.dto;
+
+import java.util.List;
+
+public class DeploymentUpdates {
+
+    // version of the deployment states to pass when requesting the next updates
+    private long version;
+
+    // epoch the version belongs to, which has to be passed together with the version
+    private String epoch;
+
+    private List<DeploymentInformation> changes;
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public String getEpoch() {
+        return epoch;
+    }
+
+    public void setEpoch(String epoch) {
+        this.epoch = epoch;
+    }
+
+    public List<DeploymentInformation> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<DeploymentInformation> changes) {
+        this.changes = changes;
+    }
+}
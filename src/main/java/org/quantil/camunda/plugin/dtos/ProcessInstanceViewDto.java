@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.dtos;
+
+public class ProcessInstanceViewDto {
+
+    private String processInstanceId;
+
+    private String deploymentId;
+
+    private String activeProcessView;
+
+    public String getProcessInstanceId() {
+        return processInstanceId;
+    }
+
+    public void setProcessInstanceId(String processInstanceId) {
+        this.processInstanceId = processInstanceId;
+    }
+
+    public String getDeploymentId() {
+        return deploymentId;
+    }
+
+    public void setDeploymentId(String deploymentId) {
+        this.deploymentId = deploymentId;
+    }
+
+    public String getActiveProcessView() {
+        return activeProcessView;
+    }
+
+    public void setActiveProcessView(String activeProcessView) {
+        this.activeProcessView = activeProcessView;
+    }
+}
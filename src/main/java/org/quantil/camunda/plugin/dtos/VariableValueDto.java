@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.dtos;
+
+import java.util.Map;
+
+/**
+ * Variable of a process instance, structured like the ones of the Camunda REST API and extended by the name and the
+ * ID of the variable instance to retrieve the data of file variables
+ */
+public class VariableValueDto {
+
+    private String id;
+
+    private String name;
+
+    private String type;
+
+    private Object value;
+
+    private Map<String, Object> valueInfo;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    public void setValue(Object value) {
+        this.value = value;
+    }
+
+    public Map<String, Object> getValueInfo() {
+        return valueInfo;
+    }
+
+    public void setValueInfo(Map<String, Object> valueInfo) {
+        this.valueInfo = valueInfo;
+    }
+}
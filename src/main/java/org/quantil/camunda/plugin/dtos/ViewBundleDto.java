@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.dtos;
+
+import java.util.Map;
+
+/**
+ * Everything required to render a process instance in its active view, i.e., the active view, the reference to its
+ * XML, the activity instance tree, and the variables visible in the view
+ */
+public class ViewBundleDto {
+
+    private String activeProcessView;
+
+    private String activeProcessViewXmlPath;
+
+    private String activeProcessViewXmlETag;
+
+    private String activeProcessViewXml;
+
+    private ActivityInstanceDto activityInstance;
+
+    private Map<String, VariableValueDto> variables;
+
+    public String getActiveProcessView() {
+        return activeProcessView;
+    }
+
+    public void setActiveProcessView(String activeProcessView) {
+        this.activeProcessView = activeProcessView;
+    }
+
+    public String getActiveProcessViewXmlPath() {
+        return activeProcessViewXmlPath;
+    }
+
+    public void setActiveProcessViewXmlPath(String activeProcessViewXmlPath) {
+        this.activeProcessViewXmlPath = activeProcessViewXmlPath;
+    }
+
+    public String getActiveProcessViewXmlETag() {
+        return activeProcessViewXmlETag;
+    }
+
+    public void setActiveProcessViewXmlETag(String activeProcessViewXmlETag) {
+        this.activeProcessViewXmlETag = activeProcessViewXmlETag;
+    }
+
+    public String getActiveProcessViewXml() {
+        return activeProcessViewXml;
+    }
+
+    public void setActiveProcessViewXml(String activeProcessViewXml) {
+        this.activeProcessViewXml = activeProcessViewXml;
+    }
+
+    public ActivityInstanceDto getActivityInstance() {
+        return activityInstance;
+    }
+
+    public void setActivityInstance(ActivityInstanceDto activityInstance) {
+        this.activityInstance = activityInstance;
+    }
+
+    public Map<String, VariableValueDto> getVariables() {
+        return variables;
+    }
+
+    public void setVariables(Map<String, VariableValueDto> variables) {
+        this.variables = variables;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.dtos;
+
+import java.util.List;
+
+/**
+ * Page of the variables of a process instance that are visible in its active view
+ */
+public class ViewVariablesDto {
+
+    private String activeProcessView;
+
+    private int firstResult;
+
+    private int maxResults;
+
+    private long count;
+
+    private List<VariableValueDto> variables;
+
+    public String getActiveProcessView() {
+        return activeProcessView;
+    }
+
+    public void setActiveProcessView(String activeProcessView) {
+        this.activeProcessView = activeProcessView;
+    }
+
+    public int getFirstResult() {
+        return firstResult;
+    }
+
+    public void setFirstResult(int firstResult) {
+        this.firstResult = firstResult;
+    }
+
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    public void setMaxResults(int maxResults) {
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * @return the number of visible variables matching the name filter, independent of the requested page
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public List<VariableValueDto> getVariables() {
+        return variables;
+    }
+
+    public void setVariables(List<VariableValueDto> variables) {
+        this.variables = variables;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.dtos;
+
+import java.util.List;
+
+/**
+ * Difference between the XML of a view the client already has and the XML of the requested view, consisting of
+ * copied line ranges of the base XML as arrays with the first line and the number of lines, and inserted text
+ */
+public class ViewXmlDiffDto {
+
+    private String baseETag;
+
+    private String targetETag;
+
+    private int targetLength;
+
+    private List<Object> operations;
+
+    public String getBaseETag() {
+        return baseETag;
+    }
+
+    public void setBaseETag(String baseETag) {
+        this.baseETag = baseETag;
+    }
+
+    public String getTargetETag() {
+        return targetETag;
+    }
+
+    public void setTargetETag(String targetETag) {
+        this.targetETag = targetETag;
+    }
+
+    public int getTargetLength() {
+        return targetLength;
+    }
+
+    public void setTargetLength(int targetLength) {
+        this.targetLength = targetLength;
+    }
+
+    public List<Object> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<Object> operations) {
+        this.operations = operations;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.engine;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.history.event.HistoryEventTypes;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
+import org.quantil.camunda.plugin.services.MemoizingDeploymentResourceResolver;
+
+/**
+ * Evicts the remembered deployment of process instances that ended or were migrated to another process definition
+ */
+public class ProcessInstanceEvictionHistoryEventHandler implements HistoryEventHandler {
+
+    private final String engineName;
+
+    /**
+     * @param engineName the name of the process engine producing the history events
+     */
+    public ProcessInstanceEvictionHistoryEventHandler(String engineName) {
+        this.engineName = engineName;
+    }
+
+    @Override
+    public void handleEvent(HistoryEvent historyEvent) {
+        if (historyEvent.isEventOfType(HistoryEventTypes.PROCESS_INSTANCE_END)
+                || historyEvent.isEventOfType(HistoryEventTypes.PROCESS_INSTANCE_MIGRATE)) {
+            MemoizingDeploymentResourceResolver.evict(engineName, historyEvent.getProcessInstanceId());
+        }
+    }
+
+    @Override
+    public void handleEvents(List<HistoryEvent> historyEvents) {
+        for (HistoryEvent historyEvent : historyEvents) {
+            handleEvent(historyEvent);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.history.HistoryLevel;
+import org.camunda.bpm.engine.impl.history.event.HistoryEventTypes;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
+import org.camunda.bpm.engine.impl.persistence.deploy.Deployer;
+
+/**
+ * Process engine plugin keeping the caches of the Cockpit plugins consistent with the state of the process engine
+ * and indexing the views of deployments when they are deployed
+ *
+ * The plugin is optional and has to be registered in the configuration of the process engine, e.g., in the
+ * bpm-platform.xml
+ *
+ * Remembered deployments of process instances are only evicted early if the history level of the process engine
+ * produces the history events of ended and migrated process instances, otherwise they expire after their time to live
+ */
+public class ProcessViewEnginePlugin extends AbstractProcessEnginePlugin {
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+        List<HistoryEventHandler> historyEventHandlers = processEngineConfiguration.getCustomHistoryEventHandlers();
+        if (historyEventHandlers == null) {
+            historyEventHandlers = new ArrayList<>();
+            processEngineConfiguration.setCustomHistoryEventHandlers(historyEventHandlers);
+        }
+        historyEventHandlers.add(new ProcessInstanceEvictionHistoryEventHandler(
+                processEngineConfiguration.getProcessEngineName()));
+
+        List<Deployer> postDeployers = processEngineConfiguration.getCustomPostDeployers();
+        if (postDeployers == null) {
+            postDeployers = new ArrayList<>();
+            processEngineConfiguration.setCustomPostDeployers(postDeployers);
+        }
+        postDeployers.add(new ViewRegistryDeployer());
+    }
+
+    @Override
+    public void postProcessEngineBuild(ProcessEngine processEngine) {
+        // the history level is only known after the build as it may be determined from the database ('auto')
+        HistoryLevel historyLevel = ((ProcessEngineConfigurationImpl) processEngine.getProcessEngineConfiguration())
+                .getHistoryLevel();
+        if (historyLevel == null
+                || !historyLevel.isHistoryEventProduced(HistoryEventTypes.PROCESS_INSTANCE_END, null)
+                || !historyLevel.isHistoryEventProduced(HistoryEventTypes.PROCESS_INSTANCE_MIGRATE, null)) {
+            System.err.println("History level " + (historyLevel == null ? null : historyLevel.getName())
+                    + " of process engine " + processEngine.getName() + " does not produce the history events of"
+                    + " ended and migrated process instances, their remembered deployments are only evicted after"
+                    + " process-views.process-instance-deployment-cache-ttl-millis");
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.engine;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.deploy.Deployer;
+import org.camunda.bpm.engine.impl.persistence.entity.DeploymentEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.ResourceEntity;
+import org.quantil.camunda.plugin.services.ViewRegistry;
+
+/**
+ * Indexes the views of a deployment once when it is deployed, or when it is loaded into the deployment cache of the
+ * process engine again, e.g., after a restart
+ */
+public class ViewRegistryDeployer implements Deployer {
+
+    @Override
+    public void deploy(DeploymentEntity deployment) {
+        // deployment IDs are only unique per process engine, thus, the views are registered for the deploying engine
+        String engineName = Context.getProcessEngineConfiguration().getProcessEngineName();
+        Collection<ResourceEntity> resourceEntities;
+        if (deployment.isNew()) {
+            resourceEntities = deployment.getResources() == null ? null : deployment.getResources().values();
+        } else {
+            // when the deployment cache is reloaded, only the resources of the process definition are passed to the
+            // deployers, thus, all resources are loaded unless the deployment is registered already
+            if (ViewRegistry.get(engineName, deployment.getId()) != null) {
+                return;
+            }
+            CommandContext commandContext = Context.getCommandContext();
+            if (commandContext == null) {
+                return;
+            }
+            resourceEntities = commandContext.getResourceManager().findResourcesByDeploymentId(deployment.getId());
+        }
+        if (resourceEntities == null || resourceEntities.isEmpty()) {
+            return;
+        }
+
+        Map<String, String> resources = new LinkedHashMap<>();
+        Map<String, byte[]> resourceData = new HashMap<>();
+        for (ResourceEntity resource : resourceEntities) {
+            resources.put(resource.getId(), resource.getName());
+            resourceData.put(resource.getId(), resource.getBytes());
+        }
+        ViewRegistry.register(engineName, deployment.getId(), resources, resourceData);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram counting recorded values in buckets with fixed upper bounds
+ */
+public class Histogram {
+
+    private final long[] upperBounds;
+
+    // the last bucket counts all values greater than the largest upper bound
+    private final LongAdder[] buckets;
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * @param upperBounds the inclusive upper bounds of the buckets in ascending order
+     */
+    public Histogram(long[] upperBounds) {
+        this.upperBounds = upperBounds.clone();
+        this.buckets = new LongAdder[upperBounds.length + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Record the given value
+     *
+     * @param value the value to record, e.g., a duration in nanoseconds or a size in bytes
+     */
+    public void record(long value) {
+        int low = 0;
+        int high = upperBounds.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (upperBounds[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        buckets[low].increment();
+        count.increment();
+        sum.add(value);
+    }
+
+    long[] getUpperBounds() {
+        return upperBounds;
+    }
+
+    /**
+     * @return the number of recorded values per bucket, i.e., not cumulative, including the bucket for values
+     *         exceeding all upper bounds as last element
+     */
+    long[] getBucketCounts() {
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.metrics;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Metrics of the same kind that are distinguished by the values of their labels
+ *
+ * @param <M> the type of the metrics, e.g., timers or histograms
+ */
+public class MetricFamily<M> {
+
+    private final String name;
+
+    private final String help;
+
+    private final List<String> labelNames;
+
+    private final Supplier<M> factory;
+
+    private final ConcurrentMap<List<String>, M> metrics = new ConcurrentHashMap<>();
+
+    MetricFamily(String name, String help, Supplier<M> factory, String... labelNames) {
+        this.name = name;
+        this.help = help;
+        this.factory = factory;
+        this.labelNames = Collections.unmodifiableList(Arrays.asList(labelNames));
+    }
+
+    /**
+     * Get the metric with the given label values, which should be kept by callers on hot paths
+     *
+     * @param labelValues the values of the labels in the order of the label names of the family
+     * @return the metric, which is created on first use
+     */
+    public M labels(String... labelValues) {
+        if (labelValues.length != labelNames.size()) {
+            throw new IllegalArgumentException("Metric " + name + " requires the labels " + labelNames);
+        }
+        return metrics.computeIfAbsent(Arrays.asList(labelValues.clone()), labels -> factory.get());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getHelp() {
+        return help;
+    }
+
+    public List<String> getLabelNames() {
+        return labelNames;
+    }
+
+    Map<List<String>, M> getMetrics() {
+        return metrics;
+    }
+}
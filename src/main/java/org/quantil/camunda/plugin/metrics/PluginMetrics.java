@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.metrics;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.quantil.camunda.plugin.cache.LruCache;
+import org.quantil.camunda.plugin.cache.SingleFlight;
+
+/**
+ * Metrics of the server-side plugins, which can be exported in the text format of Prometheus
+ *
+ * All metrics are recorded using lock-free counters, thus, recording does not block concurrent requests. Timers and
+ * histograms should be retrieved once and kept in static fields by callers on hot paths.
+ */
+public final class PluginMetrics {
+
+    // 1KiB, 4KiB, 16KiB, 64KiB, 256KiB, 1MiB, 4MiB, 16MiB
+    private static final long[] SIZE_BOUNDS_BYTES = { 1024L, 4096L, 16384L, 65536L, 262144L, 1048576L, 4194304L,
+            16777216L };
+
+    public static final MetricFamily<Timer> ENDPOINTS = new MetricFamily<>("process_views_endpoint",
+            "Requests handled by the endpoints of the process view plugin", Timer::new, "endpoint");
+
+    public static final MetricFamily<Timer> RESOLVER = new MetricFamily<>("process_views_resolver",
+            "Retrievals of process instances and deployment resources from the process engine or its REST API",
+            Timer::new, "resolver", "operation");
+
+    public static final MetricFamily<Timer> OPENTOSCA_FETCHES = new MetricFamily<>("process_views_opentosca_fetch",
+            "Retrievals of resources from OpenTOSCA, including responses served from the cache", Timer::new,
+            "resource");
+
+    public static final MetricFamily<Timer> SHARED_CACHE = new MetricFamily<>("process_views_shared_cache",
+            "Operations on the cache shared by all Cockpit nodes using the engine database", Timer::new, "region",
+            "operation");
+
+    public static final MetricFamily<Histogram> PAYLOAD_SIZES = new MetricFamily<>("process_views_payload_bytes",
+            "Sizes of the payloads retrieved from other services or sent to clients",
+            () -> new Histogram(SIZE_BOUNDS_BYTES), "payload");
+
+    public static final MetricFamily<AtomicLong> OPENTOSCA_CIRCUIT_STATE = new MetricFamily<>(
+            "process_views_opentosca_circuit_state",
+            "State of the circuit breaker of an OpenTOSCA host (0 closed, 1 open, 2 half-open)", AtomicLong::new,
+            "host");
+
+    public static final MetricFamily<LongAdder> OPENTOSCA_REJECTIONS = new MetricFamily<>(
+            "process_views_opentosca_rejected_total",
+            "Requests to OpenTOSCA rejected by the circuit breaker or bulkhead of the host", LongAdder::new, "host",
+            "reason");
+
+    private static final List<LruCache<?, ?>> CACHES = new CopyOnWriteArrayList<>();
+
+    private static final List<SingleFlight<?, ?>> SINGLE_FLIGHTS = new CopyOnWriteArrayList<>();
+
+    private static final List<Gauge> GAUGES = new CopyOnWriteArrayList<>();
+
+    private PluginMetrics() {
+    }
+
+    /**
+     * Register the given cache to export its statistics
+     *
+     * @param cache the cache to register
+     * @return the registered cache
+     */
+    public static <C extends LruCache<?, ?>> C registerCache(C cache) {
+        CACHES.add(cache);
+        return cache;
+    }
+
+    /**
+     * Register the given single flight to export the number of executed and coalesced calls
+     *
+     * @param singleFlight the single flight to register
+     * @return the registered single flight
+     */
+    public static <S extends SingleFlight<?, ?>> S registerSingleFlight(S singleFlight) {
+        SINGLE_FLIGHTS.add(singleFlight);
+        return singleFlight;
+    }
+
+    /**
+     * Register a gauge whose value is determined on export
+     *
+     * @param name  the name of the gauge
+     * @param help  the description of the gauge
+     * @param value the supplier of the current value
+     */
+    public static void registerGauge(String name, String help, LongSupplier value) {
+        GAUGES.add(new Gauge(name, help, value));
+    }
+
+    /**
+     * @return all metrics in the text format of Prometheus
+     */
+    public static String toPrometheusText() {
+        StringBuilder text = new StringBuilder(8192);
+        appendTimers(text, ENDPOINTS);
+        appendTimers(text, RESOLVER);
+        appendTimers(text, OPENTOSCA_FETCHES);
+        appendTimers(text, SHARED_CACHE);
+        appendHistograms(text, PAYLOAD_SIZES, 1);
+
+        appendHeader(text, OPENTOSCA_CIRCUIT_STATE.getName(), OPENTOSCA_CIRCUIT_STATE.getHelp(), "gauge");
+        for (Map.Entry<List<String>, AtomicLong> state : OPENTOSCA_CIRCUIT_STATE.getMetrics().entrySet()) {
+            text.append(OPENTOSCA_CIRCUIT_STATE.getName()).append('{')
+                    .append(labels(OPENTOSCA_CIRCUIT_STATE, state.getKey())).append("} ")
+                    .append(state.getValue().get()).append('\n');
+        }
+        appendHeader(text, OPENTOSCA_REJECTIONS.getName(), OPENTOSCA_REJECTIONS.getHelp(), "counter");
+        for (Map.Entry<List<String>, LongAdder> rejections : OPENTOSCA_REJECTIONS.getMetrics().entrySet()) {
+            text.append(OPENTOSCA_REJECTIONS.getName()).append('{')
+                    .append(labels(OPENTOSCA_REJECTIONS, rejections.getKey())).append("} ")
+                    .append(rejections.getValue().sum()).append('\n');
+        }
+
+        appendCacheCounter(text, "hits", "Lookups answered by the cache");
+        appendCacheCounter(text, "misses", "Lookups not answered by the cache");
+        appendCacheCounter(text, "evictions", "Entries evicted from the cache as its maximum size was reached");
+        appendCacheCounter(text, "expirations", "Entries removed from the cache as their time to live expired");
+        appendHeader(text, "process_views_cache_size", "Number of entries in the cache", "gauge");
+        for (LruCache<?, ?> cache : CACHES) {
+            text.append("process_views_cache_size{cache=\"").append(escape(cache.getName())).append("\"} ")
+                    .append(cache.size()).append('\n');
+        }
+        appendHeader(text, "process_views_cache_max_size", "Maximum number of entries in the cache", "gauge");
+        for (LruCache<?, ?> cache : CACHES) {
+            text.append("process_views_cache_max_size{cache=\"").append(escape(cache.getName())).append("\"} ")
+                    .append(cache.getMaximumSize()).append('\n');
+        }
+
+        appendHeader(text, "process_views_single_flight_calls_total",
+                "Calls to other services that were executed or coalesced with an identical call in flight", "counter");
+        for (SingleFlight<?, ?> singleFlight : SINGLE_FLIGHTS) {
+            String operation = escape(singleFlight.getName());
+            text.append("process_views_single_flight_calls_total{operation=\"").append(operation)
+                    .append("\",outcome=\"executed\"} ").append(singleFlight.getExecutedCount()).append('\n');
+            text.append("process_views_single_flight_calls_total{operation=\"").append(operation)
+                    .append("\",outcome=\"coalesced\"} ").append(singleFlight.getCoalescedCount()).append('\n');
+        }
+
+        for (Gauge gauge : GAUGES) {
+            appendHeader(text, gauge.name, gauge.help, "gauge");
+            text.append(gauge.name).append(' ').append(gauge.value.getAsLong()).append('\n');
+        }
+        return text.toString();
+    }
+
+    private static void appendTimers(StringBuilder text, MetricFamily<Timer> family) {
+        String name = family.getName() + "_duration_seconds";
+        appendHeader(text, name, family.getHelp(), "histogram");
+        for (Map.Entry<List<String>, Timer> timer : family.getMetrics().entrySet()) {
+            appendHistogram(text, name, labels(family, timer.getKey()), timer.getValue().getLatencies(), 1e9);
+        }
+
+        String errors = family.getName() + "_errors_total";
+        appendHeader(text, errors, family.getHelp() + " that failed", "counter");
+        for (Map.Entry<List<String>, Timer> timer : family.getMetrics().entrySet()) {
+            text.append(errors).append('{').append(labels(family, timer.getKey())).append("} ")
+                    .append(timer.getValue().getErrorCount()).append('\n');
+        }
+    }
+
+    private static void appendHistograms(StringBuilder text, MetricFamily<Histogram> family, double divisor) {
+        appendHeader(text, family.getName(), family.getHelp(), "histogram");
+        for (Map.Entry<List<String>, Histogram> histogram : family.getMetrics().entrySet()) {
+            appendHistogram(text, family.getName(), labels(family, histogram.getKey()), histogram.getValue(), divisor);
+        }
+    }
+
+    private static void appendHistogram(StringBuilder text, String name, String labels, Histogram histogram,
+            double divisor) {
+        long[] upperBounds = histogram.getUpperBounds();
+        long[] counts = histogram.getBucketCounts();
+        long cumulativeCount = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulativeCount += counts[i];
+            String bound = i < upperBounds.length ? format(upperBounds[i] / divisor) : "+Inf";
+            text.append(name).append("_bucket{").append(labels).append(",le=\"").append(bound).append("\"} ")
+                    .append(cumulativeCount).append('\n');
+        }
+
+        // the total count is taken from the buckets, so that it is consistent with them
+        text.append(name).append("_sum{").append(labels).append("} ").append(format(histogram.getSum() / divisor))
+                .append('\n');
+        text.append(name).append("_count{").append(labels).append("} ").append(cumulativeCount).append('\n');
+    }
+
+    private static void appendCacheCounter(StringBuilder text, String counter, String help) {
+        String name = "process_views_cache_" + counter + "_total";
+        appendHeader(text, name, help, "counter");
+        for (LruCache<?, ?> cache : CACHES) {
+            long value;
+            switch (counter) {
+            case "hits":
+                value = cache.getHitCount();
+                break;
+            case "misses":
+                value = cache.getMissCount();
+                break;
+            case "evictions":
+                value = cache.getEvictionCount();
+                break;
+            default:
+                value = cache.getExpirationCount();
+            }
+            text.append(name).append("{cache=\"").append(escape(cache.getName())).append("\"} ").append(value)
+                    .append('\n');
+        }
+    }
+
+    private static void appendHeader(StringBuilder text, String name, String help, String type) {
+        text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static String labels(MetricFamily<?> family, List<String> values) {
+        StringBuilder labels = new StringBuilder();
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                labels.append(',');
+            }
+            labels.append(family.getLabelNames().get(i)).append("=\"").append(escape(values.get(i))).append('"');
+        }
+        return labels.toString();
+    }
+
+    private static String format(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return String.format(Locale.ROOT, "%s", value);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static final class Gauge {
+
+        private final String name;
+
+        private final String help;
+
+        private final LongSupplier value;
+
+        private Gauge(String name, String help, LongSupplier value) {
+            this.name = name;
+            this.help = help;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.metrics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Stream recording the number of bytes read from it in a histogram when it is closed
+ */
+public class SizeRecordingInputStream extends FilterInputStream {
+
+    private final Histogram sizes;
+
+    private long count;
+
+    private boolean closed;
+
+    /**
+     * @param in    the stream to read from
+     * @param sizes the histogram to record the number of read bytes in
+     */
+    public SizeRecordingInputStream(InputStream in, Histogram sizes) {
+        super(in);
+        this.sizes = sizes;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int read = super.read();
+        if (read != -1) {
+            count++;
+        }
+        return read;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int read = super.read(buffer, offset, length);
+        if (read > 0) {
+            count += read;
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        count += skipped;
+        return skipped;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            sizes.record(count);
+        }
+        super.close();
+    }
+}
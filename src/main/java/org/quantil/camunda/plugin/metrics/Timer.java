@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free timer recording the latency and the number of failures of an operation
+ */
+public class Timer {
+
+    // 1ms, 5ms, 10ms, 25ms, 50ms, 100ms, 250ms, 500ms, 1s, 2.5s, 5s, 10s, 30s
+    static final long[] LATENCY_BOUNDS_NANOS = { 1000000L, 5000000L, 10000000L, 25000000L, 50000000L, 100000000L,
+            250000000L, 500000000L, 1000000000L, 2500000000L, 5000000000L, 10000000000L, 30000000000L };
+
+    private final Histogram latencies = new Histogram(LATENCY_BOUNDS_NANOS);
+
+    private final LongAdder errors = new LongAdder();
+
+    /**
+     * Start timing an operation, which has to be stopped using the returned sample
+     *
+     * @return the sample of the started operation
+     */
+    public Sample start() {
+        return new Sample(this, System.nanoTime());
+    }
+
+    /**
+     * Execute the given operation and record its duration, counting it as failed if it throws an exception
+     *
+     * @param operation the operation to execute
+     * @return the result of the operation
+     */
+    public <V, E extends Exception> V time(Operation<V, E> operation) throws E {
+        Sample sample = start();
+        try {
+            return operation.execute();
+        } catch (Exception e) {
+            sample.failed();
+            throw e;
+        } finally {
+            sample.stop();
+        }
+    }
+
+    /**
+     * Record an operation
+     *
+     * @param durationNanos the duration of the operation in nanoseconds
+     * @param failed        true if the operation failed
+     */
+    public void record(long durationNanos, boolean failed) {
+        latencies.record(durationNanos);
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    Histogram getLatencies() {
+        return latencies;
+    }
+
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    /**
+     * Operation executed and timed by {@link Timer#time(Operation)}
+     */
+    public interface Operation<V, E extends Exception> {
+
+        V execute() throws E;
+    }
+
+    /**
+     * Operation timed by a timer
+     */
+    public static final class Sample {
+
+        private final Timer timer;
+
+        private final long start;
+
+        private boolean failed;
+
+        private Sample(Timer timer, long start) {
+            this.timer = timer;
+            this.start = start;
+        }
+
+        /**
+         * Mark the operation as failed
+         */
+        public void failed() {
+            failed = true;
+        }
+
+        /**
+         * Stop the operation and record its duration
+         */
+        public void stop() {
+            timer.record(System.nanoTime() - start, failed);
+        }
+    }
+}
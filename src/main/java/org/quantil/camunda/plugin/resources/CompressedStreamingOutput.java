@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.resources;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.ws.rs.core.StreamingOutput;
+
+/**
+ * Streams the content of an input stream to the response, optionally compressing it with the negotiated content
+ * encoding
+ */
+class CompressedStreamingOutput implements StreamingOutput {
+
+    static final String GZIP = "gzip";
+
+    static final String DEFLATE = "deflate";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final InputStream inputStream;
+
+    private final String contentEncoding;
+
+    /**
+     * @param inputStream     the stream to write to the response, which is closed after it was written
+     * @param contentEncoding the content encoding to apply, i.e., 'gzip', 'deflate', or null to send the content
+     *                        uncompressed
+     */
+    CompressedStreamingOutput(InputStream inputStream, String contentEncoding) {
+        this.inputStream = inputStream;
+        this.contentEncoding = contentEncoding;
+    }
+
+    @Override
+    public void write(OutputStream output) throws IOException {
+        try (InputStream input = inputStream) {
+            OutputStream target = output;
+            if (GZIP.equals(contentEncoding)) {
+                target = new GZIPOutputStream(output, BUFFER_SIZE);
+            } else if (DEFLATE.equals(contentEncoding)) {
+                target = new DeflaterOutputStream(output);
+            }
+
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                target.write(buffer, 0, read);
+            }
+
+            // finish the compressed stream without closing the response stream owned by the container
+            if (target instanceof DeflaterOutputStream) {
+                ((DeflaterOutputStream) target).finish();
+            }
+            target.flush();
+        }
+    }
+
+    /**
+     * Select the content encoding to use based on the given Accept-Encoding header, preferring gzip over deflate
+     *
+     * @param acceptEncoding the value of the Accept-Encoding header of the request, may be null
+     * @return 'gzip', 'deflate', or null if the client does not accept a supported compression
+     */
+    static String negotiateContentEncoding(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+
+        boolean deflateAccepted = false;
+        for (String coding : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            boolean accepted = true;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim().replace(" ", "");
+                if (parameter.equals("q=0") || parameter.matches("q=0\\.0*")) {
+                    accepted = false;
+                }
+            }
+            if (!accepted) {
+                continue;
+            }
+            if (name.equals(GZIP) || name.equals("x-gzip")) {
+                return GZIP;
+            }
+            if (name.equals(DEFLATE)) {
+                deflateAccepted = true;
+            }
+        }
+        return deflateAccepted ? DEFLATE : null;
+    }
+}
@@ -11,36 +11,39 @@
 
 package org.quantil.camunda.plugin.resources;
 
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.QueryParam;
 import org.camunda.bpm.cockpit.plugin.resource.AbstractCockpitPluginRootResource;
 import org.camunda.bpm.engine.ProcessEngine;
 import org.camunda.bpm.engine.ProcessEngines;
 import org.camunda.bpm.engine.RuntimeService;
 import org.camunda.bpm.engine.runtime.ProcessInstance;
-import org.camunda.bpm.model.bpmn.instance.ServiceTask;
-import org.camunda.bpm.model.bpmn.instance.SubProcess;
-import org.camunda.bpm.model.xml.ModelInstance;
-import org.camunda.bpm.model.xml.instance.ModelElementInstance;
 import org.quantil.camunda.plugin.OpenToscaPlugin;
+import org.quantil.camunda.plugin.PluginConfiguration;
 import org.quantil.camunda.plugin.client.OpenToscaClient;
-import org.quantil.camunda.plugin.client.model.BuildPlanInstance;
-import org.quantil.camunda.plugin.client.model.Resource;
-import org.quantil.camunda.plugin.client.model.ServiceTemplateInstance;
 import org.quantil.camunda.plugin.dto.DeploymentInformation;
+import org.quantil.camunda.plugin.dto.DeploymentUpdates;
+import org.quantil.camunda.plugin.services.DeploymentDescriptor;
+import org.quantil.camunda.plugin.services.DeploymentInformationService;
+import org.quantil.camunda.plugin.services.DeploymentStatusPoller;
+import org.quantil.camunda.plugin.services.DeploymentTarget;
+import org.quantil.camunda.plugin.services.LogSelection;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Path("plugin/" + OpenToscaPlugin.ID)
 public class OpenToscaRootResource extends AbstractCockpitPluginRootResource {
 
     private OpenToscaClient openToscaClient;
 
-    private static final String OPENTOSCA_NS = "https://github.com/UST-QuAntiL/OpenTOSCA";
-
     public OpenToscaRootResource() {
         super(OpenToscaPlugin.ID);
     }
@@ -48,74 +51,143 @@ public class OpenToscaRootResource extends AbstractCockpitPluginRootResource {
     @GET
     @Path("{engineName}/process-instance/{processInstanceId}/deployment-info")
     public List<DeploymentInformation> getDeploymentInformation(@PathParam("engineName") String engineName,
-                                                                @PathParam("processInstanceId") String processInstanceId) {
-        ProcessEngine processEngine = ProcessEngines.getProcessEngine(engineName);
-        RuntimeService runtimeService = processEngine.getRuntimeService();
-        ProcessInstance processInstance = runtimeService.createProcessInstanceQuery().processInstanceId(processInstanceId).singleResult();
-        ModelInstance modelInstance = processEngine.getRepositoryService().getBpmnModelInstance(processInstance.getProcessDefinitionId());
-
-        return Stream.concat(
-                        modelInstance.getModelElementsByType(ServiceTask.class).stream()
-                                .filter(serviceTask -> {
-                                    ModelElementInstance parentElement = serviceTask.getParentElement();
-                                    // Ignore on demand deployment
-                                    return !(parentElement instanceof SubProcess) || !"true".equals(parentElement.getAttributeValueNs(OPENTOSCA_NS, "onDemandDeployment"));
-                                }).map(serviceTask -> {
-                                    String deploymentModelUrl = serviceTask.getAttributeValueNs(OPENTOSCA_NS, "deploymentModelUrl");
-                                    String deploymentBuildPlanInstanceUrl = serviceTask.getAttributeValueNs(OPENTOSCA_NS, "deploymentBuildPlanInstanceUrl");
-                                    if (deploymentModelUrl == null || deploymentBuildPlanInstanceUrl == null) return null;
-                                    return fetchDeploymentInformation(deploymentModelUrl, deploymentBuildPlanInstanceUrl);
-                                }),
-                        modelInstance.getModelElementsByType(SubProcess.class).stream()
-                                .filter(subProcess -> "true".equals(subProcess.getAttributeValueNs(OPENTOSCA_NS, "onDemandDeployment")))
-                                .map(subProcess -> {
-                                    String deploymentModelUrl = subProcess.getAttributeValueNs(OPENTOSCA_NS, "deploymentModelUrl");
-                                    String id = subProcess.getId();
-                                    String deploymentBuildPlanInstanceUrl = (String) runtimeService.getVariableLocal(processInstanceId, id + "_deploymentBuildPlanInstanceUrl");
-                                    if (deploymentBuildPlanInstanceUrl == null)
-                                        deploymentBuildPlanInstanceUrl = subProcess.getAttributeValueNs(OPENTOSCA_NS, "deploymentBuildPlanInstanceUrl");
-
-                                    return fetchDeploymentInformation(deploymentModelUrl, deploymentBuildPlanInstanceUrl);
-                                }))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-
+                                                                @PathParam("processInstanceId") String processInstanceId,
+                                                                @QueryParam("cursor") List<String> logCursors,
+                                                                @QueryParam("status") List<String> logStatuses,
+                                                                @QueryParam("limit") @DefaultValue("0") int logLimit) {
+        List<DeploymentTarget> targets = getDeploymentTargets(engineName, processInstanceId);
+
+        // only return the log entries following the passed cursors, all of them unless the client requests a limit,
+        // which is capped at one page per deployment
+        int pageSize = PluginConfiguration.getOpenToscaLogPageSize();
+        LogSelection logSelection = LogSelection.of(
+                logCursors == null ? Collections.emptyList() : logCursors,
+                logStatuses == null ? Collections.emptyList() : logStatuses,
+                logLimit > 0 && pageSize > 0 && logLimit > pageSize ? pageSize : logLimit);
+
+        // the deployments are fetched concurrently, returning state TIMEOUT for those exceeding the deadline
+        return new DeploymentInformationService(getOpenToscaClient(engineName))
+                .fetchDeploymentInformation(targets, logSelection, PluginConfiguration.getOpenToscaRequestDeadlineMillis());
     }
 
-    private DeploymentInformation fetchDeploymentInformation(String deploymentModelUrl, String deploymentBuildPlanInstanceUrl) {
-        try {
-            String csarName = extractCsarNameFromDeploymentModelUrl(deploymentModelUrl);
-            DeploymentInformation deploymentInformation = new DeploymentInformation();
-            deploymentInformation.setCsarName(csarName);
-            if (deploymentBuildPlanInstanceUrl == null) {
-                deploymentInformation.setBuildPlanState("UNAVAILABLE");
-                deploymentInformation.setInstanceState("UNAVAILABLE");
-                deploymentInformation.setLogs(Collections.emptyList());
-            } else {
-                BuildPlanInstance buildPlanInstance = getOpenToscaClient().fetch(deploymentBuildPlanInstanceUrl, BuildPlanInstance.class);
-
-                deploymentInformation.setBuildPlanState(buildPlanInstance.getState());
-                deploymentInformation.setLogs(buildPlanInstance.getLogs().stream()
-                        .map(logEntry -> new DeploymentInformation.LogEntry(new Date(logEntry.getStartTimestamp()), logEntry.getStatus(), logEntry.getMessage()))
-                        .collect(Collectors.toList()));
-                Resource.Link instanceLink = buildPlanInstance.getLinks().get("service_template_instance");
-                if (instanceLink != null) {
-                    ServiceTemplateInstance serviceTemplateInstance = getOpenToscaClient().fetch(instanceLink.getHref(), ServiceTemplateInstance.class);
-                    deploymentInformation.setInstanceState(serviceTemplateInstance.getState());
-                    deploymentInformation.setInstanceCreatedAt(new Date(serviceTemplateInstance.getCreatedAt()));
+    /**
+     * Wait for changes of the deployments of a process instance after the given version
+     *
+     * The request blocks its container thread until a deployment changes or the long poll timeout expires, as the
+     * servlet of the Cockpit plugins does not necessarily support asynchronous requests. Thus, every open deployment
+     * tab occupies one request thread of the container for up to the long poll timeout.
+     */
+    @GET
+    @Path("{engineName}/process-instance/{processInstanceId}/deployment-info/updates")
+    public DeploymentUpdates getDeploymentUpdates(@PathParam("engineName") String engineName,
+                                                  @PathParam("processInstanceId") String processInstanceId,
+                                                  @QueryParam("since") @DefaultValue("0") long since,
+                                                  @QueryParam("epoch") String epoch,
+                                                  @QueryParam("timeout") @DefaultValue("-1") long timeoutMillis) {
+        List<DeploymentTarget> targets = getDeploymentTargets(engineName, processInstanceId);
+
+        // versions restart with the webapp and differ between Cockpit nodes, thus, a client knowing a version of
+        // another epoch or a version not assigned yet receives a full snapshot instead of waiting for later versions
+        if (since != 0 && ((epoch != null && !epoch.equals(DeploymentStatusPoller.getEpoch()))
+                || since > DeploymentStatusPoller.getCurrentVersion())) {
+            since = 0;
+        }
+
+        // all clients watching a deployment share one poller, independent of the process instances they watch
+        Map<DeploymentTarget, DeploymentStatusPoller> pollers = new LinkedHashMap<>();
+        for (DeploymentTarget target : targets) {
+            if (target.getBuildPlanInstanceUrl() != null) {
+                pollers.put(target, DeploymentStatusPoller.watch(target, getOpenToscaClient(engineName)));
+            }
+        }
+
+        // initial requests wait for the first state of all deployments, later requests for the next change
+        long maxTimeout = since == 0 ? PluginConfiguration.getOpenToscaRequestDeadlineMillis() : PluginConfiguration.getOpenToscaLongPollTimeoutMillis();
+        long timeout = timeoutMillis < 0 ? maxTimeout : Math.min(timeoutMillis, maxTimeout);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        while (true) {
+            // get the futures before the changes, so that no change in between is missed
+            CompletableFuture<?>[] nextChanges = pollers.values().stream()
+                    .map(DeploymentStatusPoller::getNextChange)
+                    .toArray(CompletableFuture[]::new);
+            long version = DeploymentStatusPoller.getCurrentVersion();
+            List<DeploymentInformation> changes = new ArrayList<>();
+            for (Map.Entry<DeploymentTarget, DeploymentStatusPoller> poller : pollers.entrySet()) {
+                DeploymentInformation change = poller.getValue().getChangesSince(since, poller.getKey());
+                if (change != null) {
+                    changes.add(change);
+                }
+            }
+
+            boolean complete = since == 0
+                    ? pollers.values().stream().allMatch(DeploymentStatusPoller::hasSnapshot)
+                    : !changes.isEmpty();
+            long remaining = deadline - System.nanoTime();
+            if (complete || remaining <= 0 || nextChanges.length == 0) {
+                if (since == 0) {
+                    // deployments without build plan instance do not change and are only sent initially
+                    List<DeploymentTarget> unavailableTargets = targets.stream()
+                            .filter(target -> target.getBuildPlanInstanceUrl() == null)
+                            .collect(Collectors.toList());
+                    changes.addAll(DeploymentInformationService.getUnavailableDeploymentInformation(unavailableTargets));
+
+                    // keep the order of the deployments in the workflow
+                    List<String> elementIds = targets.stream().map(DeploymentTarget::getElementId).collect(Collectors.toList());
+                    changes.sort(Comparator.comparingInt(change -> elementIds.indexOf(change.getElementId())));
                 }
+                DeploymentUpdates updates = new DeploymentUpdates();
+                updates.setVersion(version);
+                updates.setEpoch(DeploymentStatusPoller.getEpoch());
+                updates.setChanges(changes);
+                return updates;
+            }
+
+            try {
+                CompletableFuture.anyOf(nextChanges).get(remaining, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException | ExecutionException e) {
+                // return the changes retrieved so far
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                deadline = System.nanoTime();
             }
-            return deploymentInformation;
-        } catch (Exception e) {
-            System.err.println("Could not retrieve deployment information for " + deploymentModelUrl);
-            e.printStackTrace();
-            return null;
         }
     }
 
-    private OpenToscaClient getOpenToscaClient() {
+    private List<DeploymentTarget> getDeploymentTargets(String engineName, String processInstanceId) {
+        ProcessEngine processEngine = ProcessEngines.getProcessEngine(engineName);
+        RuntimeService runtimeService = processEngine.getRuntimeService();
+        ProcessInstance processInstance = runtimeService.createProcessInstanceQuery().processInstanceId(processInstanceId).singleResult();
+
+        // the deployments annotated in the model are only collected once per process definition
+        List<DeploymentDescriptor> descriptors = DeploymentInformationService.getDeploymentDescriptors(processEngine, processInstance.getProcessDefinitionId());
+
+        // on demand deployments store the URL of their build plan instance in a variable of the process instance
+        List<String> buildPlanInstanceUrlVariables = descriptors.stream()
+                .filter(DeploymentDescriptor::isOnDemandDeployment)
+                .map(descriptor -> descriptor.getElementId() + "_deploymentBuildPlanInstanceUrl")
+                .collect(Collectors.toList());
+        Map<String, Object> variables = buildPlanInstanceUrlVariables.isEmpty()
+                ? Collections.emptyMap()
+                : runtimeService.getVariablesLocal(processInstanceId, buildPlanInstanceUrlVariables);
+
+        List<DeploymentTarget> targets = descriptors.stream()
+                .map(descriptor -> {
+                    String deploymentBuildPlanInstanceUrl = descriptor.getBuildPlanInstanceUrl();
+                    if (descriptor.isOnDemandDeployment()) {
+                        Object variable = variables.get(descriptor.getElementId() + "_deploymentBuildPlanInstanceUrl");
+                        if (variable != null)
+                            deploymentBuildPlanInstanceUrl = (String) variable;
+                    }
+                    return new DeploymentTarget(descriptor.getElementId(), descriptor.getDeploymentModelUrl(), deploymentBuildPlanInstanceUrl);
+                })
+                .collect(Collectors.toList());
+
+        return targets;
+    }
+
+    private OpenToscaClient getOpenToscaClient(String engineName) {
         if (openToscaClient == null) {
-            openToscaClient = new OpenToscaClient();
+            openToscaClient = OpenToscaClient.forEngine(engineName);
         }
         return openToscaClient;
     }
@@ -123,12 +195,4 @@ public class OpenToscaRootResource extends AbstractCockpitPluginRootResource {
     void setOpenToscaClient(OpenToscaClient openToscaClient) {
         this.openToscaClient = openToscaClient;
     }
-
-    static String extractCsarNameFromDeploymentModelUrl(String deploymentModelUrl) {
-        String[] deploymentModelUrlParts = deploymentModelUrl.split("/");
-        if (deploymentModelUrlParts.length < 5) {
-            throw new IllegalArgumentException("Not a deployment model url");
-        }
-        return deploymentModelUrlParts[deploymentModelUrlParts.length - 2];
-    }
 }
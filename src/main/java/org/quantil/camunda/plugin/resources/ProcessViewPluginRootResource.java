@@ -12,23 +12,63 @@
 package org.quantil.camunda.plugin.resources;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Set;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.CacheControl;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
-import org.apache.ibatis.javassist.NotFoundException;
 import org.camunda.bpm.cockpit.plugin.resource.AbstractPluginRootResource;
 import org.camunda.bpm.engine.ProcessEngine;
 import org.camunda.bpm.engine.ProcessEngines;
 import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.runtime.ActivityInstance;
+import org.camunda.bpm.engine.runtime.TransitionInstance;
+import org.camunda.bpm.engine.runtime.VariableInstance;
+import org.quantil.camunda.plugin.PluginConfiguration;
 import org.quantil.camunda.plugin.ProcessViewPlugin;
+import org.quantil.camunda.plugin.client.PluginHttpClient;
 import org.quantil.camunda.plugin.dtos.ActiveProcessViewDto;
+import org.quantil.camunda.plugin.dtos.ActiveProcessViewsDto;
+import org.quantil.camunda.plugin.dtos.ActiveProcessViewsRequestDto;
+import org.quantil.camunda.plugin.dtos.ActivityInstanceDto;
+import org.quantil.camunda.plugin.dtos.ProcessInstanceViewDto;
+import org.quantil.camunda.plugin.dtos.TransitionInstanceDto;
+import org.quantil.camunda.plugin.dtos.VariableValueDto;
+import org.quantil.camunda.plugin.dtos.ViewBundleDto;
+import org.quantil.camunda.plugin.dtos.ViewVariablesDto;
+import org.quantil.camunda.plugin.dtos.ViewXmlDiffDto;
+import org.quantil.camunda.plugin.metrics.PluginMetrics;
+import org.quantil.camunda.plugin.metrics.Timer;
+import org.quantil.camunda.plugin.services.ProcessInstanceDeployment;
 import org.quantil.camunda.plugin.services.ProcessViewService;
+import org.quantil.camunda.plugin.services.ViewIndex;
+import org.quantil.camunda.plugin.services.ViewReference;
+import org.quantil.camunda.plugin.services.ViewVariableService;
+import org.quantil.camunda.plugin.services.ViewXmlDiff;
 
 /**
  * Root control for the API of the server-side plugin
@@ -36,78 +76,381 @@ import org.quantil.camunda.plugin.services.ProcessViewService;
 @Path("plugin/" + ProcessViewPlugin.ID)
 public class ProcessViewPluginRootResource extends AbstractPluginRootResource {
 
+  private static final Timer ACTIVE_VIEW_TIMER = PluginMetrics.ENDPOINTS.labels("active-view");
+
+  private static final Timer ACTIVE_VIEWS_TIMER = PluginMetrics.ENDPOINTS.labels("active-views");
+
+  private static final Timer VIEW_XML_TIMER = PluginMetrics.ENDPOINTS.labels("view-xml");
+
+  private static final Timer VIEW_XML_DIFF_TIMER = PluginMetrics.ENDPOINTS.labels("view-xml-diff");
+
+  private static final Timer VIEW_BUNDLE_TIMER = PluginMetrics.ENDPOINTS.labels("view-bundle");
+
+  private static final Timer VIEW_VARIABLES_TIMER = PluginMetrics.ENDPOINTS.labels("view-variables");
+
+  private static final Timer VIEW_VARIABLE_TIMER = PluginMetrics.ENDPOINTS.labels("view-variable");
+
+  private static final Timer CHANGE_VIEW_TIMER = PluginMetrics.ENDPOINTS.labels("change-view");
+
+  private static final Timer SELECT_VIEW_TIMER = PluginMetrics.ENDPOINTS.labels("select-view");
+
+  private static final Timer CHANGE_VIEW_BY_ID_TIMER = PluginMetrics.ENDPOINTS.labels("change-view-by-id");
+
   public ProcessViewPluginRootResource() {
     super(ProcessViewPlugin.ID);
   }
 
   @GET
   @Path("{engineName}/process-instance/{processInstanceId}/active-view")
-  public ActiveProcessViewDto getCurrentlyActiveProcessView(@Context UriInfo uriInfo,
+  public Response getCurrentlyActiveProcessView(@Context UriInfo uriInfo, @Context Request request,
       @PathParam("engineName") String engineName,
       @PathParam("processInstanceId") String processInstanceId)
-      throws IOException, NotFoundException {
-    // workaround to access the Camunda REST API, as the Java API does not provide
-    // all required details
-    String baseUrl = "http://" + uriInfo.getAbsolutePath().getHost() + ":" + uriInfo.getAbsolutePath().getPort();
-    System.out.println("Received request for host and port: " + baseUrl);
+      throws IOException {
+    return ACTIVE_VIEW_TIMER.time(() -> {
+      // get runtime service to access variables of process instances
+      ProcessEngine processEngine = ProcessEngines.getProcessEngine(engineName);
+      RuntimeService runtimeService = processEngine.getRuntimeService();
 
-    // get runtime service to access variables of process instances
-    ProcessEngine processEngine = ProcessEngines.getProcessEngine(engineName);
-    RuntimeService runtimeService = processEngine.getRuntimeService();
+      // get variable storing the active process view, setting the original workflow as initial view if not yet set
+      ProcessViewService processViewService = createProcessViewService(uriInfo, processEngine);
+      String activeProcessView = getActiveOrInitialProcessView(runtimeService, processViewService,
+          processInstanceId, true);
 
-    // get variable storing the active process view
-    ProcessViewService processViewService = new ProcessViewService();
-    Object activeProcessViewVariable = runtimeService.getVariable(processInstanceId,
-        "process-view-extension-active-view");
-    String activeProcessView;
-    if (Objects.isNull(activeProcessViewVariable)) {
-      System.out.println("Adding default value as active process view is currently not set!");
+      ViewReference viewReference = processViewService.resolveView(processInstanceId, activeProcessView);
+      if (viewReference == null) {
+        return Response.status(404)
+            .entity("Unable to find resource corresponding to view with ID: " + activeProcessView).build();
+      }
 
-      // set original workflow as initial view if not yet set
-      activeProcessView = processViewService.findInitialViewName(processInstanceId, baseUrl);
-      runtimeService.setVariable(processInstanceId, "process-view-extension-active-view", activeProcessView);
-    } else {
-      activeProcessView = activeProcessViewVariable.toString();
-    }
+      // the payload only changes if another view is activated, thus, skip it if the client already has it
+      EntityTag entityTag = ViewEntityTags.forActiveView(activeProcessView,
+          processViewService.getViewXmlKey(viewReference));
+      CacheControl cacheControl = ViewEntityTags.revalidate();
+      Response.ResponseBuilder notModified = request.evaluatePreconditions(entityTag);
+      if (notModified != null) {
+        return notModified.cacheControl(cacheControl).build();
+      }
 
-    // get XML representing the given view
-    String processViewXml = processViewService.getProcessViewXml(processInstanceId, activeProcessView, baseUrl);
+      // get XML representing the given view
+      String processViewXml = processViewService.getProcessViewXml(viewReference);
 
-    // return active process view
-    ActiveProcessViewDto dto = new ActiveProcessViewDto();
-    dto.setActiveProcessView(activeProcessView);
-    dto.setActiveProcessViewXml(processViewXml);
-    return dto;
+      // return active process view
+      ActiveProcessViewDto dto = new ActiveProcessViewDto();
+      dto.setActiveProcessView(activeProcessView);
+      dto.setActiveProcessViewXml(processViewXml);
+      return Response.ok(dto).tag(entityTag).cacheControl(cacheControl).build();
+    });
+  }
+
+  @GET
+  @Path("metrics")
+  @Produces("text/plain; version=0.0.4; charset=UTF-8")
+  public String getMetrics() {
+    return PluginMetrics.toPrometheusText();
+  }
+
+  @POST
+  @Path("{engineName}/process-instance/active-views")
+  @Consumes(MediaType.APPLICATION_JSON)
+  public Response getCurrentlyActiveProcessViews(@Context UriInfo uriInfo,
+      @PathParam("engineName") String engineName, ActiveProcessViewsRequestDto request) throws IOException {
+    return ACTIVE_VIEWS_TIMER.time(() -> {
+      if (request == null || request.getProcessInstanceIds() == null) {
+        return Response.status(400).entity("List of process instance IDs is required").build();
+      }
+      Set<String> processInstanceIds = new LinkedHashSet<>(request.getProcessInstanceIds());
+      if (processInstanceIds.size() > PluginConfiguration.getBatchSizeLimit()) {
+        return Response.status(400)
+            .entity("At most " + PluginConfiguration.getBatchSizeLimit() + " process instances can be requested at once")
+            .build();
+      }
+
+      ActiveProcessViewsDto dto = new ActiveProcessViewsDto();
+      dto.setActiveViews(new ArrayList<>());
+      if (request.isIncludeXml()) {
+        dto.setViewXml(new LinkedHashMap<>());
+      }
+      if (processInstanceIds.isEmpty()) {
+        return Response.ok(dto).build();
+      }
+
+      // resolve the deployments of all process instances at once, unknown instances are skipped
+      ProcessEngine processEngine = ProcessEngines.getProcessEngine(engineName);
+      ProcessViewService processViewService = createProcessViewService(uriInfo, processEngine);
+      Map<String, ProcessInstanceDeployment> deployments = processViewService.getDeployments(processInstanceIds);
+
+      // get the variables storing the active process views of all process instances with a single query
+      Map<String, String> activeProcessViews = new HashMap<>();
+      List<VariableInstance> activeProcessViewVariables = processEngine.getRuntimeService()
+          .createVariableInstanceQuery()
+          .variableName("process-view-extension-active-view")
+          .variableScopeIdIn(deployments.keySet().toArray(new String[0]))
+          .list();
+      for (VariableInstance variable : activeProcessViewVariables) {
+        if (Objects.nonNull(variable.getValue())) {
+          activeProcessViews.put(variable.getProcessInstanceId(), variable.getValue().toString());
+        }
+      }
+
+      for (Map.Entry<String, ProcessInstanceDeployment> deployment : deployments.entrySet()) {
+        String processInstanceId = deployment.getKey();
+        String deploymentId = deployment.getValue().getDeploymentId();
+        ViewIndex viewIndex = processViewService.getViewIndexForDeployment(deploymentId);
+
+        // fall back to the initial view without setting it, as reading views must not modify the instances
+        String activeProcessView = activeProcessViews.get(processInstanceId);
+        if (activeProcessView == null) {
+          activeProcessView = viewIndex.getInitialView();
+        }
+
+        ProcessInstanceViewDto view = new ProcessInstanceViewDto();
+        view.setProcessInstanceId(processInstanceId);
+        view.setDeploymentId(deploymentId);
+        view.setActiveProcessView(activeProcessView);
+        dto.getActiveViews().add(view);
+
+        // instances of the same deployment often share their active view, thus, each XML is only added once
+        if (request.isIncludeXml() && activeProcessView != null) {
+          Map<String, String> deploymentViews = dto.getViewXml().computeIfAbsent(deploymentId,
+              id -> new LinkedHashMap<>());
+          String resourceId = viewIndex.getResourceId(activeProcessView);
+          if (resourceId != null && !deploymentViews.containsKey(activeProcessView)) {
+            deploymentViews.put(activeProcessView, processViewService.getProcessViewXml(
+                new ViewReference(deploymentId, resourceId, activeProcessView)));
+          }
+        }
+      }
+      System.out.println("Retrieved active views of " + dto.getActiveViews().size() + " of "
+          + processInstanceIds.size() + " requested process instances");
+      return Response.ok(dto).build();
+    });
+  }
+
+  @GET
+  @Path("{engineName}/process-instance/{processInstanceId}/view/{viewName}/xml")
+  public Response getProcessViewXml(@Context UriInfo uriInfo, @Context Request request,
+      @PathParam("engineName") String engineName,
+      @PathParam("processInstanceId") String processInstanceId, @PathParam("viewName") String viewName,
+      @HeaderParam(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding) throws IOException {
+    return VIEW_XML_TIMER.time(() -> {
+      ProcessEngine processEngine = ProcessEngines.getProcessEngine(engineName);
+      ProcessViewService processViewService = createProcessViewService(uriInfo, processEngine);
+
+      // resolve the resource comprising the XML of the view
+      ViewReference viewReference = processViewService.resolveView(processInstanceId, viewName);
+      if (viewReference == null) {
+        return Response.status(404).build();
+      }
+
+      // deployment resources are immutable, thus, the client can reuse its copy if it has one
+      String contentEncoding = CompressedStreamingOutput.negotiateContentEncoding(acceptEncoding);
+      EntityTag entityTag = ViewEntityTags.forViewXml(processViewService.getViewXmlKey(viewReference),
+          contentEncoding);
+      CacheControl cacheControl = ViewEntityTags.immutable();
+      Response.ResponseBuilder notModified = request.evaluatePreconditions(entityTag);
+      if (notModified != null) {
+        return notModified.cacheControl(cacheControl).header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING).build();
+      }
+
+      // stream the XML directly from the resource, compressed if accepted by the client
+      InputStream xml = processViewService.openProcessViewXml(viewReference);
+      if (xml == null) {
+        return Response.status(404).build();
+      }
+      Response.ResponseBuilder response = Response.ok(new CompressedStreamingOutput(xml, contentEncoding),
+          "application/xml; charset=UTF-8")
+          .tag(entityTag)
+          .cacheControl(cacheControl)
+          .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+      if (contentEncoding != null) {
+        response.header(HttpHeaders.CONTENT_ENCODING, contentEncoding);
+      }
+      return response.build();
+    });
+  }
+
+  @GET
+  @Path("{engineName}/process-instance/{processInstanceId}/view/{viewName}/xml-diff")
+  @Produces(MediaType.APPLICATION_JSON)
+  public Response getProcessViewXmlDiff(@Context UriInfo uriInfo, @PathParam("engineName") String engineName,
+      @PathParam("processInstanceId") String processInstanceId, @PathParam("viewName") String viewName,
+      @QueryParam("base") String baseETag) throws IOException {
+    return VIEW_XML_DIFF_TIMER.time(() -> {
+      if (baseETag == null || baseETag.trim().isEmpty()) {
+        return Response.status(400).entity("ETag of the view XML the client already has is required").build();
+      }
+      ProcessEngine processEngine = ProcessEngines.getProcessEngine(engineName);
+      ProcessViewService processViewService = createProcessViewService(uriInfo, processEngine);
+      ViewReference target = processViewService.resolveView(processInstanceId, viewName);
+      if (target == null) {
+        return Response.status(404).build();
+      }
+
+      // the base has to be a view of the same deployment, otherwise the client has to retrieve the whole XML
+      ViewIndex viewIndex = processViewService.getViewIndexForDeployment(target.getDeploymentId());
+      ViewReference base = null;
+      for (String resourceId : viewIndex.getResources().keySet()) {
+        ViewReference candidate = new ViewReference(target.getDeploymentId(), resourceId,
+            viewIndex.getViewName(resourceId));
+        if (ViewEntityTags.matchesViewXml(processViewService.getViewXmlKey(candidate), baseETag)) {
+          base = candidate;
+          break;
+        }
+      }
+      if (base == null) {
+        System.out.println("Unknown base " + baseETag + " for difference to view " + viewName);
+        return Response.status(404).build();
+      }
+
+      ViewXmlDiff diff;
+      try {
+        diff = processViewService.getProcessViewXmlDiff(base, target);
+      } catch (NoSuchElementException e) {
+        return Response.status(404).build();
+      }
+      ViewXmlDiffDto dto = new ViewXmlDiffDto();
+      dto.setBaseETag(ViewEntityTags.forViewXml(processViewService.getViewXmlKey(base), null).getValue());
+      dto.setTargetETag(ViewEntityTags.forViewXml(processViewService.getViewXmlKey(target), null).getValue());
+      dto.setTargetLength(diff.getTargetLength());
+      dto.setOperations(diff.getOperations());
+
+      // both views are immutable, thus, so is their difference
+      return Response.ok(dto).cacheControl(ViewEntityTags.immutable()).build();
+    });
+  }
+
+  @GET
+  @Path("{engineName}/process-instance/{processInstanceId}/view-bundle")
+  public Response getProcessViewBundle(@Context UriInfo uriInfo, @Context Request request,
+      @PathParam("engineName") String engineName,
+      @PathParam("processInstanceId") String processInstanceId,
+      @QueryParam("includeXml") @DefaultValue("false") boolean includeXml) throws IOException {
+    return VIEW_BUNDLE_TIMER.time(() -> {
+      ProcessEngine processEngine = ProcessEngines.getProcessEngine(engineName);
+      RuntimeService runtimeService = processEngine.getRuntimeService();
+      ProcessViewService processViewService = createProcessViewService(uriInfo, processEngine);
+
+      // the active view is initialized the same way as by the active-view endpoint
+      String activeProcessView = getActiveOrInitialProcessView(runtimeService, processViewService,
+          processInstanceId, true);
+
+      ViewReference viewReference = processViewService.resolveView(processInstanceId, activeProcessView);
+      if (viewReference == null) {
+        return Response.status(404)
+            .entity("Unable to find resource corresponding to view with ID: " + activeProcessView).build();
+      }
+
+      // the XML is immutable, thus, it is only included on request and otherwise retrieved from the browser cache
+      ViewBundleDto dto = new ViewBundleDto();
+      dto.setActiveProcessView(activeProcessView);
+      dto.setActiveProcessViewXmlPath("view/" + activeProcessView + "/xml");
+      dto.setActiveProcessViewXmlETag(
+          ViewEntityTags.forViewXml(processViewService.getViewXmlKey(viewReference), null).getValue());
+
+      ActivityInstance activityInstance = runtimeService.getActivityInstance(processInstanceId);
+      if (activityInstance != null) {
+        dto.setActivityInstance(toActivityInstanceDto(activityInstance));
+      }
+
+      // variables of the process instance scope, leaving files and serialized objects as they are stored
+      Map<String, VariableValueDto> variables = new ViewVariableService(runtimeService)
+          .getVisibleVariables(processInstanceId, activeProcessView);
+      dto.setVariables(variables);
+
+      // the bundle changes if another view is activated or the activities or variables of the instance change
+      EntityTag entityTag = ViewEntityTags.forViewBundle(activeProcessView, dto.getActiveProcessViewXmlETag(),
+          PluginHttpClient.getInstance().getObjectMapper()
+              .writeValueAsString(Arrays.asList(dto.getActivityInstance(), dto.getVariables())));
+      CacheControl cacheControl = ViewEntityTags.revalidate();
+      Response.ResponseBuilder notModified = request.evaluatePreconditions(entityTag);
+      if (notModified != null) {
+        return notModified.cacheControl(cacheControl).build();
+      }
+      if (includeXml) {
+        dto.setActiveProcessViewXml(processViewService.getProcessViewXml(viewReference));
+      }
+      System.out.println("Returning bundle of view " + activeProcessView + " with " + variables.size()
+          + " variables for process instance with ID: " + processInstanceId);
+      return Response.ok(dto).tag(entityTag).cacheControl(cacheControl).build();
+    });
+  }
+
+  @GET
+  @Path("{engineName}/process-instance/{processInstanceId}/view-variables")
+  public Response getViewVariables(@Context UriInfo uriInfo, @PathParam("engineName") String engineName,
+      @PathParam("processInstanceId") String processInstanceId, @QueryParam("nameLike") String nameLike,
+      @QueryParam("firstResult") @DefaultValue("0") int firstResult,
+      @QueryParam("maxResults") @DefaultValue("50") int maxResults) throws IOException {
+    return VIEW_VARIABLES_TIMER.time(() -> {
+      int pageSizeLimit = PluginConfiguration.getVariablePageSizeLimit();
+      if (firstResult < 0 || maxResults < 1 || maxResults > pageSizeLimit) {
+        return Response.status(400)
+            .entity("The page must start at a non-negative index and comprise 1 to " + pageSizeLimit + " variables")
+            .build();
+      }
+
+      ProcessEngine processEngine = ProcessEngines.getProcessEngine(engineName);
+      RuntimeService runtimeService = processEngine.getRuntimeService();
+      ProcessViewService processViewService = createProcessViewService(uriInfo, processEngine);
+      String activeProcessView = getActiveOrInitialProcessView(runtimeService, processViewService, processInstanceId,
+          false);
+
+      // only the variables of the page are converted, serialized values exceeding the preview length are truncated
+      ViewVariablesDto dto = new ViewVariableService(runtimeService)
+          .getVisibleVariables(processInstanceId, activeProcessView, nameLike, firstResult, maxResults);
+      System.out.println("Returning " + dto.getVariables().size() + " of " + dto.getCount()
+          + " variables visible in view " + activeProcessView + " for process instance with ID: " + processInstanceId);
+      return Response.ok(dto).cacheControl(ViewEntityTags.revalidate()).build();
+    });
+  }
+
+  @GET
+  @Path("{engineName}/process-instance/{processInstanceId}/view-variables/{variableName}")
+  public Response getViewVariable(@Context UriInfo uriInfo, @PathParam("engineName") String engineName,
+      @PathParam("processInstanceId") String processInstanceId, @PathParam("variableName") String variableName)
+      throws IOException {
+    return VIEW_VARIABLE_TIMER.time(() -> {
+      ProcessEngine processEngine = ProcessEngines.getProcessEngine(engineName);
+      RuntimeService runtimeService = processEngine.getRuntimeService();
+      ProcessViewService processViewService = createProcessViewService(uriInfo, processEngine);
+      String activeProcessView = getActiveOrInitialProcessView(runtimeService, processViewService, processInstanceId,
+          false);
+
+      // complete value of a variable whose preview was truncated
+      VariableValueDto dto = new ViewVariableService(runtimeService)
+          .getVisibleVariable(processInstanceId, activeProcessView, variableName);
+      if (dto == null) {
+        return Response.status(404).build();
+      }
+      return Response.ok(dto).cacheControl(ViewEntityTags.revalidate()).build();
+    });
   }
 
   @POST
   @Path("{engineName}/process-instance/{processInstanceId}/change-view")
   public Response switchToNextProcessView(@Context UriInfo uriInfo, @PathParam("engineName") String engineName,
       @PathParam("processInstanceId") String processInstanceId) throws IOException {
-    // workaround to access the Camunda REST API, as the Java API does not provide
-    // all required details
-    String baseUrl = "http://" + uriInfo.getAbsolutePath().getHost() + ":" + uriInfo.getAbsolutePath().getPort();
-    System.out.println("Received request for host and port: " + baseUrl);
-
-    // get runtime service to access variables of process instances
-    ProcessEngine processEngine = ProcessEngines.getProcessEngine(engineName);
-    RuntimeService runtimeService = processEngine.getRuntimeService();
+    return CHANGE_VIEW_TIMER.time(() -> {
+      // get runtime service to access variables of process instances
+      ProcessEngine processEngine = ProcessEngines.getProcessEngine(engineName);
+      RuntimeService runtimeService = processEngine.getRuntimeService();
 
-    // get variable storing the active process view
-    Object activeProcessViewVariable = runtimeService.getVariable(processInstanceId,
-        "process-view-extension-active-view");
-    if (Objects.isNull(activeProcessViewVariable)) {
-      return Response.status(404).build();
-    }
+      // get variable storing the active process view
+      Object activeProcessViewVariable = runtimeService.getVariable(processInstanceId,
+          "process-view-extension-active-view");
+      if (Objects.isNull(activeProcessViewVariable)) {
+        return Response.status(404).build();
+      }
 
-    String activeProcessView = activeProcessViewVariable.toString();
+      String activeProcessView = activeProcessViewVariable.toString();
 
-    // get name of next view
-    ProcessViewService processViewService = new ProcessViewService();
-    String newProcessView = processViewService.getNextProcessView(processInstanceId, activeProcessView, baseUrl);
-    runtimeService.setVariable(processInstanceId, "process-view-extension-active-view", newProcessView);
-    System.out.println("New active process view has name: " + newProcessView);
-    return Response.ok().build();
+      // get name of next view
+      ProcessViewService processViewService = createProcessViewService(uriInfo, processEngine);
+      String newProcessView = processViewService.getNextProcessView(processInstanceId, activeProcessView);
+      runtimeService.setVariable(processInstanceId, "process-view-extension-active-view", newProcessView);
+      System.out.println("New active process view has name: " + newProcessView);
+      return Response.ok().build();
+    });
   }
 
   @POST
@@ -115,34 +458,20 @@ public class ProcessViewPluginRootResource extends AbstractPluginRootResource {
   public Response getSpecifiedProcessView(@Context UriInfo uriInfo, @PathParam("engineName") String engineName,
       @PathParam("processInstanceId") String processInstanceId, @PathParam("viewName") String viewName)
       throws IOException {
+    return SELECT_VIEW_TIMER.time(() -> {
+      // get runtime service to access variables of process instances
+      ProcessEngine processEngine = ProcessEngines.getProcessEngine(engineName);
+      RuntimeService runtimeService = processEngine.getRuntimeService();
 
-    // workaround to access the Camunda REST API, as the Java API does not provide
-    // all required details
-    String baseUrl = "http://" + uriInfo.getAbsolutePath().getHost() + ":" + uriInfo.getAbsolutePath().getPort();
-    System.out.println("Received request for host and port for specific view: " + baseUrl);
-
-    // get runtime service to access variables of process instances
-    ProcessEngine processEngine = ProcessEngines.getProcessEngine(engineName);
-    RuntimeService runtimeService = processEngine.getRuntimeService();
-
-    // get variable storing the active process view
-    ProcessViewService processViewService = new ProcessViewService();
-    Object activeProcessViewVariable = runtimeService.getVariable(processInstanceId,
-        "process-view-extension-active-view");
-    String activeProcessView;
-    if (Objects.isNull(activeProcessViewVariable)) {
-      System.out.println("Adding default value as active process view is currently not set!");
-
-      // set original workflow as initial view if not yet set
-      activeProcessView = processViewService.findInitialViewName(processInstanceId, baseUrl);
-      runtimeService.setVariable(processInstanceId, "process-view-extension-active-view", activeProcessView);
-    } else {
-      activeProcessView = activeProcessViewVariable.toString();
-    }
-    String newProcessView = processViewService.getProcessView(processInstanceId, activeProcessView, viewName, baseUrl);
-    runtimeService.setVariable(processInstanceId, "process-view-extension-active-view", newProcessView);
-    System.out.println("New active process view has name: " + newProcessView);
-    return Response.ok().build();
+      // get variable storing the active process view, setting the original workflow as initial view if not yet set
+      ProcessViewService processViewService = createProcessViewService(uriInfo, processEngine);
+      String activeProcessView = getActiveOrInitialProcessView(runtimeService, processViewService,
+          processInstanceId, true);
+      String newProcessView = processViewService.getProcessView(processInstanceId, activeProcessView, viewName);
+      runtimeService.setVariable(processInstanceId, "process-view-extension-active-view", newProcessView);
+      System.out.println("New active process view has name: " + newProcessView);
+      return Response.ok().build();
+    });
   }
 
   @POST
@@ -150,26 +479,78 @@ public class ProcessViewPluginRootResource extends AbstractPluginRootResource {
   public Response switchToProcessView(@Context UriInfo uriInfo, @PathParam("engineName") String engineName,
       @PathParam("processInstanceId") String processInstanceId,
       @PathParam("viewId") String viewId) throws IOException {
+    return CHANGE_VIEW_BY_ID_TIMER.time(() -> {
+      // get runtime service to access variables of process instances
+      ProcessEngine processEngine = ProcessEngines.getProcessEngine(engineName);
+      RuntimeService runtimeService = processEngine.getRuntimeService();
 
-    // workaround to access the Camunda REST API, as the Java API does not provide
-    // all required details
-    String baseUrl = "http://" + uriInfo.getAbsolutePath().getHost() + ":" + uriInfo.getAbsolutePath().getPort();
-    System.out.println("Received request for host and port: " + baseUrl);
+      // get variable storing the active process view
+      Object activeProcessViewVariable = runtimeService.getVariable(processInstanceId,
+          "process-view-extension-active-view");
+      if (Objects.isNull(activeProcessViewVariable)) {
+        return Response.status(404).build();
+      }
 
-    // get runtime service to access variables of process instances
-    ProcessEngine processEngine = ProcessEngines.getProcessEngine(engineName);
-    RuntimeService runtimeService = processEngine.getRuntimeService();
+      runtimeService.setVariable(processInstanceId, "process-view-extension-active-view", viewId);
+      return Response.ok().build();
+    });
+  }
 
-    // get variable storing the active process view
+  private static ActivityInstanceDto toActivityInstanceDto(ActivityInstance activityInstance) {
+    ActivityInstanceDto dto = new ActivityInstanceDto();
+    dto.setId(activityInstance.getId());
+    dto.setParentActivityInstanceId(activityInstance.getParentActivityInstanceId());
+    dto.setActivityId(activityInstance.getActivityId());
+    dto.setActivityType(activityInstance.getActivityType());
+    dto.setActivityName(activityInstance.getActivityName());
+    List<ActivityInstanceDto> childActivityInstances = new ArrayList<>();
+    for (ActivityInstance childActivityInstance : activityInstance.getChildActivityInstances()) {
+      childActivityInstances.add(toActivityInstanceDto(childActivityInstance));
+    }
+    dto.setChildActivityInstances(childActivityInstances);
+    List<TransitionInstanceDto> childTransitionInstances = new ArrayList<>();
+    for (TransitionInstance transitionInstance : activityInstance.getChildTransitionInstances()) {
+      TransitionInstanceDto transitionInstanceDto = new TransitionInstanceDto();
+      transitionInstanceDto.setId(transitionInstance.getId());
+      transitionInstanceDto.setParentActivityInstanceId(transitionInstance.getParentActivityInstanceId());
+      transitionInstanceDto.setActivityId(transitionInstance.getActivityId());
+      transitionInstanceDto.setActivityType(transitionInstance.getActivityType());
+      transitionInstanceDto.setActivityName(transitionInstance.getActivityName());
+      transitionInstanceDto.setExecutionId(transitionInstance.getExecutionId());
+      childTransitionInstances.add(transitionInstanceDto);
+    }
+    dto.setChildTransitionInstances(childTransitionInstances);
+    return dto;
+  }
+
+  /**
+   * Get the active view of the given process instance, falling back to the initial view if it is not set yet
+   *
+   * @param initialize true to store the initial view as active view of the process instance if it is not set yet,
+   *                   false if the process instance must not be modified
+   */
+  private static String getActiveOrInitialProcessView(RuntimeService runtimeService,
+      ProcessViewService processViewService, String processInstanceId, boolean initialize) throws IOException {
     Object activeProcessViewVariable = runtimeService.getVariable(processInstanceId,
         "process-view-extension-active-view");
-    if (Objects.isNull(activeProcessViewVariable)) {
-      return Response.status(404).build();
+    if (Objects.nonNull(activeProcessViewVariable)) {
+      return activeProcessViewVariable.toString();
+    }
+    String initialProcessView = processViewService.findInitialViewName(processInstanceId);
+    if (initialize) {
+      System.out.println("Adding default value as active process view is currently not set!");
+      runtimeService.setVariable(processInstanceId, "process-view-extension-active-view", initialProcessView);
     }
-    String activeProcessView = activeProcessViewVariable.toString();
+    return initialProcessView;
+  }
 
-    ProcessViewService processViewService = new ProcessViewService();
-    runtimeService.setVariable(processInstanceId, "process-view-extension-active-view", viewId);
-    return Response.ok().build();
+  /**
+   * Create the service to resolve process views, which uses the Java API of the
+   * given process engine and only falls back to the Camunda REST API of this host
+   */
+  private ProcessViewService createProcessViewService(UriInfo uriInfo, ProcessEngine processEngine) {
+    // the REST API is accessed via the host and port the request was received at
+    String baseUrl = "http://" + uriInfo.getAbsolutePath().getHost() + ":" + uriInfo.getAbsolutePath().getPort();
+    return ProcessViewService.forProcessEngine(processEngine, baseUrl);
   }
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.resources;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.EntityTag;
+
+/**
+ * Entity tags and cache directives for the process view endpoints
+ */
+final class ViewEntityTags {
+
+    private static final int ONE_YEAR_IN_SECONDS = 365 * 24 * 60 * 60;
+
+    private ViewEntityTags() {
+    }
+
+    /**
+     * Create the strong entity tag of the XML of a view, which never changes as deployment resources are immutable
+     *
+     * The tag is derived from the key of the view XML comprising the process engine and the creation time of the
+     * deployment, as clients never revalidate it and deployment IDs are neither unique across engines nor after the
+     * database of an engine was reset.
+     *
+     * @param viewXmlKey      the key of the view XML provided by the process view service
+     * @param contentEncoding the content encoding of the representation or null if it is uncompressed
+     * @return the entity tag of the XML representation
+     */
+    static EntityTag forViewXml(String viewXmlKey, String contentEncoding) {
+        String value = hash(viewXmlKey);
+        return new EntityTag(contentEncoding == null ? value : value + "-" + contentEncoding);
+    }
+
+    /**
+     * Check whether the given entity tag, as sent by a client in any of its forms, denotes the XML of a view
+     *
+     * @param viewXmlKey the key of the view XML provided by the process view service
+     * @param entityTag  the entity tag, optionally quoted, weak, or including the content encoding
+     * @return true if the entity tag was created for the XML of the referenced view
+     */
+    static boolean matchesViewXml(String viewXmlKey, String entityTag) {
+        String value = entityTag.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        value = value.replace("\"", "");
+        int encodingSeparator = value.indexOf('-');
+        if (encodingSeparator != -1) {
+            value = value.substring(0, encodingSeparator);
+        }
+        return value.equals(forViewXml(viewXmlKey, null).getValue());
+    }
+
+    /**
+     * Create the weak entity tag of the active view of a process instance, which only changes if another view is
+     * activated
+     *
+     * @param activeProcessView the value of the variable storing the active view
+     * @param viewXmlKey        the key of the XML of the active view provided by the process view service
+     * @return the entity tag of the active view
+     */
+    static EntityTag forActiveView(String activeProcessView, String viewXmlKey) {
+        return new EntityTag(hash(activeProcessView + "@" + viewXmlKey), true);
+    }
+
+    /**
+     * Create the weak entity tag of the view bundle of a process instance, which changes if another view is activated
+     * or the runtime state of the process instance changes
+     *
+     * @param activeProcessView the name of the active view
+     * @param viewXmlETag       the value of the entity tag of the XML of the active view
+     * @param runtimeState      the serialized activity instances and variables contained in the bundle
+     * @return the entity tag of the view bundle
+     */
+    static EntityTag forViewBundle(String activeProcessView, String viewXmlETag, String runtimeState) {
+        return new EntityTag(hash(activeProcessView + "@" + viewXmlETag + "#" + runtimeState), true);
+    }
+
+    /**
+     * @return the cache directives for immutable representations, which can be cached by the browser indefinitely
+     */
+    static CacheControl immutable() {
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setPrivate(true);
+        cacheControl.setMaxAge(ONE_YEAR_IN_SECONDS);
+        cacheControl.getCacheExtension().put("immutable", null);
+        return cacheControl;
+    }
+
+    /**
+     * @return the cache directives for representations that have to be revalidated before they are reused
+     */
+    static CacheControl revalidate() {
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setPrivate(true);
+        cacheControl.setNoCache(true);
+        return cacheControl;
+    }
+
+    private static String hash(String value) {
+        return UUID.nameUUIDFromBytes(value.getBytes(StandardCharsets.UTF_8)).toString().replace("-", "");
+    }
+}
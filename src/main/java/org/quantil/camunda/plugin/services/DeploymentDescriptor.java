@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.camunda.bpm.model.bpmn.instance.ServiceTask;
+import org.camunda.bpm.model.bpmn.instance.SubProcess;
+import org.camunda.bpm.model.xml.ModelInstance;
+import org.camunda.bpm.model.xml.instance.ModelElementInstance;
+
+/**
+ * Immutable description of an element of a workflow that deploys a service using OpenTOSCA, as annotated in the
+ * BPMN model of the workflow
+ */
+public class DeploymentDescriptor {
+
+    public static final String OPENTOSCA_NS = "https://github.com/UST-QuAntiL/OpenTOSCA";
+
+    private final String elementId;
+
+    private final String deploymentModelUrl;
+
+    private final String buildPlanInstanceUrl;
+
+    private final boolean onDemandDeployment;
+
+    public DeploymentDescriptor(String elementId, String deploymentModelUrl, String buildPlanInstanceUrl,
+            boolean onDemandDeployment) {
+        this.elementId = elementId;
+        this.deploymentModelUrl = deploymentModelUrl;
+        this.buildPlanInstanceUrl = buildPlanInstanceUrl;
+        this.onDemandDeployment = onDemandDeployment;
+    }
+
+    /**
+     * Collect the descriptors of all deployments annotated in the given BPMN model
+     *
+     * @param modelInstance the BPMN model of a process definition
+     * @return the descriptors of the service tasks followed by those of the on-demand deployment subprocesses
+     */
+    public static List<DeploymentDescriptor> fromModel(ModelInstance modelInstance) {
+        List<DeploymentDescriptor> descriptors = new ArrayList<>();
+        for (ServiceTask serviceTask : modelInstance.getModelElementsByType(ServiceTask.class)) {
+            // Ignore on demand deployment
+            ModelElementInstance parentElement = serviceTask.getParentElement();
+            if (parentElement instanceof SubProcess
+                    && "true".equals(parentElement.getAttributeValueNs(OPENTOSCA_NS, "onDemandDeployment"))) {
+                continue;
+            }
+            String deploymentModelUrl = serviceTask.getAttributeValueNs(OPENTOSCA_NS, "deploymentModelUrl");
+            String buildPlanInstanceUrl = serviceTask.getAttributeValueNs(OPENTOSCA_NS,
+                    "deploymentBuildPlanInstanceUrl");
+            if (deploymentModelUrl != null && buildPlanInstanceUrl != null) {
+                descriptors.add(new DeploymentDescriptor(serviceTask.getId(), deploymentModelUrl,
+                        buildPlanInstanceUrl, false));
+            }
+        }
+        for (SubProcess subProcess : modelInstance.getModelElementsByType(SubProcess.class)) {
+            if ("true".equals(subProcess.getAttributeValueNs(OPENTOSCA_NS, "onDemandDeployment"))) {
+                descriptors.add(new DeploymentDescriptor(subProcess.getId(),
+                        subProcess.getAttributeValueNs(OPENTOSCA_NS, "deploymentModelUrl"),
+                        subProcess.getAttributeValueNs(OPENTOSCA_NS, "deploymentBuildPlanInstanceUrl"), true));
+            }
+        }
+        return Collections.unmodifiableList(descriptors);
+    }
+
+    public String getElementId() {
+        return elementId;
+    }
+
+    public String getDeploymentModelUrl() {
+        return deploymentModelUrl;
+    }
+
+    /**
+     * @return the URL of the build plan instance annotated in the model, which is overridden by a variable of the
+     *         process instance for on-demand deployments
+     */
+    public String getBuildPlanInstanceUrl() {
+        return buildPlanInstanceUrl;
+    }
+
+    public boolean isOnDemandDeployment() {
+        return onDemandDeployment;
+    }
+}
@@ -0,0 +1,373 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import org.quantil.camunda.plugin.PluginConfiguration;
+import org.quantil.camunda.plugin.cache.LruCache;
+import org.quantil.camunda.plugin.client.OpenToscaClient;
+import org.quantil.camunda.plugin.client.OpenToscaUnavailableException;
+import org.quantil.camunda.plugin.client.model.BuildPlanInstance;
+import org.quantil.camunda.plugin.client.model.LogEntry;
+import org.quantil.camunda.plugin.client.model.Resource;
+import org.quantil.camunda.plugin.client.model.ServiceTemplateInstance;
+import org.quantil.camunda.plugin.dto.DeploymentInformation;
+import org.quantil.camunda.plugin.metrics.PluginMetrics;
+
+/**
+ * Service retrieving the state of the deployments performed by a workflow from OpenTOSCA
+ *
+ * The deployments are fetched concurrently using an executor shared by all requests, which is bounded in its number
+ * of threads and queued tasks, so that the requests to OpenTOSCA do not grow with the number of users of Cockpit.
+ * Deployments whose OpenTOSCA host is unavailable according to its circuit breaker, or whose fetch is rejected as the
+ * queue is full, are reported with state UNAVAILABLE without occupying a thread.
+ */
+public class DeploymentInformationService {
+
+    public static final String STATE_UNAVAILABLE = "UNAVAILABLE";
+
+    public static final String STATE_TIMEOUT = "TIMEOUT";
+
+    private static final ThreadPoolExecutor FETCH_EXECUTOR = createFetchExecutor();
+
+    // process definitions can not be changed after their deployment, thus, their descriptors are shared by all requests
+    private static final LruCache<String, List<DeploymentDescriptor>> DESCRIPTOR_CACHE = PluginMetrics.registerCache(
+            new LruCache<>("deployment-descriptor", PluginConfiguration.getDeploymentDescriptorCacheSize()));
+
+    static {
+        PluginMetrics.registerGauge("process_views_opentosca_fetch_threads_active",
+                "Number of threads currently fetching deployment information", FETCH_EXECUTOR::getActiveCount);
+        PluginMetrics.registerGauge("process_views_opentosca_fetch_queue_size",
+                "Number of fetches of deployment information waiting for a thread",
+                () -> FETCH_EXECUTOR.getQueue().size());
+    }
+
+    private final OpenToscaClient openToscaClient;
+
+    public DeploymentInformationService(OpenToscaClient openToscaClient) {
+        this.openToscaClient = openToscaClient;
+    }
+
+    /**
+     * Get the descriptors of the deployments annotated in the BPMN model of the given process definition, using the
+     * cached descriptors if available
+     *
+     * @param processEngine       the process engine the process definition belongs to
+     * @param processDefinitionId the ID of the process definition
+     * @return the immutable list of deployment descriptors
+     */
+    public static List<DeploymentDescriptor> getDeploymentDescriptors(ProcessEngine processEngine,
+            String processDefinitionId) {
+        List<DeploymentDescriptor> descriptors = DESCRIPTOR_CACHE.get(processDefinitionId);
+        if (descriptors != null) {
+            return descriptors;
+        }
+
+        descriptors = DeploymentDescriptor.fromModel(
+                processEngine.getRepositoryService().getBpmnModelInstance(processDefinitionId));
+        DESCRIPTOR_CACHE.put(processDefinitionId, descriptors);
+        System.out.println("Added " + descriptors.size() + " deployment descriptors for process definition "
+                + processDefinitionId + ": " + DESCRIPTOR_CACHE);
+        return descriptors;
+    }
+
+    /**
+     * @return the cache holding the deployment descriptors of the process definitions
+     */
+    public static LruCache<String, List<DeploymentDescriptor>> getDescriptorCache() {
+        return DESCRIPTOR_CACHE;
+    }
+
+    /**
+     * Retrieve the deployment information including all log entries for the given deployment targets concurrently
+     *
+     * @see #fetchDeploymentInformation(List, LogSelection, long)
+     */
+    public List<DeploymentInformation> fetchDeploymentInformation(List<DeploymentTarget> targets,
+            long deadlineMillis) {
+        return fetchDeploymentInformation(targets, LogSelection.all(), deadlineMillis);
+    }
+
+    /**
+     * Retrieve the deployment information for the given deployment targets concurrently
+     *
+     * @param targets        the deployment targets to retrieve the information for
+     * @param logSelection   the selection of the log entries to return
+     * @param deadlineMillis the time in milliseconds after which the retrieval is aborted
+     * @return the deployment information in the order of the given targets, containing partial information with
+     *         state TIMEOUT for all requests that did not complete before the deadline, with state UNAVAILABLE for
+     *         all requests rejected by the circuit breaker or bulkhead of the OpenTOSCA host, and no entry for targets
+     *         whose information could not be retrieved otherwise
+     */
+    public List<DeploymentInformation> fetchDeploymentInformation(List<DeploymentTarget> targets,
+            LogSelection logSelection, long deadlineMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+
+        // start retrieval of all deployments before waiting for the first one
+        List<PendingDeployment> pendingDeployments = new ArrayList<>();
+        for (DeploymentTarget target : targets) {
+            try {
+                pendingDeployments.add(submit(target, logSelection));
+            } catch (RuntimeException e) {
+                System.err.println("Could not retrieve deployment information for " + target.getDeploymentModelUrl());
+                e.printStackTrace();
+            }
+        }
+
+        List<DeploymentInformation> deploymentInformation = new ArrayList<>();
+        for (PendingDeployment pendingDeployment : pendingDeployments) {
+            DeploymentInformation information = pendingDeployment.await(deadline);
+            if (information != null) {
+                deploymentInformation.add(information);
+            }
+        }
+        return deploymentInformation;
+    }
+
+    /**
+     * Get the deployment information of targets that can not be retrieved from OpenTOSCA, e.g., as they are not
+     * deployed yet, without performing any request
+     *
+     * @param targets the targets to get the deployment information for
+     * @return the deployment information with state UNAVAILABLE in the order of the given targets
+     */
+    public static List<DeploymentInformation> getUnavailableDeploymentInformation(List<DeploymentTarget> targets) {
+        List<DeploymentInformation> deploymentInformation = new ArrayList<>();
+        for (DeploymentTarget target : targets) {
+            try {
+                deploymentInformation.add(createUnavailableDeploymentInformation(target.getElementId(),
+                        extractCsarNameFromDeploymentModelUrl(target.getDeploymentModelUrl())));
+            } catch (RuntimeException e) {
+                System.err.println("Could not retrieve deployment information for " + target.getDeploymentModelUrl());
+                e.printStackTrace();
+            }
+        }
+        return deploymentInformation;
+    }
+
+    private PendingDeployment submit(DeploymentTarget target, LogSelection logSelection) {
+        String csarName = extractCsarNameFromDeploymentModelUrl(target.getDeploymentModelUrl());
+        // fall back immediately if OpenTOSCA is known to be unavailable instead of blocking a thread
+        if (target.getBuildPlanInstanceUrl() == null || !openToscaClient.isAvailable(target.getBuildPlanInstanceUrl())) {
+            return unavailable(target, csarName);
+        }
+
+        // the service template instance is linked by the build plan instance, thus, it can only be fetched afterwards
+        CompletableFuture<BuildPlanInstance> buildPlanInstance;
+        try {
+            buildPlanInstance = CompletableFuture.supplyAsync(
+                    () -> fetch(target.getBuildPlanInstanceUrl(), BuildPlanInstance.class), FETCH_EXECUTOR);
+        } catch (RejectedExecutionException e) {
+            System.err.println("Too many pending requests to OpenTOSCA, skipping " + target.getDeploymentModelUrl());
+            return unavailable(target, csarName);
+        }
+        CompletableFuture<DeploymentInformation> buildPlanInformation = buildPlanInstance
+                .thenApply(instance -> toDeploymentInformation(target.getElementId(), csarName, instance,
+                        logSelection));
+        CompletableFuture<DeploymentInformation> completeInformation = buildPlanInstance
+                .thenCombineAsync(buildPlanInformation, (instance, information) -> {
+                    Resource.Link instanceLink = instance.getLinks().get("service_template_instance");
+                    if (instanceLink == null) {
+                        return information;
+                    }
+                    ServiceTemplateInstance serviceTemplateInstance = fetch(instanceLink.getHref(),
+                            ServiceTemplateInstance.class);
+                    DeploymentInformation result = copy(information);
+                    result.setInstanceState(serviceTemplateInstance.getState());
+                    result.setInstanceCreatedAt(new Date(serviceTemplateInstance.getCreatedAt()));
+                    return result;
+                }, FETCH_EXECUTOR);
+        return new PendingDeployment(target, csarName, buildPlanInformation, completeInformation);
+    }
+
+    private static PendingDeployment unavailable(DeploymentTarget target, String csarName) {
+        DeploymentInformation deploymentInformation = createUnavailableDeploymentInformation(target.getElementId(),
+                csarName);
+        return new PendingDeployment(target, csarName, CompletableFuture.completedFuture(deploymentInformation),
+                CompletableFuture.completedFuture(deploymentInformation));
+    }
+
+    private <T> T fetch(String url, Class<T> clazz) {
+        try {
+            return openToscaClient.fetch(url, clazz);
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to fetch " + url, e);
+        }
+    }
+
+    private static DeploymentInformation toDeploymentInformation(String elementId, String csarName,
+            BuildPlanInstance buildPlanInstance, LogSelection logSelection) {
+        DeploymentInformation deploymentInformation = createDeploymentInformation(elementId, csarName);
+        deploymentInformation.setBuildPlanState(buildPlanInstance.getState());
+
+        // only the selected log entries are converted, as build plans of long deployments have thousands of entries
+        List<LogEntry> logs = buildPlanInstance.getLogs();
+        logSelection.apply(deploymentInformation, logs == null ? Collections.emptyList() : logs,
+                buildPlanInstance.getLogsOffset());
+        return deploymentInformation;
+    }
+
+    private static DeploymentInformation createUnavailableDeploymentInformation(String elementId, String csarName) {
+        DeploymentInformation deploymentInformation = createDeploymentInformation(elementId, csarName);
+        deploymentInformation.setBuildPlanState(STATE_UNAVAILABLE);
+        deploymentInformation.setInstanceState(STATE_UNAVAILABLE);
+        return deploymentInformation;
+    }
+
+    private static DeploymentInformation createDeploymentInformation(String elementId, String csarName) {
+        DeploymentInformation deploymentInformation = new DeploymentInformation();
+        deploymentInformation.setElementId(elementId);
+        deploymentInformation.setCsarName(csarName);
+        deploymentInformation.setLogs(Collections.emptyList());
+        return deploymentInformation;
+    }
+
+    static DeploymentInformation copy(DeploymentInformation information) {
+        DeploymentInformation copy = createDeploymentInformation(information.getElementId(), information.getCsarName());
+        copy.setBuildPlanState(information.getBuildPlanState());
+        copy.setInstanceState(information.getInstanceState());
+        copy.setInstanceCreatedAt(information.getInstanceCreatedAt());
+        copy.setLogs(information.getLogs());
+        copy.setLogOffset(information.getLogOffset());
+        copy.setNextLogCursor(information.getNextLogCursor());
+        copy.setHasMoreLogs(information.isHasMoreLogs());
+        copy.setDroppedLogCount(information.getDroppedLogCount());
+        return copy;
+    }
+
+    static String extractCsarNameFromDeploymentModelUrl(String deploymentModelUrl) {
+        String[] deploymentModelUrlParts = deploymentModelUrl.split("/");
+        if (deploymentModelUrlParts.length < 5) {
+            throw new IllegalArgumentException("Not a deployment model url");
+        }
+        return deploymentModelUrlParts[deploymentModelUrlParts.length - 2];
+    }
+
+    private static ThreadPoolExecutor createFetchExecutor() {
+        int threads = Math.max(1, PluginConfiguration.getOpenToscaFetchThreads());
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "opentosca-fetch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        // if the queue is full, fetches are rejected and reported as unavailable instead of blocking request threads
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(PluginConfiguration.getOpenToscaFetchQueueSize()), threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Stop the threads fetching deployment information, which is called when the plugins are undeployed
+     */
+    public static void shutdown() {
+        FETCH_EXECUTOR.shutdownNow();
+    }
+
+    /**
+     * Deployment whose information is currently retrieved
+     */
+    private static class PendingDeployment {
+
+        private final DeploymentTarget target;
+
+        private final String csarName;
+
+        private final CompletableFuture<DeploymentInformation> buildPlanInformation;
+
+        private final CompletableFuture<DeploymentInformation> completeInformation;
+
+        PendingDeployment(DeploymentTarget target, String csarName,
+                CompletableFuture<DeploymentInformation> buildPlanInformation,
+                CompletableFuture<DeploymentInformation> completeInformation) {
+            this.target = target;
+            this.csarName = csarName;
+            this.buildPlanInformation = buildPlanInformation;
+            this.completeInformation = completeInformation;
+        }
+
+        DeploymentInformation await(long deadline) {
+            try {
+                return completeInformation.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                completeInformation.cancel(true);
+                return timedOut();
+            } catch (ExecutionException e) {
+                if (isUnavailable(e.getCause())) {
+                    return unavailable();
+                }
+                System.err.println("Could not retrieve deployment information for " + target.getDeploymentModelUrl());
+                e.getCause().printStackTrace();
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return timedOut();
+            }
+        }
+
+        private DeploymentInformation unavailable() {
+            // return the state of the build plan if it was retrieved before the service template instance was rejected
+            DeploymentInformation information;
+            if (buildPlanInformation.isDone() && !buildPlanInformation.isCompletedExceptionally()) {
+                information = copy(buildPlanInformation.join());
+            } else {
+                information = createDeploymentInformation(target.getElementId(), csarName);
+                information.setBuildPlanState(STATE_UNAVAILABLE);
+            }
+            information.setInstanceState(STATE_UNAVAILABLE);
+            return information;
+        }
+
+        private static boolean isUnavailable(Throwable failure) {
+            for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+                if (cause instanceof OpenToscaUnavailableException || cause instanceof RejectedExecutionException) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private DeploymentInformation timedOut() {
+            System.err.println("Deadline exceeded while retrieving deployment information for "
+                    + target.getDeploymentModelUrl());
+
+            // return the state of the build plan if it was already retrieved
+            DeploymentInformation information;
+            if (buildPlanInformation.isDone() && !buildPlanInformation.isCompletedExceptionally()) {
+                information = copy(buildPlanInformation.join());
+            } else {
+                buildPlanInformation.cancel(true);
+                information = createDeploymentInformation(target.getElementId(), csarName);
+                information.setBuildPlanState(STATE_TIMEOUT);
+            }
+            information.setInstanceState(STATE_TIMEOUT);
+            return information;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Resolves the deployment of process instances and the resources contained in deployments
+ */
+public interface DeploymentResourceResolver {
+
+    /**
+     * Get the process definition and deployment the given process instance belongs to
+     *
+     * @param processInstanceId the process instance ID of the instance to get the
+     *                          deployment for
+     * @return the IDs of the process definition and deployment
+     */
+    ProcessInstanceDeployment getDeploymentForProcessInstance(String processInstanceId) throws IOException;
+
+    /**
+     * Get the process definitions and deployments the given process instances belong to
+     *
+     * @param processInstanceIds the IDs of the process instances to get the deployments for
+     * @return the IDs of the process definitions and deployments by process instance ID, not containing process
+     *         instances that do not exist
+     */
+    default Map<String, ProcessInstanceDeployment> getDeploymentsForProcessInstances(
+            Collection<String> processInstanceIds) throws IOException {
+        Map<String, ProcessInstanceDeployment> deployments = new LinkedHashMap<>();
+        for (String processInstanceId : processInstanceIds) {
+            try {
+                deployments.put(processInstanceId, getDeploymentForProcessInstance(processInstanceId));
+            } catch (NoSuchElementException e) {
+                System.out.println("Skipping unknown process instance with ID: " + processInstanceId);
+            }
+        }
+        return deployments;
+    }
+
+    /**
+     * Retrieve the names of all resources contained in the given deployment
+     *
+     * @param deploymentId the ID of the deployment to retrieve the resources for
+     * @return the map with IDs as key and names as values of contained resources
+     */
+    Map<String, String> getResourcesForDeployment(String deploymentId) throws IOException;
+
+    /**
+     * Get the time the given deployment was created, which distinguishes deployments reusing the ID of a deployment
+     * that existed before, e.g., after the database of the process engine was reset
+     *
+     * @param deploymentId the ID of the deployment to get the creation time for
+     * @return the creation time of the deployment in milliseconds since the epoch
+     */
+    long getDeploymentTime(String deploymentId) throws IOException;
+
+    /**
+     * Open the content of the given resource
+     *
+     * @param deploymentId the ID of the deployment the resource belongs to
+     * @param resourceId   the ID of the resource to retrieve the content for
+     * @return the stream providing the content of the resource, which has to be closed by the caller, or null if
+     *         the deployment does not contain the resource
+     */
+    InputStream getResourceData(String deploymentId, String resourceId) throws IOException;
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.services;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.quantil.camunda.plugin.PluginConfiguration;
+import org.quantil.camunda.plugin.client.OpenToscaClient;
+import org.quantil.camunda.plugin.dto.DeploymentInformation;
+import org.quantil.camunda.plugin.metrics.PluginMetrics;
+
+/**
+ * Poller retrieving the state of a deployment from OpenTOSCA, which is shared by all clients watching the deployment
+ *
+ * There is at most one poller per build plan instance URL, which polls OpenTOSCA as long as clients are watching the
+ * deployment and stops once no client requested updates for a while. Every change of a deployment is assigned a new
+ * version from a counter shared by all pollers, so that clients can request all changes after the version they know.
+ * The counter is local to the webapp and restarts with it, thus, versions are only comparable within the same epoch.
+ */
+public class DeploymentStatusPoller {
+
+    private static final ConcurrentMap<String, DeploymentStatusPoller> POLLERS = new ConcurrentHashMap<>();
+
+    private static final ScheduledExecutorService SCHEDULER = createScheduler();
+
+    // number of log counts remembered to send only new log entries to clients
+    private static final int LOG_COUNT_HISTORY_SIZE = 64;
+
+    // guards the versions and snapshots of all pollers, so that a version is only visible with its snapshot
+    private static final Object VERSION_LOCK = new Object();
+
+    private static long currentVersion;
+
+    // identifies the counter of the versions, which differs between Cockpit nodes and after a restart
+    private static final String EPOCH = UUID.randomUUID().toString();
+
+    static {
+        PluginMetrics.registerGauge("process_views_opentosca_pollers",
+                "Number of deployments whose state is currently polled from OpenTOSCA", POLLERS::size);
+    }
+
+    private final DeploymentTarget target;
+
+    private final DeploymentInformationService deploymentInformationService;
+
+    private volatile long lastWatched = System.currentTimeMillis();
+
+    private boolean stopped;
+
+    private ScheduledFuture<?> task;
+
+    private DeploymentInformation snapshot;
+
+    private long version;
+
+    // pairs of version and number of log entries of the snapshots, the newest last
+    private final Deque<long[]> logCounts = new ArrayDeque<>();
+
+    private CompletableFuture<Void> nextChange = new CompletableFuture<>();
+
+    private DeploymentStatusPoller(DeploymentTarget target, OpenToscaClient openToscaClient) {
+        this.target = target;
+        this.deploymentInformationService = new DeploymentInformationService(openToscaClient);
+    }
+
+    /**
+     * Get the poller for the deployment of the given target, starting a new poller if the deployment is not polled yet
+     *
+     * @param target          the deployment target with a build plan instance URL
+     * @param openToscaClient the client used if a new poller is started
+     * @return the poller for the build plan instance of the target
+     */
+    public static DeploymentStatusPoller watch(DeploymentTarget target, OpenToscaClient openToscaClient) {
+        while (true) {
+            DeploymentStatusPoller poller = POLLERS.computeIfAbsent(target.getBuildPlanInstanceUrl(), url -> {
+                DeploymentStatusPoller newPoller = new DeploymentStatusPoller(target, openToscaClient);
+                newPoller.start();
+                return newPoller;
+            });
+            synchronized (poller) {
+                if (!poller.stopped) {
+                    poller.lastWatched = System.currentTimeMillis();
+                    return poller;
+                }
+            }
+            POLLERS.remove(target.getBuildPlanInstanceUrl(), poller);
+        }
+    }
+
+    /**
+     * @return the version of the latest change of any deployment
+     */
+    public static long getCurrentVersion() {
+        synchronized (VERSION_LOCK) {
+            return currentVersion;
+        }
+    }
+
+    /**
+     * @return the epoch the versions of this webapp belong to
+     */
+    public static String getEpoch() {
+        return EPOCH;
+    }
+
+    /**
+     * @return the number of deployments currently polled
+     */
+    public static int getPollerCount() {
+        return POLLERS.size();
+    }
+
+    /**
+     * @return a future that is completed with the next change of the deployment
+     */
+    public CompletableFuture<Void> getNextChange() {
+        synchronized (VERSION_LOCK) {
+            return nextChange;
+        }
+    }
+
+    /**
+     * @return true if the state of the deployment was already retrieved
+     */
+    public boolean hasSnapshot() {
+        synchronized (VERSION_LOCK) {
+            return snapshot != null;
+        }
+    }
+
+    /**
+     * Get the state of the deployment if it changed after the given version
+     *
+     * @param since         the version of the deployment states known by the client
+     * @param watchedTarget the deployment target watched by the client
+     * @return the state of the deployment for the watched target, only containing the log entries added after the
+     *         given version, or null if the deployment did not change
+     */
+    public DeploymentInformation getChangesSince(long since, DeploymentTarget watchedTarget) {
+        DeploymentInformation changes;
+        int logOffset = 0;
+        synchronized (VERSION_LOCK) {
+            if (snapshot == null || version <= since) {
+                return null;
+            }
+            changes = DeploymentInformationService.copy(snapshot);
+            for (Iterator<long[]> iterator = logCounts.descendingIterator(); iterator.hasNext(); ) {
+                long[] logCount = iterator.next();
+                if (logCount[0] <= since) {
+                    logOffset = (int) logCount[1];
+                    break;
+                }
+            }
+        }
+
+        // the snapshot may only contain the latest log entries, starting at its log offset, thus, the entries the
+        // client did not receive before they were dropped are reported
+        List<DeploymentInformation.LogEntry> logs = changes.getLogs();
+        int logCount = getLogCount(changes);
+        changes.setDroppedLogCount(Math.max(0, changes.getLogOffset() - logOffset));
+        logOffset = Math.min(Math.max(logOffset, changes.getLogOffset()), logCount);
+        changes.setElementId(watchedTarget.getElementId());
+        changes.setCsarName(
+                DeploymentInformationService.extractCsarNameFromDeploymentModelUrl(watchedTarget.getDeploymentModelUrl()));
+        changes.setLogs(logs.subList(logOffset - changes.getLogOffset(), logs.size()));
+        changes.setLogOffset(logOffset);
+        changes.setNextLogCursor(watchedTarget.getElementId() + ":" + logCount);
+        changes.setHasMoreLogs(false);
+        return changes;
+    }
+
+    private void start() {
+        long interval = Math.max(100, PluginConfiguration.getOpenToscaPollIntervalMillis());
+        synchronized (this) {
+            task = SCHEDULER.scheduleWithFixedDelay(this::poll, 0, interval, TimeUnit.MILLISECONDS);
+        }
+        System.out.println("Started polling deployment state of " + target.getBuildPlanInstanceUrl());
+    }
+
+    private void poll() {
+        try {
+            synchronized (this) {
+                if (System.currentTimeMillis() - lastWatched > PluginConfiguration.getOpenToscaPollerIdleTimeoutMillis()) {
+                    stopped = true;
+                    task.cancel(false);
+                    POLLERS.remove(target.getBuildPlanInstanceUrl(), this);
+                    System.out.println("Stopped polling deployment state of " + target.getBuildPlanInstanceUrl());
+                    return;
+                }
+            }
+
+            List<DeploymentInformation> deploymentInformation = deploymentInformationService.fetchDeploymentInformation(
+                    Collections.singletonList(target), PluginConfiguration.getOpenToscaRequestDeadlineMillis());
+
+            // keep the previous state if the deployment could not be retrieved, but report an unavailable OpenTOSCA
+            // initially, so that watching clients do not wait for the first state until their deadline
+            if (deploymentInformation.isEmpty()
+                    || DeploymentInformationService.STATE_TIMEOUT.equals(deploymentInformation.get(0).getInstanceState())
+                    || (DeploymentInformationService.STATE_UNAVAILABLE.equals(deploymentInformation.get(0).getInstanceState())
+                    && hasSnapshot())) {
+                return;
+            }
+            publish(deploymentInformation.get(0));
+        } catch (RuntimeException e) {
+            System.err.println("Could not poll deployment state of " + target.getBuildPlanInstanceUrl());
+            e.printStackTrace();
+        }
+    }
+
+    private void publish(DeploymentInformation deploymentInformation) {
+        CompletableFuture<Void> changed;
+        synchronized (VERSION_LOCK) {
+            if (snapshot != null && !hasChanged(snapshot, deploymentInformation)) {
+                return;
+            }
+            version = ++currentVersion;
+            snapshot = deploymentInformation;
+            logCounts.addLast(new long[] { version, getLogCount(deploymentInformation) });
+            if (logCounts.size() > LOG_COUNT_HISTORY_SIZE) {
+                logCounts.removeFirst();
+            }
+            changed = nextChange;
+            nextChange = new CompletableFuture<>();
+        }
+        changed.complete(null);
+    }
+
+    private static boolean hasChanged(DeploymentInformation previous, DeploymentInformation current) {
+        return !Objects.equals(previous.getBuildPlanState(), current.getBuildPlanState())
+                || !Objects.equals(previous.getInstanceState(), current.getInstanceState())
+                || !Objects.equals(previous.getInstanceCreatedAt(), current.getInstanceCreatedAt())
+                || getLogCount(previous) != getLogCount(current);
+    }
+
+    private static int getLogCount(DeploymentInformation deploymentInformation) {
+        return deploymentInformation.getLogOffset() + deploymentInformation.getLogs().size();
+    }
+
+    private static ScheduledExecutorService createScheduler() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(
+                Math.max(1, PluginConfiguration.getOpenToscaPollThreads()), runnable -> {
+                    Thread thread = new Thread(runnable, "opentosca-poll-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    /**
+     * Stop all pollers, which is called when the plugins are undeployed
+     */
+    public static void shutdown() {
+        SCHEDULER.shutdownNow();
+        POLLERS.clear();
+    }
+}
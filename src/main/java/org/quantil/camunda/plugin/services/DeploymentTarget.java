@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.services;
+
+/**
+ * Element of a workflow that deploys a service using OpenTOSCA, i.e., a service task or an on-demand deployment
+ * subprocess, together with the URLs required to retrieve the state of its deployment
+ */
+public class DeploymentTarget {
+
+    private final String elementId;
+
+    private final String deploymentModelUrl;
+
+    private final String buildPlanInstanceUrl;
+
+    public DeploymentTarget(String elementId, String deploymentModelUrl, String buildPlanInstanceUrl) {
+        this.elementId = elementId;
+        this.deploymentModelUrl = deploymentModelUrl;
+        this.buildPlanInstanceUrl = buildPlanInstanceUrl;
+    }
+
+    public String getElementId() {
+        return elementId;
+    }
+
+    public String getDeploymentModelUrl() {
+        return deploymentModelUrl;
+    }
+
+    public String getBuildPlanInstanceUrl() {
+        return buildPlanInstanceUrl;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.services;
+
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.repository.Deployment;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
+import org.camunda.bpm.engine.repository.Resource;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+
+/**
+ * Resolves deployments and their resources using the Java API of the process engine the plugin is running in
+ */
+public class EngineDeploymentResourceResolver implements DeploymentResourceResolver {
+
+    private final ProcessEngine processEngine;
+
+    public EngineDeploymentResourceResolver(ProcessEngine processEngine) {
+        this.processEngine = processEngine;
+    }
+
+    @Override
+    public ProcessInstanceDeployment getDeploymentForProcessInstance(String processInstanceId) {
+        System.out.println("Retrieving process instance details from engine: " + processEngine.getName());
+
+        // get corresponding process definition ID of the process instance
+        ProcessInstance processInstance = processEngine.getRuntimeService().createProcessInstanceQuery()
+                .processInstanceId(processInstanceId).singleResult();
+        if (processInstance == null) {
+            throw new NoSuchElementException("Unable to find process instance with ID: " + processInstanceId);
+        }
+        String definitionId = processInstance.getProcessDefinitionId();
+        System.out.println("Retrieved corresponding definition ID: " + definitionId);
+
+        // process definitions are served from the deployment cache of the engine
+        ProcessDefinition processDefinition = processEngine.getRepositoryService().getProcessDefinition(definitionId);
+        String deploymentId = processDefinition.getDeploymentId();
+        System.out.println("Retrieving deployment ID: " + deploymentId);
+
+        return new ProcessInstanceDeployment(definitionId, deploymentId);
+    }
+
+    @Override
+    public Map<String, ProcessInstanceDeployment> getDeploymentsForProcessInstances(
+            Collection<String> processInstanceIds) {
+        Map<String, ProcessInstanceDeployment> deployments = new LinkedHashMap<>();
+        if (processInstanceIds.isEmpty()) {
+            return deployments;
+        }
+
+        // retrieve all process instances and their process definitions with one query each
+        List<ProcessInstance> processInstances = processEngine.getRuntimeService().createProcessInstanceQuery()
+                .processInstanceIds(new HashSet<>(processInstanceIds)).list();
+        Set<String> definitionIds = new HashSet<>();
+        for (ProcessInstance processInstance : processInstances) {
+            definitionIds.add(processInstance.getProcessDefinitionId());
+        }
+        Map<String, String> deploymentIdsByDefinitionId = new HashMap<>();
+        if (!definitionIds.isEmpty()) {
+            for (ProcessDefinition processDefinition : processEngine.getRepositoryService()
+                    .createProcessDefinitionQuery().processDefinitionIdIn(definitionIds.toArray(new String[0]))
+                    .list()) {
+                deploymentIdsByDefinitionId.put(processDefinition.getId(), processDefinition.getDeploymentId());
+            }
+        }
+
+        for (ProcessInstance processInstance : processInstances) {
+            String definitionId = processInstance.getProcessDefinitionId();
+            deployments.put(processInstance.getId(),
+                    new ProcessInstanceDeployment(definitionId, deploymentIdsByDefinitionId.get(definitionId)));
+        }
+        return deployments;
+    }
+
+    @Override
+    public Map<String, String> getResourcesForDeployment(String deploymentId) {
+        Map<String, String> resourcesMap = new LinkedHashMap<>();
+        for (Resource resource : processEngine.getRepositoryService().getDeploymentResources(deploymentId)) {
+            resourcesMap.put(resource.getId(), resource.getName());
+        }
+        return resourcesMap;
+    }
+
+    @Override
+    public long getDeploymentTime(String deploymentId) {
+        Deployment deployment = processEngine.getRepositoryService().createDeploymentQuery().deploymentId(deploymentId)
+                .singleResult();
+        if (deployment == null) {
+            throw new NoSuchElementException("Unable to find deployment with ID: " + deploymentId);
+        }
+        return deployment.getDeploymentTime().getTime();
+    }
+
+    @Override
+    public InputStream getResourceData(String deploymentId, String resourceId) {
+        return processEngine.getRepositoryService().getResourceAsStreamById(deploymentId, resourceId);
+    }
+}
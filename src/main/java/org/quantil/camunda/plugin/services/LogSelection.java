@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.quantil.camunda.plugin.client.model.LogEntry;
+import org.quantil.camunda.plugin.dto.DeploymentInformation;
+
+/**
+ * Selection of the log entries of build plan instances that are returned to a client
+ *
+ * Clients pass the log cursors of the previous response to only retrieve log entries added afterwards. A cursor
+ * consists of the ID of the deployment element and the index of the next log entry, e.g., 'Task_1:42'.
+ */
+public class LogSelection {
+
+    private static final LogSelection ALL = new LogSelection(Collections.emptyMap(), Collections.emptySet(), 0);
+
+    private final Map<String, Integer> offsets;
+
+    private final Set<String> statuses;
+
+    private final int limit;
+
+    private LogSelection(Map<String, Integer> offsets, Set<String> statuses, int limit) {
+        this.offsets = offsets;
+        this.statuses = statuses;
+        this.limit = limit;
+    }
+
+    /**
+     * @return the selection of all log entries
+     */
+    public static LogSelection all() {
+        return ALL;
+    }
+
+    /**
+     * Create a log selection
+     *
+     * @param cursors  the log cursors returned by a previous request, cursors that can not be parsed are ignored
+     * @param statuses the statuses of the log entries to select, or an empty collection to select all entries
+     * @param limit    the maximum number of log entries selected per deployment, a value smaller than one selects
+     *                 all entries
+     * @return the log selection
+     */
+    public static LogSelection of(Collection<String> cursors, Collection<String> statuses, int limit) {
+        Map<String, Integer> offsets = new HashMap<>();
+        for (String cursor : cursors) {
+            int separator = cursor.lastIndexOf(':');
+            if (separator < 1) {
+                continue;
+            }
+            try {
+                offsets.put(cursor.substring(0, separator), Math.max(0, Integer.parseInt(cursor.substring(separator + 1))));
+            } catch (NumberFormatException e) {
+                System.err.println("Ignoring invalid log cursor: " + cursor);
+            }
+        }
+
+        // statuses may also be passed as comma-separated list
+        Set<String> normalizedStatuses = new HashSet<>();
+        for (String status : statuses) {
+            for (String part : status.split(",")) {
+                if (!part.trim().isEmpty()) {
+                    normalizedStatuses.add(part.trim().toUpperCase());
+                }
+            }
+        }
+        return new LogSelection(offsets, normalizedStatuses, limit);
+    }
+
+    /**
+     * Add the selected log entries of a build plan instance to the given deployment information, including the
+     * cursor to continue with
+     *
+     * @param deploymentInformation the deployment information of the build plan instance
+     * @param logs                  the retained log entries of the build plan instance, i.e., the latest ones
+     * @param logsOffset            the index of the first retained log entry within all log entries
+     */
+    void apply(DeploymentInformation deploymentInformation, List<LogEntry> logs, int logsOffset) {
+        // entries before the retained ones are not available anymore, thus, start with the oldest retained entry and
+        // report the skipped entries, so that clients can show that the log is incomplete
+        int logCount = logsOffset + logs.size();
+        int requestedOffset = offsets.getOrDefault(deploymentInformation.getElementId(), 0);
+        int offset = Math.min(Math.max(requestedOffset, logsOffset), logCount);
+        List<DeploymentInformation.LogEntry> selectedLogs = new ArrayList<>();
+        int next = offset;
+        for (; next < logCount; next++) {
+            if (limit > 0 && selectedLogs.size() >= limit) {
+                break;
+            }
+            LogEntry logEntry = logs.get(next - logsOffset);
+            if (statuses.isEmpty() || (logEntry.getStatus() != null
+                    && statuses.contains(logEntry.getStatus().toUpperCase()))) {
+                selectedLogs.add(new DeploymentInformation.LogEntry(new Date(logEntry.getStartTimestamp()),
+                        logEntry.getStatus(), logEntry.getMessage()));
+            }
+        }
+        deploymentInformation.setLogs(selectedLogs);
+        deploymentInformation.setLogOffset(offset);
+        deploymentInformation.setHasMoreLogs(next < logCount);
+        deploymentInformation.setDroppedLogCount(Math.max(0, logsOffset - requestedOffset));
+        deploymentInformation.setNextLogCursor(deploymentInformation.getElementId() + ":" + next);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.quantil.camunda.plugin.PluginConfiguration;
+import org.quantil.camunda.plugin.cache.LruCache;
+import org.quantil.camunda.plugin.cache.SingleFlight;
+import org.quantil.camunda.plugin.metrics.PluginMetrics;
+
+/**
+ * Resolver remembering the deployment of process instances, as it does not change while the instance is running
+ *
+ * Entries expire after a configurable time and are evicted as soon as the process engine reports that the process
+ * instance ended or was migrated to another process definition. Concurrent requests for the deployment of the same
+ * process instance or the resources of the same deployment are coalesced into a single request to the delegate.
+ */
+public class MemoizingDeploymentResourceResolver implements DeploymentResourceResolver {
+
+    // shared by all requests, as the deployment of a process instance is independent of the requesting endpoint,
+    // keyed by the scope of the resolver as the IDs of process instances and deployments are only unique per engine
+    private static final LruCache<String, ProcessInstanceDeployment> PROCESS_INSTANCE_DEPLOYMENT_CACHE = PluginMetrics
+            .registerCache(new LruCache<>("process-instance-deployment",
+                    PluginConfiguration.getProcessInstanceDeploymentCacheSize(),
+                    PluginConfiguration.getProcessInstanceDeploymentCacheTtlMillis()));
+
+    private static final SingleFlight<String, ProcessInstanceDeployment> PROCESS_INSTANCE_DEPLOYMENT_FETCHES =
+            PluginMetrics.registerSingleFlight(new SingleFlight<>("process-instance-deployment"));
+
+    private static final SingleFlight<String, Map<String, String>> DEPLOYMENT_RESOURCES_FETCHES = PluginMetrics
+            .registerSingleFlight(new SingleFlight<>("deployment-resources"));
+
+    private final DeploymentResourceResolver delegate;
+
+    private final String scope;
+
+    /**
+     * @param delegate the resolver to request deployments and resources from if they are not remembered
+     * @param scope    the name of the process engine or the URL of the REST API the delegate accesses
+     */
+    public MemoizingDeploymentResourceResolver(DeploymentResourceResolver delegate, String scope) {
+        this.delegate = delegate;
+        this.scope = scope;
+    }
+
+    @Override
+    public ProcessInstanceDeployment getDeploymentForProcessInstance(String processInstanceId) throws IOException {
+        String key = scope + "/" + processInstanceId;
+        ProcessInstanceDeployment deployment = PROCESS_INSTANCE_DEPLOYMENT_CACHE.get(key);
+        if (deployment == null) {
+            deployment = PROCESS_INSTANCE_DEPLOYMENT_FETCHES.execute(key, () -> {
+                ProcessInstanceDeployment resolved = delegate.getDeploymentForProcessInstance(processInstanceId);
+                PROCESS_INSTANCE_DEPLOYMENT_CACHE.put(key, resolved);
+                return resolved;
+            });
+        }
+        return deployment;
+    }
+
+    @Override
+    public Map<String, ProcessInstanceDeployment> getDeploymentsForProcessInstances(
+            Collection<String> processInstanceIds) throws IOException {
+        Map<String, ProcessInstanceDeployment> deployments = new LinkedHashMap<>();
+        List<String> unresolvedProcessInstanceIds = new ArrayList<>();
+        for (String processInstanceId : processInstanceIds) {
+            ProcessInstanceDeployment deployment = PROCESS_INSTANCE_DEPLOYMENT_CACHE
+                    .get(scope + "/" + processInstanceId);
+            if (deployment == null) {
+                unresolvedProcessInstanceIds.add(processInstanceId);
+            } else {
+                deployments.put(processInstanceId, deployment);
+            }
+        }
+
+        // resolve all remaining process instances at once
+        if (!unresolvedProcessInstanceIds.isEmpty()) {
+            Map<String, ProcessInstanceDeployment> resolvedDeployments = delegate
+                    .getDeploymentsForProcessInstances(unresolvedProcessInstanceIds);
+            for (Map.Entry<String, ProcessInstanceDeployment> resolved : resolvedDeployments.entrySet()) {
+                PROCESS_INSTANCE_DEPLOYMENT_CACHE.put(scope + "/" + resolved.getKey(), resolved.getValue());
+                deployments.put(resolved.getKey(), resolved.getValue());
+            }
+        }
+        return deployments;
+    }
+
+    @Override
+    public Map<String, String> getResourcesForDeployment(String deploymentId) throws IOException {
+        // the resources are cached as view index by the callers, thus, only concurrent requests are coalesced
+        return DEPLOYMENT_RESOURCES_FETCHES.execute(scope + "/" + deploymentId,
+                () -> delegate.getResourcesForDeployment(deploymentId));
+    }
+
+    @Override
+    public long getDeploymentTime(String deploymentId) throws IOException {
+        // deployment IDs are only unique per process engine, thus, the callers remember the time with their engine
+        return delegate.getDeploymentTime(deploymentId);
+    }
+
+    @Override
+    public InputStream getResourceData(String deploymentId, String resourceId) throws IOException {
+        return delegate.getResourceData(deploymentId, resourceId);
+    }
+
+    /**
+     * Remove the remembered deployment of the given process instance, e.g., as the instance ended or was migrated
+     *
+     * @param engineName        the name of the process engine the process instance belongs to
+     * @param processInstanceId the ID of the process instance to remove the deployment for
+     */
+    public static void evict(String engineName, String processInstanceId) {
+        PROCESS_INSTANCE_DEPLOYMENT_CACHE.invalidate(engineName + "/" + processInstanceId);
+    }
+
+    /**
+     * @return the cache holding the deployments of the process instances keyed by scope and process instance ID
+     */
+    public static LruCache<String, ProcessInstanceDeployment> getProcessInstanceDeploymentCache() {
+        return PROCESS_INSTANCE_DEPLOYMENT_CACHE;
+    }
+}
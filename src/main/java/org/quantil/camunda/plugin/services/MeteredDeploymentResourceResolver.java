@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Map;
+
+import org.quantil.camunda.plugin.metrics.PluginMetrics;
+import org.quantil.camunda.plugin.metrics.Timer;
+
+/**
+ * Resolver recording the latency and failures of each retrieval from the process engine or its REST API
+ */
+public class MeteredDeploymentResourceResolver implements DeploymentResourceResolver {
+
+    private final DeploymentResourceResolver delegate;
+
+    private final Timer deploymentForProcessInstanceTimer;
+
+    private final Timer deploymentsForProcessInstancesTimer;
+
+    private final Timer resourcesForDeploymentTimer;
+
+    private final Timer deploymentTimeTimer;
+
+    private final Timer resourceDataTimer;
+
+    /**
+     * @param delegate the resolver to record the retrievals of
+     * @param name     the name of the resolver used as label of the metrics, e.g., 'engine' or 'rest'
+     */
+    public MeteredDeploymentResourceResolver(DeploymentResourceResolver delegate, String name) {
+        this.delegate = delegate;
+        this.deploymentForProcessInstanceTimer = PluginMetrics.RESOLVER.labels(name, "deployment-for-process-instance");
+        this.deploymentsForProcessInstancesTimer = PluginMetrics.RESOLVER.labels(name,
+                "deployments-for-process-instances");
+        this.resourcesForDeploymentTimer = PluginMetrics.RESOLVER.labels(name, "resources-for-deployment");
+        this.deploymentTimeTimer = PluginMetrics.RESOLVER.labels(name, "deployment-time");
+        this.resourceDataTimer = PluginMetrics.RESOLVER.labels(name, "resource-data");
+    }
+
+    @Override
+    public ProcessInstanceDeployment getDeploymentForProcessInstance(String processInstanceId) throws IOException {
+        Timer.Sample sample = deploymentForProcessInstanceTimer.start();
+        try {
+            return delegate.getDeploymentForProcessInstance(processInstanceId);
+        } catch (IOException | RuntimeException e) {
+            sample.failed();
+            throw e;
+        } finally {
+            sample.stop();
+        }
+    }
+
+    @Override
+    public Map<String, ProcessInstanceDeployment> getDeploymentsForProcessInstances(
+            Collection<String> processInstanceIds) throws IOException {
+        Timer.Sample sample = deploymentsForProcessInstancesTimer.start();
+        try {
+            return delegate.getDeploymentsForProcessInstances(processInstanceIds);
+        } catch (IOException | RuntimeException e) {
+            sample.failed();
+            throw e;
+        } finally {
+            sample.stop();
+        }
+    }
+
+    @Override
+    public Map<String, String> getResourcesForDeployment(String deploymentId) throws IOException {
+        Timer.Sample sample = resourcesForDeploymentTimer.start();
+        try {
+            return delegate.getResourcesForDeployment(deploymentId);
+        } catch (IOException | RuntimeException e) {
+            sample.failed();
+            throw e;
+        } finally {
+            sample.stop();
+        }
+    }
+
+    @Override
+    public long getDeploymentTime(String deploymentId) throws IOException {
+        Timer.Sample sample = deploymentTimeTimer.start();
+        try {
+            return delegate.getDeploymentTime(deploymentId);
+        } catch (IOException | RuntimeException e) {
+            sample.failed();
+            throw e;
+        } finally {
+            sample.stop();
+        }
+    }
+
+    /**
+     * Open the data of the given resource, only recording the time until the stream is available
+     */
+    @Override
+    public InputStream getResourceData(String deploymentId, String resourceId) throws IOException {
+        Timer.Sample sample = resourceDataTimer.start();
+        try {
+            return delegate.getResourceData(deploymentId, resourceId);
+        } catch (IOException | RuntimeException e) {
+            sample.failed();
+            throw e;
+        } finally {
+            sample.stop();
+        }
+    }
+}
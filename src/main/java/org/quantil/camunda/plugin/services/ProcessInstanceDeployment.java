@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.services;
+
+/**
+ * The process definition and deployment a process instance belongs to
+ */
+public class ProcessInstanceDeployment {
+
+    private final String processDefinitionId;
+
+    private final String deploymentId;
+
+    public ProcessInstanceDeployment(String processDefinitionId, String deploymentId) {
+        this.processDefinitionId = processDefinitionId;
+        this.deploymentId = deploymentId;
+    }
+
+    public String getProcessDefinitionId() {
+        return processDefinitionId;
+    }
+
+    public String getDeploymentId() {
+        return deploymentId;
+    }
+}
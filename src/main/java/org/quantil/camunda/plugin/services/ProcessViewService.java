@@ -11,25 +11,29 @@
 
 package org.quantil.camunda.plugin.services;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import org.apache.ibatis.javassist.NotFoundException;
-
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.quantil.camunda.plugin.PluginConfiguration;
+import org.quantil.camunda.plugin.cache.LruCache;
+import org.quantil.camunda.plugin.cache.SegmentFileStore;
+import org.quantil.camunda.plugin.cache.SharedCache;
+import org.quantil.camunda.plugin.cache.SingleFlight;
+import org.quantil.camunda.plugin.client.PluginHttpClient;
+import org.quantil.camunda.plugin.metrics.Histogram;
+import org.quantil.camunda.plugin.metrics.PluginMetrics;
+import org.quantil.camunda.plugin.metrics.SizeRecordingInputStream;
 
 /**
  * Service handling all functionality related to retrieving or changing views
@@ -37,7 +41,86 @@ import com.fasterxml.jackson.databind.ObjectMapper;
  */
 public class ProcessViewService {
 
-    private static final String ENGINE_REST_SUFFIX = "engine-rest";
+    // deployments can not be changed after their creation, thus, their view indexes are shared by all requests,
+    // keyed by the scope of the service as deployment IDs are only unique per process engine
+    private static final LruCache<String, ViewIndex> VIEW_INDEX_CACHE = PluginMetrics.registerCache(
+            new LruCache<>("view-index", PluginConfiguration.getViewIndexCacheSize()));
+
+    // uncompressed size of the view XML read by any endpoint, recorded when the stream providing it is closed
+    private static final Histogram VIEW_XML_SIZES = PluginMetrics.PAYLOAD_SIZES.labels("view-xml");
+
+    private static final String VIEW_CATALOG_REGION = "view-catalog";
+
+    // the views of a deployment are immutable, thus, the difference between two of them is only computed once
+    private static final LruCache<String, ViewXmlDiff> VIEW_XML_DIFF_CACHE = PluginMetrics.registerCache(
+            new LruCache<>("view-xml-diff", PluginConfiguration.getViewDiffCacheSize()));
+
+    private static final SingleFlight<String, ViewXmlDiff> VIEW_XML_DIFFS = PluginMetrics
+            .registerSingleFlight(new SingleFlight<>("view-xml-diff"));
+
+    // concurrent misses of the same view only fetch and store its XML once
+    private static final SingleFlight<String, Boolean> VIEW_XML_STORE_FILLS = PluginMetrics
+            .registerSingleFlight(new SingleFlight<>("view-xml-store"));
+
+    // deployment IDs are only unique per process engine and may be reused after its database was reset, thus, the
+    // keys of the view XML store comprise the engine and the creation time of the deployment
+    private static final LruCache<String, Long> DEPLOYMENT_TIME_CACHE = PluginMetrics.registerCache(
+            new LruCache<>("deployment-time", PluginConfiguration.getViewIndexCacheSize()));
+
+    // view XML is immutable per deployment resource, thus, it is kept on disk across restarts
+    private static SegmentFileStore viewXmlStore;
+
+    private static boolean viewXmlStoreOpened;
+
+    private final DeploymentResourceResolver resolver;
+
+    // optional tier shared with other Cockpit nodes, behind the view index cache acting as its near cache
+    private final SharedCache viewCatalogs;
+
+    // the process engine or REST API the deployments are resolved from
+    private final String scope;
+
+    public ProcessViewService(DeploymentResourceResolver resolver) {
+        this(resolver, null, "default");
+    }
+
+    /**
+     * @param resolver     the resolver for the deployments and their resources
+     * @param viewCatalogs the optional view catalogs shared with other Cockpit nodes
+     * @param scope        the name of the process engine or the URL of the REST API the resolver accesses
+     */
+    public ProcessViewService(DeploymentResourceResolver resolver, SharedCache viewCatalogs, String scope) {
+        this.resolver = resolver;
+        this.viewCatalogs = viewCatalogs;
+        this.scope = scope;
+    }
+
+    /**
+     * Create the service for the given process engine, resolving views using the
+     * Java API of the engine and only falling back to the Camunda REST API if the
+     * engine is not available or the REST resolution mode is configured
+     *
+     * @param processEngine the process engine the process instances belong to
+     * @param url           the URL to access the Camunda REST API
+     * @return the process view service
+     */
+    public static ProcessViewService forProcessEngine(ProcessEngine processEngine, String url) {
+        boolean engineResolution = processEngine != null && !PluginConfiguration.isRestViewResolution();
+        String scope = engineResolution ? processEngine.getName() : url;
+
+        // invalidated catalogs of the engine only clear the view indexes of its own deployments
+        SharedCache viewCatalogs = processEngine == null ? null
+                : SharedCache.forEngine(processEngine.getName(), VIEW_CATALOG_REGION,
+                        () -> VIEW_INDEX_CACHE.invalidateIf(key -> key.startsWith(scope + "/")));
+        if (engineResolution) {
+            return new ProcessViewService(new MemoizingDeploymentResourceResolver(new MeteredDeploymentResourceResolver(
+                    new EngineDeploymentResourceResolver(processEngine), "engine"), scope), viewCatalogs, scope);
+        }
+        System.out.println("Resolving process views using the Camunda REST API at: " + url);
+        return new ProcessViewService(new MemoizingDeploymentResourceResolver(
+                new MeteredDeploymentResourceResolver(new RestDeploymentResourceResolver(url), "rest"), scope),
+                viewCatalogs, scope);
+    }
 
     /**
      * Find the name of the initial view, i.e., the workflow that is actually
@@ -45,20 +128,18 @@ public class ProcessViewService {
      *
      * @param processInstanceId the process instance ID of the instance to get the
      *                          intial process view for
-     * @param url               the URL to access the Camunda REST API
      * @return the name of the initial process view
      */
-    public String findInitialViewName(String processInstanceId, String url) throws IOException {
+    public String findInitialViewName(String processInstanceId) throws IOException {
         System.out
                 .println("Searching for initial process view name for process instance with ID: " + processInstanceId);
 
-        // retrieve resources for deployment
-        Map<String, String> resources = getResourceMapForProcessInstance(processInstanceId, url);
-        System.out.println("Retrieved list with " + resources.size() + " resources for the deployment!");
+        // retrieve view index for deployment
+        ViewIndex viewIndex = getViewIndex(processInstanceId);
+        System.out.println("Retrieved list with " + viewIndex.getResources().size() + " resources for the deployment!");
 
         // we use the first BPMN file within the resources as initial view
-        return resources.values().stream().filter(resourceName -> resourceName.endsWith(".bpmn")).findFirst()
-                .orElseThrow(NoSuchElementException::new);
+        return Optional.ofNullable(viewIndex.getInitialView()).orElseThrow(NoSuchElementException::new);
     }
 
     /**
@@ -68,22 +149,19 @@ public class ProcessViewService {
      *                          for
      * @param activeView        the currently active view
      * @param viewName          the name of the view to switch to
-     * @param url               the URL to access the Camunda REST API
      * @return the name of the next view that should be activated
      * @throws IOException if an I/O error occurs while retrieving resources
      */
-    public String getProcessView(String processInstanceId, String activeView, String viewName, String url)
+    public String getProcessView(String processInstanceId, String activeView, String viewName)
             throws IOException {
         System.out.println("Fetching next process view for process instance ID: " + processInstanceId);
 
-        // Retrieve resources for the given process instance
-        Map<String, String> resources = getResourceMapForProcessInstance(processInstanceId, url);
-        System.out.println("Retrieved " + resources.size() + " resources for the deployment.");
+        // Retrieve view index for the given process instance
+        ViewIndex viewIndex = getViewIndex(processInstanceId);
+        System.out.println("Retrieved " + viewIndex.getResources().size() + " resources for the deployment.");
 
         // Get the initial BPMN view
-        String initialView = resources.values().stream()
-                .filter(resource -> resource.endsWith(".bpmn"))
-                .findFirst()
+        String initialView = Optional.ofNullable(viewIndex.getInitialView())
                 .orElseThrow(() -> new NoSuchElementException("No BPMN file found in resources"));
 
         // If the requested view is the same as the active view, return the initial BPMN
@@ -92,16 +170,8 @@ public class ProcessViewService {
             return initialView;
         }
 
-        // Filter out HTML files
-        List<String> resourceNames = new ArrayList<>(resources.values());
-        resourceNames.removeIf(resource -> resource.endsWith(".html"));
-
-        // Find a matching view based on activeView
-        Optional<String> optionalMatchingView = resourceNames.stream()
-                .filter(resource -> resource.endsWith(viewName))
-                .findFirst();
-
-        return optionalMatchingView.orElse(initialView);
+        // Find a matching view based on activeView, HTML files are already filtered out
+        return Optional.ofNullable(viewIndex.findView(viewName)).orElse(initialView);
     }
 
     /**
@@ -111,41 +181,20 @@ public class ProcessViewService {
      * @param processInstanceId the process instance ID of the instance to get the
      *                          next process view for
      * @param activeView        the currently active view
-     * @param url               the URL to access the Camunda REST API
      * @return the name of the next view that should be activated
      */
-    public String getNextProcessView(String processInstanceId, String activeView, String url) throws IOException {
+    public String getNextProcessView(String processInstanceId, String activeView) throws IOException {
         System.out.println("Retrieving next process view name for process instance with ID: " + processInstanceId);
 
-        // retrieve resources for deployment
-        Map<String, String> resources = getResourceMapForProcessInstance(processInstanceId, url);
-        System.out.println("Retrieved list with " + resources.size() + " resources for the deployment!");
-
-        // order list to get next view in the row
-        List<String> orderedResources = new ArrayList<>();
-        // add BPMN file as initial view and sort remaining views using the resource
-        // names
-        List<String> resourceNames = new ArrayList<>(resources.values());
-
-        // remove html forms
-        resourceNames.removeIf(resourceName -> resourceName.endsWith(".html"));
-        String initialView = resourceNames.stream().filter(resourceName -> resourceName.endsWith(".bpmn")).findFirst()
-                .orElseThrow(NoSuchElementException::new);
-        orderedResources.add(initialView);
-        resourceNames.remove(initialView);
-        java.util.Collections.sort(resourceNames);
-        orderedResources.addAll(resourceNames);
-        System.out.println("Ordered list: " + orderedResources);
-
-        // return next view in the list or initial view if end is reached
-        int indexOfCurrentView = orderedResources.indexOf(activeView);
-        System.out.println("Current view index: " + indexOfCurrentView);
-        if (indexOfCurrentView + 1 < orderedResources.size()) {
-            return orderedResources.get(indexOfCurrentView + 1);
-        } else {
-            System.out.println("Reached last view, restarting with initial view...");
-            return initialView;
-        }
+        // retrieve view index for deployment
+        ViewIndex viewIndex = getViewIndex(processInstanceId);
+        System.out.println("Retrieved index with " + viewIndex.getOrderedViews().size() + " views for the deployment!");
+
+        // the index contains the BPMN file as initial view followed by the remaining views sorted by their names,
+        // if the end is reached it restarts with the initial view
+        Optional.ofNullable(viewIndex.getInitialView()).orElseThrow(NoSuchElementException::new);
+        System.out.println("Current view index: " + viewIndex.getPosition(activeView));
+        return viewIndex.getNextView(activeView);
     }
 
     /**
@@ -153,126 +202,319 @@ public class ProcessViewService {
      *
      * @param processInstanceId the process instance ID the process view belongs to
      * @param view              the name of the view to retrieve the XML for
-     * @param url               the URL to access the Camunda REST API
      * @return the XML representing the process view with the given name
      */
-    public String getProcessViewXml(String processInstanceId, String view, String url)
+    public String getProcessViewXml(String processInstanceId, String view)
             throws IOException, NotFoundException {
 
+        // retrieve the resource comprising the XML for the view with the given name
+        ViewReference viewReference = resolveView(processInstanceId, view);
+        if (viewReference == null) {
+            throw new NotFoundException("Unable to find resource corresponding to view with ID: " + view);
+        }
+
+        return getProcessViewXml(viewReference);
+    }
+
+    /**
+     * Get the XML representing the referenced process view
+     *
+     * @param viewReference the reference to the resource comprising the XML of the view
+     * @return the XML representing the process view
+     */
+    public String getProcessViewXml(ViewReference viewReference) throws IOException {
+
+        // request resource content
+        ByteArrayOutputStream xml = new ByteArrayOutputStream();
+        try (InputStream resourceData = openProcessViewXml(viewReference)) {
+            if (resourceData == null) {
+                throw new NoSuchElementException("Unable to find resource of view: " + viewReference.getViewName());
+            }
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = resourceData.read(buffer)) != -1) {
+                xml.write(buffer, 0, read);
+            }
+        }
+        System.out.println("Retrieved XML with " + xml.size() + " bytes for view: " + viewReference.getViewName());
+
+        return new String(xml.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Get the difference between the XML of two views, allowing a client that already has the base view to
+     * reconstruct the target view without downloading it completely
+     *
+     * @param base   the reference to the view the client already has
+     * @param target the reference to the view to reconstruct
+     * @return the difference transforming the XML of the base view into the XML of the target view
+     */
+    public ViewXmlDiff getProcessViewXmlDiff(ViewReference base, ViewReference target) throws IOException {
+        // the keys of the view XML are unique across engines and deployments reusing the ID of a deleted deployment
+        String key = getViewXmlKey(base) + "->" + getViewXmlKey(target);
+        ViewXmlDiff cached = VIEW_XML_DIFF_CACHE.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        return VIEW_XML_DIFFS.execute(key, () -> {
+            long start = System.currentTimeMillis();
+            ViewXmlDiff diff = ViewXmlDiff.compute(getProcessViewXml(base), getProcessViewXml(target),
+                    PluginConfiguration.getViewDiffMaxEditDistance());
+            System.out.println("Computed difference from view " + base.getViewName() + " to view "
+                    + target.getViewName() + " inserting " + diff.getInsertedLength() + " of "
+                    + diff.getTargetLength() + " characters in " + (System.currentTimeMillis() - start) + " ms");
+            VIEW_XML_DIFF_CACHE.put(key, diff);
+            return diff;
+        });
+    }
+
+    /**
+     * Resolve the resource comprising the XML for the view with the given name
+     *
+     * @param processInstanceId the process instance ID the process view belongs to
+     * @param view              the name of the view, or a suffix of it, to resolve
+     * @return the reference to the resource or null if the deployment of the process
+     *         instance does not contain a matching view
+     */
+    public ViewReference resolveView(String processInstanceId, String view) throws IOException {
+
         // get deployment ID to access contained resources
-        String deploymentId = getDeploymentIdForProcessInstanceId(url, processInstanceId);
+        String deploymentId = resolver.getDeploymentForProcessInstance(processInstanceId).getDeploymentId();
 
         // retrieve ID of the resource comprising the XML for the view with the given
         // name
-        Map<String, String> resources = getResourcesForDeployment(url, deploymentId);
-        String resourceId = resources.entrySet()
-                .stream()
-                .filter(entry -> view.equals(entry.getValue()))
-                .map(Map.Entry::getKey)
-                .findFirst().orElseThrow(
-                        () -> new NotFoundException("Unable to find resource corresponding to view with ID: " + view));
+        ViewIndex viewIndex = getViewIndexForDeployment(deploymentId);
+        String viewName = viewIndex.getResourceId(view) != null ? view : viewIndex.findView(view);
+        if (viewName == null) {
+            return null;
+        }
+        String resourceId = viewIndex.getResourceId(viewName);
         System.out.println("Resource ID: " + resourceId);
+        return new ViewReference(deploymentId, resourceId, viewName);
+    }
 
-        // request resource via REST API
-        String resourceUrl = url + "/" + ENGINE_REST_SUFFIX + "/deployment/" + deploymentId + "/resources/" + resourceId
-                + "/data";
-        System.out.println("Retrieving XML for view from URL: " + resourceUrl);
-        HttpURLConnection http = (HttpURLConnection) new URL(resourceUrl).openConnection();
-        String xmlAsString = new BufferedReader(
-                new InputStreamReader(http.getInputStream(), StandardCharsets.UTF_8))
-                .lines()
-                .collect(Collectors.joining("\n"));
-        System.out.println("Retrieved XML: " + xmlAsString);
-
-        return xmlAsString;
+    /**
+     * Open the XML of the referenced process view
+     *
+     * @param viewReference the reference to the resource comprising the XML of the view
+     * @return the stream providing the XML, which has to be closed by the caller, or null if the deployment does not
+     *         contain the resource
+     */
+    public InputStream openProcessViewXml(ViewReference viewReference) throws IOException {
+        InputStream xml = openStoredProcessViewXml(viewReference);
+        return xml == null ? null : new SizeRecordingInputStream(xml, VIEW_XML_SIZES);
+    }
+
+    private InputStream openStoredProcessViewXml(ViewReference viewReference) throws IOException {
+        SegmentFileStore store = getViewXmlStore();
+        if (store == null) {
+            return resolver.getResourceData(viewReference.getDeploymentId(), viewReference.getResourceId());
+        }
+
+        String key = getViewXmlKey(viewReference);
+        InputStream storedXml = store.open(key);
+        if (storedXml != null) {
+            return storedXml;
+        }
+        VIEW_XML_STORE_FILLS.execute(key, () -> {
+            if (store.contains(key)) {
+                return Boolean.TRUE;
+            }
+            try (InputStream resourceData = resolver.getResourceData(viewReference.getDeploymentId(),
+                    viewReference.getResourceId())) {
+                if (resourceData == null) {
+                    return Boolean.FALSE;
+                }
+                store.put(key, resourceData);
+                return Boolean.TRUE;
+            }
+        });
+
+        // fall back to the resolver if the XML could not be written or was already evicted again
+        storedXml = store.open(key);
+        return storedXml != null ? storedXml
+                : resolver.getResourceData(viewReference.getDeploymentId(), viewReference.getResourceId());
     }
 
     /**
-     * Get the list of resources that belong to the deployment of the given process
-     * instance
+     * Get the key of the XML of the referenced view, which is unique across process engines and deployments reusing
+     * the ID of a deleted deployment, e.g., to store the XML or derive its entity tag
+     *
+     * @param viewReference the reference to the resource comprising the XML of the view
+     * @return the key of the view XML
+     */
+    public String getViewXmlKey(ViewReference viewReference) throws IOException {
+        String deploymentKey = scope + "/" + viewReference.getDeploymentId();
+        Long deploymentTime = DEPLOYMENT_TIME_CACHE.get(deploymentKey);
+        if (deploymentTime == null) {
+            deploymentTime = resolver.getDeploymentTime(viewReference.getDeploymentId());
+            DEPLOYMENT_TIME_CACHE.put(deploymentKey, deploymentTime);
+        }
+        return deploymentKey + "/" + deploymentTime + "/" + viewReference.getResourceId();
+    }
+
+    /**
+     * Get the process definitions and deployments of the given process instances,
+     * resolving all instances that are not known yet at once
+     *
+     * @param processInstanceIds the IDs of the process instances
+     * @return the process definitions and deployments by process instance ID, not
+     *         containing process instances that do not exist
+     */
+    public Map<String, ProcessInstanceDeployment> getDeployments(Collection<String> processInstanceIds)
+            throws IOException {
+        return resolver.getDeploymentsForProcessInstances(processInstanceIds);
+    }
+
+    /**
+     * Get the index of the views that belong to the deployment of the given
+     * process instance
      *
      * @param processInstanceId the process instance ID of the instance to get the
-     *                          resources for
-     * @param url               the URL to access the Camunda REST API
-     * @return the map with IDs as key and names as values of contained resources
+     *                          view index for
+     * @return the view index of the deployment
      */
-    private Map<String, String> getResourceMapForProcessInstance(String processInstanceId, String url)
+    public ViewIndex getViewIndex(String processInstanceId)
             throws IOException {
 
         // retrieve the ID of the deployment the given process instance belongs to
-        String deploymentId = getDeploymentIdForProcessInstanceId(url, processInstanceId);
+        String deploymentId = resolver.getDeploymentForProcessInstance(processInstanceId).getDeploymentId();
         System.out.println("Process instance belongs to deployment with ID: " + deploymentId);
 
-        // retrieve resources for deployment
-        return getResourcesForDeployment(url, deploymentId);
+        // retrieve view index for deployment
+        return getViewIndexForDeployment(deploymentId);
     }
 
     /**
-     * Get the ID of the deployment the given process instance belongs to
+     * Get the index of the views contained in the given deployment, using the
+     * index registered when the deployment was deployed, the cached index, or the
+     * catalog shared by other Cockpit nodes if available
      *
-     * @param URL               the URL to access the Camunda REST API
-     * @param processInstanceId the process instance ID of the instance to get the
-     *                          ID of the deployment for
-     * @return the ID of the deployment
+     * @param deploymentId the ID of the deployment to get the view index for
+     * @return the view index of the deployment
      */
-    private String getDeploymentIdForProcessInstanceId(String URL, String processInstanceId) throws IOException {
-        String processInstanceUrl = URL + "/" + ENGINE_REST_SUFFIX + "/process-instance/" + processInstanceId;
-        System.out.println("Retrieving process instance details from URL: " + processInstanceUrl);
-
-        // request process instance details to get corresponding process definition ID
-        java.net.URL url = new URL(processInstanceUrl);
-        HttpURLConnection http = (HttpURLConnection) url.openConnection();
-        http.setRequestProperty("Accept", "application/json");
-
-        // extract definition ID from response object
-        JsonNode processInstanceNode = new ObjectMapper().readTree(http.getInputStream());
-        http.disconnect();
-        String definitionId = processInstanceNode.get("definitionId").asText();
-        System.out.println("Retrieved corresponding definition ID: " + definitionId);
-
-        // use process definitions endpoint to retrieve deployment ID
-        String processDefinitionsUrl = URL + "/" + ENGINE_REST_SUFFIX + "/process-definition/" + definitionId;
-        System.out.println("Retrieving process definition details from URL: " + processDefinitionsUrl);
-        url = new URL(processDefinitionsUrl);
-        http = (HttpURLConnection) url.openConnection();
-        http.setRequestProperty("Accept", "application/json");
-
-        // extract deployment ID from response object
-        JsonNode processDefinitionNode = new ObjectMapper().readTree(http.getInputStream());
-        http.disconnect();
-        String deploymentId = processDefinitionNode.get("deploymentId").asText();
-        System.out.println("Retrieving deployment ID: " + deploymentId);
-
-        return deploymentId;
+    public ViewIndex getViewIndexForDeployment(String deploymentId) throws IOException {
+        // the registry is filled by the engine plugin, thus, it only contains deployments of engines resolved directly
+        ViewIndex viewIndex = ViewRegistry.get(scope, deploymentId);
+        if (viewIndex != null) {
+            return viewIndex;
+        }
+
+        if (viewCatalogs != null) {
+            viewCatalogs.checkVersion();
+        }
+        String viewIndexKey = scope + "/" + deploymentId;
+        viewIndex = VIEW_INDEX_CACHE.get(viewIndexKey);
+        if (viewIndex != null) {
+            return viewIndex;
+        }
+
+        viewIndex = viewCatalogs == null ? null : getSharedViewCatalog(deploymentId);
+        if (viewIndex == null) {
+            viewIndex = ViewIndex.fromResources(deploymentId, resolver.getResourcesForDeployment(deploymentId));
+            if (viewCatalogs != null) {
+                viewCatalogs.put(deploymentId, toViewCatalog(viewIndex));
+            }
+        }
+        VIEW_INDEX_CACHE.put(viewIndexKey, viewIndex);
+        System.out.println("Added view index for deployment " + deploymentId + ": " + VIEW_INDEX_CACHE);
+        return viewIndex;
+    }
+
+    private ViewIndex getSharedViewCatalog(String deploymentId) {
+        String viewCatalog = viewCatalogs.get(deploymentId);
+        if (viewCatalog == null) {
+            return null;
+        }
+        try {
+            return fromViewCatalog(deploymentId, viewCatalog);
+        } catch (IOException | RuntimeException e) {
+            // remove catalogs that can not be read, e.g., as they were written by another version of the plugin
+            System.err.println("Ignoring invalid shared view catalog of deployment " + deploymentId + ": "
+                    + e.getMessage());
+            viewCatalogs.invalidate(deploymentId);
+            return null;
+        }
+    }
+
+    static String toViewCatalog(ViewIndex viewIndex) throws IOException {
+        ViewCatalog viewCatalog = new ViewCatalog();
+        viewCatalog.resources = viewIndex.getResources();
+        viewCatalog.viewsByElement = viewIndex.getViewsByElement();
+        return PluginHttpClient.getInstance().getObjectMapper().writeValueAsString(viewCatalog);
+    }
+
+    static ViewIndex fromViewCatalog(String deploymentId, String json) throws IOException {
+        // maps are read as linked hash maps, thus, the order of the resources determining the view order is kept
+        ViewCatalog viewCatalog = PluginHttpClient.getInstance().readerFor(ViewCatalog.class).readValue(json);
+        return ViewIndex.fromResources(deploymentId, viewCatalog.resources, viewCatalog.viewsByElement == null
+                ? Collections.<String, List<String>>emptyMap() : viewCatalog.viewsByElement);
     }
 
     /**
-     * Retrieve the names of all resources contained in the given deployment
+     * Get the persistent store of the view XML, opening it on first use
      *
-     * @param URL          the URL to access the Camunda REST API
-     * @param deploymentId the ID of the deployment to retrieve the resources for
-     * @return the map with IDs as key and names as values of contained resources
+     * @return the store, or null if it is disabled or can not be opened
      */
-    private Map<String, String> getResourcesForDeployment(String URL, String deploymentId) throws IOException {
-        Map<String, String> resourcesMap = new HashMap<>();
-
-        // create URL to deployment endpoint
-        String deploymentUrl = URL + "/" + ENGINE_REST_SUFFIX + "/deployment/" + deploymentId + "/resources";
-        System.out.println("Retrieving resources for deployment from URL: " + deploymentUrl);
-
-        // request all resources for the given deployment
-        java.net.URL url = new URL(deploymentUrl);
-        HttpURLConnection http = (HttpURLConnection) url.openConnection();
-        http.setRequestProperty("Accept", "application/json");
-
-        // extract resources from response object
-        JsonNode deploymentNode = new ObjectMapper().readTree(http.getInputStream());
-        http.disconnect();
-        for (Iterator<JsonNode> it = deploymentNode.elements(); it.hasNext();) {
-            JsonNode resourceNode = it.next();
-            resourcesMap.put(resourceNode.get("id").asText(), resourceNode.get("name").asText());
+    static synchronized SegmentFileStore getViewXmlStore() {
+        if (!viewXmlStoreOpened) {
+            viewXmlStoreOpened = true;
+            long maxSizeBytes = PluginConfiguration.getViewXmlStoreMaxSizeBytes();
+            if (maxSizeBytes > 0) {
+                try {
+                    SegmentFileStore store = SegmentFileStore.open(
+                            Paths.get(PluginConfiguration.getViewXmlStoreDirectory()), maxSizeBytes,
+                            PluginConfiguration.getViewXmlStoreSegmentSizeBytes());
+                    PluginMetrics.registerGauge("process_views_view_xml_store_entries",
+                            "Number of view XML documents in the persistent store", store::size);
+                    PluginMetrics.registerGauge("process_views_view_xml_store_bytes",
+                            "Size of the segment files of the persistent view XML store", store::getSizeBytes);
+                    PluginMetrics.registerGauge("process_views_view_xml_store_hits",
+                            "Number of view XML documents read from the persistent store", store::getHitCount);
+                    PluginMetrics.registerGauge("process_views_view_xml_store_misses",
+                            "Number of view XML documents not found in the persistent store", store::getMissCount);
+                    PluginMetrics.registerGauge("process_views_view_xml_store_evicted_segments",
+                            "Number of segments evicted from the persistent view XML store",
+                            store::getEvictionCount);
+                    viewXmlStore = store;
+                } catch (IOException e) {
+                    System.err.println("Unable to open view XML store, fetching view XML on each request: "
+                            + e.getMessage());
+                }
+            }
         }
+        return viewXmlStore;
+    }
+
+    /**
+     * Close the persistent store of the view XML, releasing its files for other processes
+     */
+    public static synchronized void closeViewXmlStore() {
+        if (viewXmlStore != null) {
+            try {
+                viewXmlStore.close();
+            } catch (IOException e) {
+                System.err.println("Unable to close view XML store: " + e.getMessage());
+            }
+            viewXmlStore = null;
+        }
+        viewXmlStoreOpened = false;
+    }
+
+    /**
+     * @return the cache holding the view indexes of the deployments
+     */
+    public static LruCache<String, ViewIndex> getViewIndexCache() {
+        return VIEW_INDEX_CACHE;
+    }
+
+    /**
+     * Views of a deployment as stored in the shared cache
+     */
+    static class ViewCatalog {
+
+        public Map<String, String> resources;
 
-        return resourcesMap;
+        public Map<String, List<String>> viewsByElement;
     }
 }
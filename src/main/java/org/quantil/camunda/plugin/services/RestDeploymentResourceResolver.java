@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.quantil.camunda.plugin.client.PluginHttpClient;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Resolves deployments and their resources using the Camunda REST API
+ *
+ * Only used as fallback if the process engine is not accessible via its Java API
+ */
+public class RestDeploymentResourceResolver implements DeploymentResourceResolver {
+
+    private static final String ENGINE_REST_SUFFIX = "engine-rest";
+
+    // default date format of the Camunda REST API
+    private static final String DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSSZ";
+
+    private final String url;
+
+    private final PluginHttpClient httpClient;
+
+    /**
+     * @param url the URL to access the Camunda REST API
+     */
+    public RestDeploymentResourceResolver(String url) {
+        this(url, PluginHttpClient.getInstance());
+    }
+
+    public RestDeploymentResourceResolver(String url, PluginHttpClient httpClient) {
+        this.url = url;
+        this.httpClient = httpClient;
+    }
+
+    @Override
+    public ProcessInstanceDeployment getDeploymentForProcessInstance(String processInstanceId) throws IOException {
+        String processInstanceUrl = url + "/" + ENGINE_REST_SUFFIX + "/process-instance/" + processInstanceId;
+        System.out.println("Retrieving process instance details from URL: " + processInstanceUrl);
+
+        // request process instance details to get corresponding process definition ID
+        JsonNode processInstanceNode = httpClient.getJsonTree(processInstanceUrl);
+        String definitionId = processInstanceNode.get("definitionId").asText();
+        System.out.println("Retrieved corresponding definition ID: " + definitionId);
+
+        // use process definitions endpoint to retrieve deployment ID
+        String processDefinitionsUrl = url + "/" + ENGINE_REST_SUFFIX + "/process-definition/" + definitionId;
+        System.out.println("Retrieving process definition details from URL: " + processDefinitionsUrl);
+
+        // extract deployment ID from response object
+        JsonNode processDefinitionNode = httpClient.getJsonTree(processDefinitionsUrl);
+        String deploymentId = processDefinitionNode.get("deploymentId").asText();
+        System.out.println("Retrieving deployment ID: " + deploymentId);
+
+        return new ProcessInstanceDeployment(definitionId, deploymentId);
+    }
+
+    @Override
+    public Map<String, String> getResourcesForDeployment(String deploymentId) throws IOException {
+        Map<String, String> resourcesMap = new LinkedHashMap<>();
+
+        // create URL to deployment endpoint
+        String deploymentUrl = url + "/" + ENGINE_REST_SUFFIX + "/deployment/" + deploymentId + "/resources";
+        System.out.println("Retrieving resources for deployment from URL: " + deploymentUrl);
+
+        // request all resources for the given deployment and extract them from the response object
+        JsonNode deploymentNode = httpClient.getJsonTree(deploymentUrl);
+        for (Iterator<JsonNode> it = deploymentNode.elements(); it.hasNext();) {
+            JsonNode resourceNode = it.next();
+            resourcesMap.put(resourceNode.get("id").asText(), resourceNode.get("name").asText());
+        }
+
+        return resourcesMap;
+    }
+
+    @Override
+    public long getDeploymentTime(String deploymentId) throws IOException {
+        String deploymentUrl = url + "/" + ENGINE_REST_SUFFIX + "/deployment/" + deploymentId;
+        System.out.println("Retrieving deployment details from URL: " + deploymentUrl);
+
+        String deploymentTime = httpClient.getJsonTree(deploymentUrl).get("deploymentTime").asText();
+        try {
+            return new SimpleDateFormat(DATE_FORMAT).parse(deploymentTime).getTime();
+        } catch (ParseException e) {
+            throw new IOException("Unable to parse time of deployment " + deploymentId + ": " + deploymentTime, e);
+        }
+    }
+
+    @Override
+    public InputStream getResourceData(String deploymentId, String resourceId) throws IOException {
+        String resourceUrl = url + "/" + ENGINE_REST_SUFFIX + "/deployment/" + deploymentId + "/resources/" + resourceId
+                + "/data";
+        System.out.println("Retrieving XML for view from URL: " + resourceUrl);
+        return httpClient.openStream(resourceUrl, null);
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Immutable index of the process views contained in a deployment
+ *
+ * The views are arranged in a ring starting with the initial view followed by the remaining views sorted by their
+ * names, so that the next view as well as views by name or resource ID can be resolved in constant time. As
+ * deployments can not be changed after their creation, an index can be cached for the lifetime of the deployment.
+ * Indexes created when a deployment is deployed additionally record which views contain each BPMN element.
+ */
+public class ViewIndex {
+
+    private final String deploymentId;
+
+    private final Map<String, String> resources;
+
+    private final String initialView;
+
+    private final List<String> orderedViews;
+
+    private final Map<String, String> resourceIdsByName;
+
+    private final Map<String, Integer> positionsByName;
+
+    private final Map<String, List<String>> viewsByElement;
+
+    // views requested by a suffix of their name, e.g., 'view-with-patterns.xml', resolved on first request
+    private final ConcurrentMap<String, String> viewsBySuffix = new ConcurrentHashMap<>();
+
+    private ViewIndex(String deploymentId, Map<String, String> resources, String initialView,
+            List<String> orderedViews, Map<String, List<String>> viewsByElement) {
+        this.deploymentId = deploymentId;
+        this.resources = resources;
+        this.initialView = initialView;
+        this.orderedViews = orderedViews;
+        this.viewsByElement = viewsByElement;
+
+        Map<String, String> resourceIdsByName = new HashMap<>();
+        for (Map.Entry<String, String> resource : resources.entrySet()) {
+            resourceIdsByName.putIfAbsent(resource.getValue(), resource.getKey());
+        }
+        this.resourceIdsByName = Collections.unmodifiableMap(resourceIdsByName);
+
+        Map<String, Integer> positionsByName = new HashMap<>();
+        for (int i = 0; i < orderedViews.size(); i++) {
+            positionsByName.put(orderedViews.get(i), i);
+        }
+        this.positionsByName = Collections.unmodifiableMap(positionsByName);
+    }
+
+    /**
+     * Create the index for the given resources of a deployment
+     *
+     * @param deploymentId the ID of the deployment the resources belong to
+     * @param resources    the map with IDs as key and names as values of the resources contained in the deployment
+     * @return the index of the views contained in the deployment
+     */
+    public static ViewIndex fromResources(String deploymentId, Map<String, String> resources) {
+        return fromResources(deploymentId, resources, Collections.emptyMap());
+    }
+
+    /**
+     * Create the index for the given resources of a deployment, including the views each BPMN element is contained in
+     *
+     * @param deploymentId   the ID of the deployment the resources belong to
+     * @param resources      the map with IDs as key and names as values of the resources contained in the deployment
+     * @param viewsByElement the map with IDs of BPMN elements as key and the names of the views containing them as
+     *                       values
+     * @return the index of the views contained in the deployment
+     */
+    public static ViewIndex fromResources(String deploymentId, Map<String, String> resources,
+            Map<String, List<String>> viewsByElement) {
+
+        // we use the first BPMN file within the resources as initial view
+        String initialView = resources.values().stream().filter(resourceName -> resourceName.endsWith(".bpmn"))
+                .findFirst().orElse(null);
+
+        // add BPMN file as initial view and sort remaining views using the resource
+        // names, html forms are no views
+        List<String> resourceNames = new ArrayList<>(resources.values());
+        resourceNames.removeIf(resourceName -> resourceName.endsWith(".html"));
+        resourceNames.remove(initialView);
+        Collections.sort(resourceNames);
+        List<String> orderedViews = new ArrayList<>();
+        if (initialView != null) {
+            orderedViews.add(initialView);
+        }
+        orderedViews.addAll(resourceNames);
+
+        return new ViewIndex(deploymentId, Collections.unmodifiableMap(new LinkedHashMap<>(resources)),
+                initialView, Collections.unmodifiableList(orderedViews), Collections.unmodifiableMap(viewsByElement));
+    }
+
+    public String getDeploymentId() {
+        return deploymentId;
+    }
+
+    /**
+     * @return the map with IDs as key and names as values of all resources contained in the deployment
+     */
+    public Map<String, String> getResources() {
+        return resources;
+    }
+
+    /**
+     * @return the name of the initial view, i.e., the workflow that is actually executed, or null if the deployment
+     *         does not contain a BPMN file
+     */
+    public String getInitialView() {
+        return initialView;
+    }
+
+    /**
+     * @return the names of all views starting with the initial view followed by the remaining views sorted by name
+     */
+    public List<String> getOrderedViews() {
+        return orderedViews;
+    }
+
+    /**
+     * Get the ID of the resource containing the view with the given name
+     *
+     * @param viewName the name of the view
+     * @return the ID of the resource or null if the deployment does not contain a resource with the given name
+     */
+    public String getResourceId(String viewName) {
+        return resourceIdsByName.get(viewName);
+    }
+
+    /**
+     * Get the name of the view contained in the resource with the given ID
+     *
+     * @param resourceId the ID of the resource
+     * @return the name of the view or null if the deployment does not contain a resource with the given ID
+     */
+    public String getViewName(String resourceId) {
+        return resources.get(resourceId);
+    }
+
+    /**
+     * Get the views containing the BPMN element with the given ID
+     *
+     * @param elementId the ID of the BPMN element
+     * @return the names of the views in the order of the ring, or an empty list if the element is not contained in
+     *         any view or the views were not indexed when the deployment was deployed
+     */
+    public List<String> getViewsForElement(String elementId) {
+        return viewsByElement.getOrDefault(elementId, Collections.emptyList());
+    }
+
+    /**
+     * @return the map with IDs of BPMN elements as key and the names of the views containing them as values, which is
+     *         empty if the views were not indexed when the deployment was deployed
+     */
+    public Map<String, List<String>> getViewsByElement() {
+        return viewsByElement;
+    }
+
+    /**
+     * Get the position of the given view within the ring of views
+     *
+     * @param viewName the name of the view
+     * @return the position of the view or -1 if the deployment does not contain the view
+     */
+    public int getPosition(String viewName) {
+        Integer position = positionsByName.get(viewName);
+        return position == null ? -1 : position;
+    }
+
+    /**
+     * Get the view following the given view, restarting with the initial view if the end of the ring is reached
+     *
+     * @param activeView the name of the currently active view
+     * @return the name of the next view, or the first view if the given view is not contained in the deployment
+     */
+    public String getNextView(String activeView) {
+        if (orderedViews.isEmpty()) {
+            return null;
+        }
+        return orderedViews.get((getPosition(activeView) + 1) % orderedViews.size());
+    }
+
+    /**
+     * Find the view with the given name or, if there is no such view, the first view whose name ends with the given
+     * name
+     *
+     * @param viewName the name or suffix of the name of the view to find
+     * @return the name of the found view or null if no view matches
+     */
+    public String findView(String viewName) {
+        if (positionsByName.containsKey(viewName)) {
+            return viewName;
+        }
+
+        String view = viewsBySuffix.get(viewName);
+        if (view == null) {
+            view = orderedViews.stream().filter(resource -> resource.endsWith(viewName)).findFirst().orElse(null);
+            if (view != null) {
+                viewsBySuffix.putIfAbsent(viewName, view);
+            }
+        }
+        return view;
+    }
+}
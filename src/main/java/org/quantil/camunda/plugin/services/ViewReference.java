@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.services;
+
+/**
+ * Reference to the deployment resource containing the XML of a process view
+ */
+public class ViewReference {
+
+    private final String deploymentId;
+
+    private final String resourceId;
+
+    private final String viewName;
+
+    public ViewReference(String deploymentId, String resourceId, String viewName) {
+        this.deploymentId = deploymentId;
+        this.resourceId = resourceId;
+        this.viewName = viewName;
+    }
+
+    public String getDeploymentId() {
+        return deploymentId;
+    }
+
+    public String getResourceId() {
+        return resourceId;
+    }
+
+    public String getViewName() {
+        return viewName;
+    }
+}
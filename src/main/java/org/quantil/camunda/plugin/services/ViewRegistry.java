@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.services;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.quantil.camunda.plugin.PluginConfiguration;
+import org.quantil.camunda.plugin.cache.LruCache;
+import org.quantil.camunda.plugin.metrics.PluginMetrics;
+
+/**
+ * Registry of the views contained in deployments, filled by the process engine plugin when a deployment is deployed
+ *
+ * Deployments missing in the registry, e.g., as the process engine plugin is not registered, are indexed on first
+ * request instead.
+ */
+public final class ViewRegistry {
+
+    private static final String BPMN_DI_NS = "http://www.omg.org/spec/BPMN/20100524/DI";
+
+    // keyed by the name of the process engine and the deployment ID, as deployment IDs are only unique per engine
+    private static final LruCache<String, ViewIndex> VIEW_INDEXES = PluginMetrics.registerCache(
+            new LruCache<>("view-registry", PluginConfiguration.getViewRegistrySize()));
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    private ViewRegistry() {
+    }
+
+    /**
+     * Index the views of a deployment and add the index to the registry
+     *
+     * @param engineName   the name of the process engine the deployment belongs to
+     * @param deploymentId the ID of the deployment
+     * @param resources    the map with IDs as key and names as values of the resources contained in the deployment
+     * @param resourceData the content of the resources by resource ID
+     * @return the index of the views contained in the deployment
+     */
+    public static ViewIndex register(String engineName, String deploymentId, Map<String, String> resources,
+            Map<String, byte[]> resourceData) {
+        // deployments are immutable, thus, a registered index is never replaced by one of a subset of the resources
+        String key = engineName + "/" + deploymentId;
+        ViewIndex registered = VIEW_INDEXES.get(key);
+        if (registered != null && registered.getResources().size() >= resources.size()) {
+            return registered;
+        }
+        ViewIndex viewIndex = ViewIndex.fromResources(deploymentId, resources);
+
+        // record the views containing each element, following the order of the views
+        Map<String, List<String>> viewsByElement = new HashMap<>();
+        for (String view : viewIndex.getOrderedViews()) {
+            byte[] data = resourceData.get(viewIndex.getResourceId(view));
+            if (data == null) {
+                continue;
+            }
+            try {
+                for (String elementId : findElementIds(data)) {
+                    viewsByElement.computeIfAbsent(elementId, id -> new ArrayList<>(1)).add(view);
+                }
+            } catch (XMLStreamException e) {
+                System.err.println("Unable to index elements of view " + view + " in deployment " + deploymentId + ": "
+                        + e.getMessage());
+            }
+        }
+        viewsByElement.replaceAll((elementId, views) -> Collections.unmodifiableList(views));
+
+        viewIndex = ViewIndex.fromResources(deploymentId, resources, viewsByElement);
+        VIEW_INDEXES.put(key, viewIndex);
+        System.out.println("Registered " + viewIndex.getOrderedViews().size() + " views with "
+                + viewsByElement.size() + " elements for deployment " + deploymentId + " of engine " + engineName);
+        return viewIndex;
+    }
+
+    /**
+     * @param engineName   the name of the process engine the deployment belongs to
+     * @param deploymentId the ID of the deployment
+     * @return the index of the views contained in the deployment, or null if the deployment is not registered
+     */
+    public static ViewIndex get(String engineName, String deploymentId) {
+        return VIEW_INDEXES.get(engineName + "/" + deploymentId);
+    }
+
+    /**
+     * @return the cache holding the registered view indexes keyed by engine name and deployment ID separated by '/'
+     */
+    public static LruCache<String, ViewIndex> getViewIndexes() {
+        return VIEW_INDEXES;
+    }
+
+    /**
+     * Find the IDs of the BPMN elements contained in a view, ignoring the elements of the diagram interchange which
+     * only reference them
+     */
+    static Set<String> findElementIds(byte[] xml) throws XMLStreamException {
+        Set<String> elementIds = new LinkedHashSet<>();
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(new ByteArrayInputStream(xml));
+        try {
+            int depth = 0;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    String elementId = reader.getAttributeValue(null, "id");
+                    // the root element is the definitions element, which is no flow element
+                    if (depth > 1 && elementId != null && !BPMN_DI_NS.equals(reader.getNamespaceURI())) {
+                        elementIds.add(elementId);
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return elementIds;
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        // views are uploaded by users, thus, neither DTDs nor external entities are resolved
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+}
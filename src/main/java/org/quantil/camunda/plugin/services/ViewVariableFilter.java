@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.services;
+
+/**
+ * Decides which variables of a process instance are displayed in a process view
+ */
+public final class ViewVariableFilter {
+
+    public static final String ACTIVE_VIEW_VARIABLE = "process-view-extension-active-view";
+
+    private static final String HYBRID_JOB_VARIABLE_PREFIX = "hybridJob-";
+
+    private static final String HYBRID_RUNTIME_VIEW = "view-before-rewriting";
+
+    private ViewVariableFilter() {
+    }
+
+    /**
+     * @param activeProcessView the name of the view the process instance is displayed in
+     * @param variableName      the name of the variable
+     * @return true if the variable is displayed in the view, false if it is internal to the plugin or only relevant for
+     *         the view visualizing hybrid runtimes
+     */
+    public static boolean isVisible(String activeProcessView, String variableName) {
+        if (ACTIVE_VIEW_VARIABLE.equals(variableName)) {
+            return false;
+        }
+        return !variableName.startsWith(HYBRID_JOB_VARIABLE_PREFIX)
+                || (activeProcessView != null && activeProcessView.contains(HYBRID_RUNTIME_VIEW));
+    }
+}
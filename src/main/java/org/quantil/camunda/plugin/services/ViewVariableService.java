@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.runtime.VariableInstance;
+import org.camunda.bpm.engine.runtime.VariableInstanceQuery;
+import org.camunda.bpm.engine.variable.value.FileValue;
+import org.camunda.bpm.engine.variable.value.ObjectValue;
+import org.camunda.bpm.engine.variable.value.SerializableValue;
+import org.camunda.bpm.engine.variable.value.TypedValue;
+import org.quantil.camunda.plugin.PluginConfiguration;
+import org.quantil.camunda.plugin.dtos.VariableValueDto;
+import org.quantil.camunda.plugin.dtos.ViewVariablesDto;
+
+/**
+ * Service to retrieve the variables of a process instance that are visible in a process view
+ *
+ * Variables are first queried without their binary values, which comprise file contents and serialized objects, and
+ * objects are never deserialized. Serialized values are only loaded for the variables that are actually returned.
+ */
+public class ViewVariableService {
+
+    private final RuntimeService runtimeService;
+
+    public ViewVariableService(RuntimeService runtimeService) {
+        this.runtimeService = runtimeService;
+    }
+
+    /**
+     * Get all variables of the process instance scope visible in the given view
+     *
+     * @param processInstanceId the ID of the process instance
+     * @param activeProcessView the name of the view the process instance is displayed in
+     * @return the visible variables with their complete values by name, ordered by name
+     */
+    public Map<String, VariableValueDto> getVisibleVariables(String processInstanceId, String activeProcessView) {
+        List<VariableInstance> variableInstances = findVisibleVariables(processInstanceId, activeProcessView, null);
+        Map<String, VariableValueDto> variables = new LinkedHashMap<>();
+        for (VariableValueDto variable : toVariableValueDtos(processInstanceId, variableInstances, -1)) {
+            variables.put(variable.getName(), variable);
+        }
+        return variables;
+    }
+
+    /**
+     * Get one page of the variables of the process instance scope visible in the given view
+     *
+     * @param processInstanceId the ID of the process instance
+     * @param activeProcessView the name of the view the process instance is displayed in
+     * @param nameFilter        a part of the name the variables must contain, or null to return all variables
+     * @param firstResult       the index of the first variable of the page
+     * @param maxResults        the maximum number of variables of the page
+     * @return the variables of the page ordered by name, with serialized values truncated to the preview length
+     */
+    public ViewVariablesDto getVisibleVariables(String processInstanceId, String activeProcessView, String nameFilter,
+            int firstResult, int maxResults) {
+        List<VariableInstance> variableInstances = findVisibleVariables(processInstanceId, activeProcessView,
+                nameFilter);
+        int fromIndex = Math.min(firstResult, variableInstances.size());
+        int toIndex = (int) Math.min((long) firstResult + maxResults, variableInstances.size());
+
+        ViewVariablesDto dto = new ViewVariablesDto();
+        dto.setActiveProcessView(activeProcessView);
+        dto.setFirstResult(firstResult);
+        dto.setMaxResults(maxResults);
+        dto.setCount(variableInstances.size());
+        dto.setVariables(toVariableValueDtos(processInstanceId, variableInstances.subList(fromIndex, toIndex),
+                PluginConfiguration.getVariablePreviewLength()));
+        return dto;
+    }
+
+    /**
+     * Get the complete value of a variable of the process instance scope, e.g., after its preview was truncated
+     *
+     * @param processInstanceId the ID of the process instance
+     * @param activeProcessView the name of the view the process instance is displayed in
+     * @param variableName      the name of the variable
+     * @return the variable, or null if it does not exist or is not visible in the given view
+     */
+    public VariableValueDto getVisibleVariable(String processInstanceId, String activeProcessView,
+            String variableName) {
+        if (!ViewVariableFilter.isVisible(activeProcessView, variableName)) {
+            return null;
+        }
+        VariableInstance variableInstance = runtimeService.createVariableInstanceQuery()
+                .variableScopeIdIn(processInstanceId)
+                .variableName(variableName)
+                .disableBinaryFetching()
+                .disableCustomObjectDeserialization()
+                .singleResult();
+        if (variableInstance == null) {
+            return null;
+        }
+        return toVariableValueDtos(processInstanceId, Collections.singletonList(variableInstance), -1).get(0);
+    }
+
+    private List<VariableInstance> findVisibleVariables(String processInstanceId, String activeProcessView,
+            String nameFilter) {
+        VariableInstanceQuery query = runtimeService.createVariableInstanceQuery()
+                .variableScopeIdIn(processInstanceId)
+                .disableBinaryFetching()
+                .disableCustomObjectDeserialization();
+        if (nameFilter != null && !nameFilter.isEmpty()) {
+            query.variableNameLike("%" + nameFilter + "%");
+        }
+        return query.orderByVariableName().asc().list().stream()
+                .filter(variableInstance -> ViewVariableFilter.isVisible(activeProcessView, variableInstance.getName()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Convert the given variables, loading the serialized values of objects using one query
+     *
+     * @param previewLength the maximum length of the returned values, or a negative number to return complete values
+     */
+    private List<VariableValueDto> toVariableValueDtos(String processInstanceId,
+            List<VariableInstance> variableInstances, int previewLength) {
+        String[] serializedVariableNames = variableInstances.stream()
+                .filter(variableInstance -> variableInstance.getTypedValue() instanceof SerializableValue)
+                .map(VariableInstance::getName)
+                .toArray(String[]::new);
+        Map<String, VariableInstance> serializedVariables = new HashMap<>();
+        if (serializedVariableNames.length > 0) {
+            List<VariableInstance> withValues = runtimeService.createVariableInstanceQuery()
+                    .variableScopeIdIn(processInstanceId)
+                    .variableNameIn(serializedVariableNames)
+                    .disableCustomObjectDeserialization()
+                    .list();
+            for (VariableInstance variableInstance : withValues) {
+                serializedVariables.put(variableInstance.getName(), variableInstance);
+            }
+        }
+
+        List<VariableValueDto> variables = new ArrayList<>(variableInstances.size());
+        for (VariableInstance variableInstance : variableInstances) {
+            variables.add(toVariableValueDto(
+                    serializedVariables.getOrDefault(variableInstance.getName(), variableInstance), previewLength));
+        }
+        return variables;
+    }
+
+    /**
+     * Convert the given variable into the representation used by the Camunda REST API, i.e., with capitalized type
+     * names, serialized objects, and only the name and MIME type of files
+     */
+    private static VariableValueDto toVariableValueDto(VariableInstance variableInstance, int previewLength) {
+        VariableValueDto dto = new VariableValueDto();
+        dto.setId(variableInstance.getId());
+        dto.setName(variableInstance.getName());
+        Map<String, Object> valueInfo = new HashMap<>();
+        TypedValue typedValue = variableInstance.getTypedValue();
+        if (typedValue == null) {
+            // the value could not be read, e.g., as the class of a serialized object is not available
+            dto.setType(variableInstance.getTypeName());
+            valueInfo.put("errorMessage", variableInstance.getErrorMessage());
+        } else {
+            String typeName = typedValue.getType().getName();
+            dto.setType(Character.toUpperCase(typeName.charAt(0)) + typeName.substring(1));
+            if (typedValue instanceof FileValue) {
+                FileValue fileValue = (FileValue) typedValue;
+                valueInfo.put("filename", fileValue.getFilename());
+                valueInfo.put("mimeType", fileValue.getMimeType());
+            } else if (typedValue instanceof SerializableValue) {
+                SerializableValue serializableValue = (SerializableValue) typedValue;
+                dto.setValue(truncate(serializableValue.isDeserialized() ? serializableValue.getValue()
+                        : serializableValue.getValueSerialized(), previewLength, valueInfo));
+                valueInfo.put("serializationDataFormat", serializableValue.getSerializationDataFormat());
+                if (typedValue instanceof ObjectValue) {
+                    valueInfo.put("objectTypeName", ((ObjectValue) typedValue).getObjectTypeName());
+                }
+            } else {
+                dto.setValue(truncate(typedValue.getValue(), previewLength, valueInfo));
+            }
+        }
+        dto.setValueInfo(valueInfo);
+        return dto;
+    }
+
+    private static Object truncate(Object value, int previewLength, Map<String, Object> valueInfo) {
+        if (previewLength < 0 || !(value instanceof String) || ((String) value).length() <= previewLength) {
+            return value;
+        }
+        String string = (String) value;
+        valueInfo.put("truncated", true);
+        valueInfo.put("length", string.length());
+        return string.substring(0, previewLength);
+    }
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Line-based difference between the XML of two views, computed using the algorithm of Myers
+ *
+ * The difference is represented by operations that reconstruct the target XML from the base XML: a copy operation
+ * is an array comprising the index of the first base line to copy and the number of lines, while an insert operation
+ * is the inserted text. Lines include their line break, thus, concatenating the results of the operations yields the
+ * target XML exactly.
+ */
+public class ViewXmlDiff {
+
+    private final List<Object> operations;
+
+    private final int targetLength;
+
+    private final int insertedLength;
+
+    private ViewXmlDiff(List<Object> operations, int targetLength, int insertedLength) {
+        this.operations = Collections.unmodifiableList(operations);
+        this.targetLength = targetLength;
+        this.insertedLength = insertedLength;
+    }
+
+    /**
+     * Compute the difference between the given XML documents
+     *
+     * @param base            the XML the client already has
+     * @param target          the XML to reconstruct
+     * @param maxEditDistance the maximum number of inserted and deleted lines to search for a minimal difference,
+     *                        if exceeded, only the common prefix and suffix of the documents are copied
+     * @return the difference
+     */
+    public static ViewXmlDiff compute(String base, String target, int maxEditDistance) {
+        List<String> baseLines = splitLines(base);
+        List<String> targetLines = splitLines(target);
+
+        // views usually share large parts, which are skipped before searching the edit path
+        int prefix = 0;
+        while (prefix < baseLines.size() && prefix < targetLines.size()
+                && baseLines.get(prefix).equals(targetLines.get(prefix))) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < baseLines.size() - prefix && suffix < targetLines.size() - prefix && baseLines
+                .get(baseLines.size() - 1 - suffix).equals(targetLines.get(targetLines.size() - 1 - suffix))) {
+            suffix++;
+        }
+
+        // lines are compared by IDs to avoid comparing their characters on each step
+        Map<String, Integer> lineIds = new HashMap<>();
+        int[] a = toLineIds(baseLines.subList(prefix, baseLines.size() - suffix), lineIds);
+        int[] b = toLineIds(targetLines.subList(prefix, targetLines.size() - suffix), lineIds);
+
+        Builder builder = new Builder(targetLines);
+        builder.copy(0, 0, prefix);
+        if (!findEditPath(a, b, maxEditDistance, prefix, builder)) {
+            builder.insert(prefix, targetLines.size() - suffix);
+        }
+        builder.copy(baseLines.size() - suffix, targetLines.size() - suffix, suffix);
+        return builder.build(target.length());
+    }
+
+    /**
+     * Find the shortest edit script between the given lines and add its operations to the builder
+     *
+     * @return false if the edit distance exceeds the given maximum, in which case no operations were added
+     */
+    private static boolean findEditPath(int[] a, int[] b, int maxEditDistance, int offset, Builder builder) {
+        int n = a.length;
+        int m = b.length;
+        int limit = Math.min(n + m, Math.max(0, maxEditDistance));
+
+        // furthest reaching x of each diagonal k, stored at index k + limit + 1, and its values before each step
+        int[] v = new int[2 * limit + 3];
+        List<int[]> trace = new ArrayList<>();
+        for (int d = 0; d <= limit; d++) {
+            // only the diagonals -d-1 to d+1 can be read when backtracking step d
+            int[] snapshot = new int[2 * d + 3];
+            System.arraycopy(v, limit - d, snapshot, 0, snapshot.length);
+            trace.add(snapshot);
+
+            for (int k = -d; k <= d; k += 2) {
+                int x;
+                if (k == -d || (k != d && v[k - 1 + limit + 1] < v[k + 1 + limit + 1])) {
+                    x = v[k + 1 + limit + 1];
+                } else {
+                    x = v[k - 1 + limit + 1] + 1;
+                }
+                int y = x - k;
+                while (x < n && y < m && a[x] == b[y]) {
+                    x++;
+                    y++;
+                }
+                v[k + limit + 1] = x;
+                if (x >= n && y >= m) {
+                    backtrack(trace, n, m, offset, builder);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void backtrack(List<int[]> trace, int n, int m, int offset, Builder builder) {
+        // edits are collected from the end, thus, they are reversed before adding them to the builder
+        List<int[]> edits = new ArrayList<>();
+        int x = n;
+        int y = m;
+        for (int d = trace.size() - 1; d > 0; d--) {
+            int[] v = trace.get(d);
+            int k = x - y;
+            int previousK;
+            if (k == -d || (k != d && v[k - 1 + d + 1] < v[k + 1 + d + 1])) {
+                previousK = k + 1;
+            } else {
+                previousK = k - 1;
+            }
+            int previousX = v[previousK + d + 1];
+            int previousY = previousX - previousK;
+            while (x > previousX && y > previousY) {
+                x--;
+                y--;
+                edits.add(new int[] { x, y, 1 });
+            }
+            if (previousK == k + 1) {
+                // line of the target is inserted
+                edits.add(new int[] { x, previousY, 0 });
+            }
+            x = previousX;
+            y = previousY;
+        }
+        while (x > 0 && y > 0) {
+            x--;
+            y--;
+            edits.add(new int[] { x, y, 1 });
+        }
+
+        for (int i = edits.size() - 1; i >= 0; i--) {
+            int[] edit = edits.get(i);
+            if (edit[2] == 1) {
+                builder.copy(offset + edit[0], offset + edit[1], 1);
+            } else {
+                builder.insert(offset + edit[1], offset + edit[1] + 1);
+            }
+        }
+    }
+
+    private static int[] toLineIds(List<String> lines, Map<String, Integer> lineIds) {
+        int[] ids = new int[lines.size()];
+        for (int i = 0; i < ids.length; i++) {
+            Integer id = lineIds.get(lines.get(i));
+            if (id == null) {
+                id = lineIds.size();
+                lineIds.put(lines.get(i), id);
+            }
+            ids[i] = id;
+        }
+        return ids;
+    }
+
+    /**
+     * Split the given text into lines, each including its terminating line break
+     */
+    static List<String> splitLines(String text) {
+        List<String> lines = new ArrayList<>();
+        int start = 0;
+        while (start < text.length()) {
+            int end = text.indexOf('\n', start);
+            end = end == -1 ? text.length() : end + 1;
+            lines.add(text.substring(start, end));
+            start = end;
+        }
+        return lines;
+    }
+
+    /**
+     * Apply the given operations to the base XML
+     *
+     * @param base       the base XML
+     * @param operations the operations of the difference
+     * @return the target XML
+     */
+    static String apply(String base, List<Object> operations) {
+        List<String> baseLines = splitLines(base);
+        StringBuilder target = new StringBuilder();
+        for (Object operation : operations) {
+            if (operation instanceof String) {
+                target.append((String) operation);
+            } else {
+                int[] copy = (int[]) operation;
+                for (int i = copy[0]; i < copy[0] + copy[1]; i++) {
+                    target.append(baseLines.get(i));
+                }
+            }
+        }
+        return target.toString();
+    }
+
+    /**
+     * @return the operations reconstructing the target XML, i.e., copied line ranges of the base XML as arrays and
+     *         inserted text as strings
+     */
+    public List<Object> getOperations() {
+        return operations;
+    }
+
+    /**
+     * @return the number of characters of the target XML
+     */
+    public int getTargetLength() {
+        return targetLength;
+    }
+
+    /**
+     * @return the number of characters of the target XML not copied from the base XML
+     */
+    public int getInsertedLength() {
+        return insertedLength;
+    }
+
+    /**
+     * Collects operations, merging adjacent copies of consecutive lines and adjacent insertions
+     */
+    private static final class Builder {
+
+        private final List<String> targetLines;
+
+        private final List<Object> operations = new ArrayList<>();
+
+        private final StringBuilder insertion = new StringBuilder();
+
+        private int insertedLength;
+
+        private int copyStart = -1;
+
+        private int copyCount;
+
+        private Builder(List<String> targetLines) {
+            this.targetLines = targetLines;
+        }
+
+        private void copy(int baseLine, int targetLine, int count) {
+            if (count == 0) {
+                return;
+            }
+            flushInsertion();
+            if (copyStart != -1 && copyStart + copyCount == baseLine) {
+                copyCount += count;
+            } else {
+                flushCopy();
+                copyStart = baseLine;
+                copyCount = count;
+            }
+        }
+
+        private void insert(int fromTargetLine, int toTargetLine) {
+            if (fromTargetLine >= toTargetLine) {
+                return;
+            }
+            flushCopy();
+            for (int i = fromTargetLine; i < toTargetLine; i++) {
+                insertion.append(targetLines.get(i));
+            }
+        }
+
+        private void flushCopy() {
+            if (copyStart != -1) {
+                operations.add(new int[] { copyStart, copyCount });
+                copyStart = -1;
+            }
+        }
+
+        private void flushInsertion() {
+            if (insertion.length() > 0) {
+                operations.add(insertion.toString());
+                insertedLength += insertion.length();
+                insertion.setLength(0);
+            }
+        }
+
+        private ViewXmlDiff build(int targetLength) {
+            flushCopy();
+            flushInsertion();
+            return new ViewXmlDiff(operations, targetLength, insertedLength);
+        }
+    }
+}
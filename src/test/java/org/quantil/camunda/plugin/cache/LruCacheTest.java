@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the eviction of least recently used entries and the expiry of entries after their time to live
+ */
+public class LruCacheTest {
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() {
+        LruCache<String, String> cache = new LruCache<>("lru", 2);
+        cache.put("a", "1");
+        cache.put("b", "2");
+
+        // reading an entry makes it the most recently used one
+        Assert.assertEquals("1", cache.get("a"));
+        cache.put("c", "3");
+
+        Assert.assertNull(cache.get("b"));
+        Assert.assertEquals("1", cache.get("a"));
+        Assert.assertEquals("3", cache.get("c"));
+        Assert.assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testEntriesExpireAfterTimeToLive() throws InterruptedException {
+        LruCache<String, String> cache = new LruCache<>("ttl", 10, 100);
+        cache.put("a", "1");
+        cache.put("b", "2", 0);
+        Assert.assertEquals("1", cache.get("a"));
+
+        Thread.sleep(200);
+        Assert.assertNull(cache.get("a"));
+        Assert.assertEquals(1, cache.getExpirationCount());
+        Assert.assertEquals(1, cache.size());
+
+        // entries stored without time to live are kept until they are evicted
+        Assert.assertEquals("2", cache.get("b"));
+    }
+
+    @Test
+    public void testEntryTimeToLiveOverridesDefault() throws InterruptedException {
+        LruCache<String, String> cache = new LruCache<>("ttl-override", 10, 60000);
+        cache.put("short", "1", 100);
+        cache.put("default", "2");
+
+        Thread.sleep(200);
+        Assert.assertNull(cache.get("short"));
+        Assert.assertEquals("2", cache.get("default"));
+    }
+
+    @Test
+    public void testCacheWithoutSizeIsDisabled() {
+        LruCache<String, String> cache = new LruCache<>("disabled", 0);
+        cache.put("a", "1");
+
+        Assert.assertNull(cache.get("a"));
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testEntriesMatchingConditionAreInvalidated() {
+        LruCache<String, String> cache = new LruCache<>("conditional", 10);
+        cache.put("engine-a/1", "1");
+        cache.put("engine-a/2", "2");
+        cache.put("engine-b/1", "3");
+
+        cache.invalidateIf(key -> key.startsWith("engine-a/"));
+
+        Assert.assertEquals(1, cache.size());
+        Assert.assertNull(cache.get("engine-a/1"));
+        Assert.assertEquals("3", cache.get("engine-b/1"));
+    }
+
+    @Test
+    public void testContainsKeyDoesNotCountHitsOrMisses() throws InterruptedException {
+        LruCache<String, String> cache = new LruCache<>("contains", 10, 100);
+        cache.put("a", "1");
+
+        Assert.assertTrue(cache.containsKey("a"));
+        Assert.assertFalse(cache.containsKey("b"));
+        Assert.assertEquals(0, cache.getHitCount());
+        Assert.assertEquals(0, cache.getMissCount());
+
+        Thread.sleep(200);
+        Assert.assertFalse(cache.containsKey("a"));
+    }
+}
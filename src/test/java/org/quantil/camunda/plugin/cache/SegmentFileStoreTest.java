@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the segment file store including the recovery of its index after a restart
+ */
+public class SegmentFileStoreTest {
+
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("segment-file-store");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testValuesAreReadFromActiveAndSealedSegments() throws IOException {
+        try (SegmentFileStore store = SegmentFileStore.open(directory, 1024 * 1024, 4096)) {
+            Assert.assertNull(store.open("deployment-1/view-1"));
+            for (int i = 0; i < 20; i++) {
+                Assert.assertTrue(store.put("deployment-1/view-" + i, toStream(xml(i))));
+            }
+
+            // the first views were moved to sealed segments while the last one is still in the active segment
+            for (int i = 0; i < 20; i++) {
+                Assert.assertEquals(xml(i), read(store.open("deployment-1/view-" + i)));
+            }
+            Assert.assertEquals(20, store.size());
+            Assert.assertEquals(20, store.getHitCount());
+            Assert.assertEquals(1, store.getMissCount());
+        }
+    }
+
+    @Test
+    public void testValuesAreRecoveredAfterRestart() throws IOException {
+        try (SegmentFileStore store = SegmentFileStore.open(directory, 1024 * 1024, 4096)) {
+            for (int i = 0; i < 20; i++) {
+                store.put("deployment-1/view-" + i, toStream(xml(i)));
+            }
+            store.put("deployment-1/view-0", toStream("<replaced/>"));
+        }
+
+        try (SegmentFileStore store = SegmentFileStore.open(directory, 1024 * 1024, 4096)) {
+            Assert.assertEquals(20, store.size());
+            Assert.assertEquals("<replaced/>", read(store.open("deployment-1/view-0")));
+            Assert.assertEquals(xml(19), read(store.open("deployment-1/view-19")));
+
+            // values appended after the restart are written to a new segment
+            store.put("deployment-2/view-0", toStream(xml(0)));
+            Assert.assertEquals(xml(0), read(store.open("deployment-2/view-0")));
+        }
+    }
+
+    @Test
+    public void testIncompleteRecordIsTruncated() throws IOException {
+        long sizeBytes;
+        try (SegmentFileStore store = SegmentFileStore.open(directory, 1024 * 1024, 1024 * 1024)) {
+            store.put("deployment-1/view-0", toStream(xml(0)));
+            sizeBytes = store.getSizeBytes();
+            store.put("deployment-1/view-1", toStream(xml(1)));
+        }
+
+        // simulate a crash while the second record was written
+        Path segment = directory.resolve("segment-0.dat");
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 10);
+        }
+
+        try (SegmentFileStore store = SegmentFileStore.open(directory, 1024 * 1024, 1024 * 1024)) {
+            Assert.assertEquals(1, store.size());
+            Assert.assertEquals(sizeBytes, store.getSizeBytes());
+            Assert.assertEquals(xml(0), read(store.open("deployment-1/view-0")));
+            Assert.assertNull(store.open("deployment-1/view-1"));
+
+            store.put("deployment-1/view-1", toStream(xml(1)));
+            Assert.assertEquals(xml(1), read(store.open("deployment-1/view-1")));
+        }
+    }
+
+    @Test
+    public void testOldestSegmentsAreEvicted() throws IOException {
+        try (SegmentFileStore store = SegmentFileStore.open(directory, 16 * 1024, 4096)) {
+            for (int i = 0; i < 200; i++) {
+                store.put("deployment-" + i + "/view", toStream(xml(i)));
+            }
+
+            Assert.assertTrue(store.getSizeBytes() <= 16 * 1024);
+            Assert.assertTrue(store.getEvictionCount() > 0);
+            Assert.assertNull(store.open("deployment-0/view"));
+            Assert.assertEquals(xml(199), read(store.open("deployment-199/view")));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testDirectoryIsNotSharedByProcesses() throws IOException {
+        try (SegmentFileStore store = SegmentFileStore.open(directory, 1024 * 1024, 4096)) {
+            SegmentFileStore.open(directory, 1024 * 1024, 4096).close();
+        }
+    }
+
+    @Test
+    public void testValuesAreReadWhileSegmentsAreSealed() throws Exception {
+        int writerCount = 4;
+        int valuesPerWriter = 300;
+        try (SegmentFileStore store = SegmentFileStore.open(directory, 64 * 1024 * 1024, 4096)) {
+            // the index of the last value written by each writer, which is likely still in the active segment
+            AtomicIntegerArray written = new AtomicIntegerArray(writerCount);
+            for (int w = 0; w < writerCount; w++) {
+                written.set(w, -1);
+            }
+            Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+            List<Thread> writers = new ArrayList<>();
+            for (int w = 0; w < writerCount; w++) {
+                int writer = w;
+                writers.add(new Thread(() -> {
+                    try {
+                        for (int i = 0; i < valuesPerWriter; i++) {
+                            Assert.assertTrue(store.put("writer-" + writer + "/view-" + i,
+                                    toStream(xml(writer * valuesPerWriter + i))));
+                            written.set(writer, i);
+                        }
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                }));
+            }
+            List<Thread> readers = new ArrayList<>();
+            for (int r = 0; r < 4; r++) {
+                readers.add(new Thread(() -> {
+                    try {
+                        while (writers.stream().anyMatch(Thread::isAlive)) {
+                            int writer = ThreadLocalRandom.current().nextInt(writerCount);
+                            int i = written.get(writer);
+                            if (i >= 0) {
+                                Assert.assertEquals(xml(writer * valuesPerWriter + i),
+                                        read(store.open("writer-" + writer + "/view-" + i)));
+                            }
+                        }
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                }));
+            }
+            writers.forEach(Thread::start);
+            readers.forEach(Thread::start);
+            for (Thread thread : writers) {
+                thread.join();
+            }
+            for (Thread thread : readers) {
+                thread.join();
+            }
+
+            Assert.assertTrue("Concurrent access failed: " + failures, failures.isEmpty());
+            Assert.assertEquals(writerCount * valuesPerWriter, store.size());
+        }
+    }
+
+    @Test
+    public void testValuesAreRejectedAfterClose() throws IOException {
+        SegmentFileStore store = SegmentFileStore.open(directory, 1024 * 1024, 4096);
+        store.close();
+
+        Assert.assertFalse(store.put("deployment-1/view-1", toStream(xml(1))));
+        Assert.assertNull(store.open("deployment-1/view-1"));
+        try (Stream<Path> segments = Files.list(directory)) {
+            Assert.assertFalse(segments.anyMatch(file -> file.getFileName().toString().startsWith("segment-")));
+        }
+    }
+
+    private static String xml(int view) {
+        StringBuilder xml = new StringBuilder("<bpmn:definitions id=\"view-" + view + "\">");
+        for (int i = 0; i < 50; i++) {
+            xml.append("<bpmn:task id=\"Task_").append(view).append('_').append(i).append("\"/>");
+        }
+        return xml.append("</bpmn:definitions>").toString();
+    }
+
+    private static InputStream toStream(String value) {
+        return new ByteArrayInputStream(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(InputStream stream) throws IOException {
+        Assert.assertNotNull(stream);
+        ByteArrayOutputStream value = new ByteArrayOutputStream();
+        try (InputStream input = stream) {
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                value.write(buffer, 0, read);
+            }
+        }
+        return new String(value.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
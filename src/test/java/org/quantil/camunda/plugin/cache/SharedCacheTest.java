@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.cache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.camunda.bpm.cockpit.Cockpit;
+import org.camunda.bpm.cockpit.db.CommandExecutor;
+import org.camunda.bpm.cockpit.plugin.test.AbstractCockpitPluginTest;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the shared cache against the H2 database of the test engine, simulating two Cockpit nodes by two instances
+ * of the cache for the same region
+ */
+public class SharedCacheTest extends AbstractCockpitPluginTest {
+
+    private static final AtomicInteger REGIONS = new AtomicInteger();
+
+    private String region;
+
+    private CommandExecutor commandExecutor;
+
+    @Before
+    public void setUp() {
+        // each test uses its own region, as the database is shared by all tests
+        region = "test-" + REGIONS.incrementAndGet();
+        commandExecutor = Cockpit.getCommandExecutor(getProcessEngine().getName());
+    }
+
+    @Test
+    public void testValuesAreSharedBetweenNodes() {
+        SharedCache node1 = new SharedCache(getProcessEngine().getName(), region, commandExecutor, () -> { }, 0);
+        SharedCache node2 = new SharedCache(getProcessEngine().getName(), region, commandExecutor, () -> { }, 0);
+
+        Assert.assertNull(node2.get("deployment-1"));
+        node1.put("deployment-1", "{\"views\":1}");
+        Assert.assertEquals("{\"views\":1}", node2.get("deployment-1"));
+
+        node2.put("deployment-1", "{\"views\":2}");
+        Assert.assertEquals("{\"views\":2}", node1.get("deployment-1"));
+        Assert.assertNull(node1.get("deployment-2"));
+    }
+
+    @Test
+    public void testKeysLongerThanColumnAreSupported() {
+        SharedCache cache = new SharedCache(getProcessEngine().getName(), region, commandExecutor, () -> { }, 0);
+        StringBuilder url = new StringBuilder("http://opentosca:1337/csars/");
+        for (int i = 0; i < 100; i++) {
+            url.append("segment").append(i).append('/');
+        }
+
+        cache.put(url.toString(), "FINISHED");
+        Assert.assertEquals("FINISHED", cache.get(url.toString()));
+        Assert.assertNull(cache.get(url.toString() + "other"));
+    }
+
+    @Test
+    public void testInvalidationClearsNearCachesOfOtherNodes() {
+        AtomicInteger node1Invalidations = new AtomicInteger();
+        AtomicInteger node2Invalidations = new AtomicInteger();
+        SharedCache node1 = new SharedCache(getProcessEngine().getName(), region, commandExecutor,
+                node1Invalidations::incrementAndGet, 0);
+        SharedCache node2 = new SharedCache(getProcessEngine().getName(), region, commandExecutor,
+                node2Invalidations::incrementAndGet, 0);
+        node1.put("deployment-1", "catalog");
+
+        // the first check only records the current version
+        node2.checkVersion();
+        Assert.assertEquals(0, node2Invalidations.get());
+
+        node1.invalidate("deployment-1");
+        Assert.assertEquals(1, node1Invalidations.get());
+        Assert.assertNull(node2.get("deployment-1"));
+        Assert.assertEquals(1, node2Invalidations.get());
+
+        // the version did not change since the last check
+        node2.checkVersion();
+        Assert.assertEquals(1, node2Invalidations.get());
+    }
+
+    @Test
+    public void testVersionIncrementInvalidatesSharedEntries() {
+        SharedCache node1 = new SharedCache(getProcessEngine().getName(), region, commandExecutor, () -> { }, 0);
+        SharedCache node2 = new SharedCache(getProcessEngine().getName(), region, commandExecutor, () -> { },
+                60000);
+        node2.put("deployment-1", "catalog");
+        Assert.assertEquals("catalog", node2.get("deployment-1"));
+
+        // entries written with an outdated version are misses, even before the node checks the version again
+        node1.invalidate("deployment-2");
+        Assert.assertNull(node2.get("deployment-1"));
+        Assert.assertNull(node1.get("deployment-1"));
+
+        // entries written with the current version are valid again
+        node1.put("deployment-1", "new catalog");
+        Assert.assertEquals("new catalog", node2.get("deployment-1"));
+    }
+
+    @Test
+    public void testVersionIsOnlyCheckedAfterInterval() {
+        AtomicInteger invalidations = new AtomicInteger();
+        SharedCache node1 = new SharedCache(getProcessEngine().getName(), region, commandExecutor, () -> { }, 0);
+        SharedCache node2 = new SharedCache(getProcessEngine().getName(), region, commandExecutor,
+                invalidations::incrementAndGet, 60000);
+
+        node2.checkVersion();
+        node1.invalidate("deployment-1");
+        node2.checkVersion();
+        Assert.assertEquals(0, invalidations.get());
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.cache;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the coalescing of concurrent calls for the same key and the propagation of their failures
+ */
+public class SingleFlightTest {
+
+    @Test
+    public void testConcurrentCallsForSameKeyAreCoalesced() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("coalesced");
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> first = executor.submit(() -> singleFlight.execute("key", () -> {
+                executions.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "result";
+            }));
+            Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // the later callers wait for the result of the call in flight instead of executing their own call
+            List<Future<String>> waiting = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                waiting.add(executor.submit(() -> singleFlight.execute("key", () -> {
+                    executions.incrementAndGet();
+                    return "other";
+                })));
+            }
+            while (singleFlight.getCoalescedCount() < 3) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            Assert.assertEquals("result", first.get(5, TimeUnit.SECONDS));
+            for (Future<String> future : waiting) {
+                Assert.assertEquals("result", future.get(5, TimeUnit.SECONDS));
+            }
+            Assert.assertEquals(1, executions.get());
+            Assert.assertEquals(1, singleFlight.getExecutedCount());
+            Assert.assertEquals(0, singleFlight.getInFlightCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCompletedCallsAreExecutedAgain() throws IOException {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>("sequential");
+        AtomicInteger executions = new AtomicInteger();
+
+        Assert.assertEquals(Integer.valueOf(1), singleFlight.execute("key", executions::incrementAndGet));
+        Assert.assertEquals(Integer.valueOf(2), singleFlight.execute("key", executions::incrementAndGet));
+        Assert.assertEquals(0, singleFlight.getCoalescedCount());
+    }
+
+    @Test
+    public void testFailureIsPropagatedToAllCallers() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("failed");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(() -> singleFlight.execute("key", () -> {
+                started.countDown();
+                await(release);
+                throw new IOException("unavailable");
+            }));
+            Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<String> waiting = executor.submit(() -> singleFlight.execute("key", () -> "other"));
+            while (singleFlight.getCoalescedCount() < 1) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            assertFailedWith(first, IOException.class);
+            assertFailedWith(waiting, IOException.class);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // runtime exceptions are rethrown unchanged, and the key can be used again afterwards
+        try {
+            singleFlight.execute("key", () -> {
+                throw new IllegalStateException("invalid");
+            });
+            Assert.fail("Exception of the call was not propagated");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("invalid", e.getMessage());
+        }
+        Assert.assertEquals("result", singleFlight.execute("key", () -> "result"));
+    }
+
+    private static void await(CountDownLatch latch) throws IOException {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException();
+        }
+    }
+
+    private static void assertFailedWith(Future<?> future, Class<? extends Exception> expected) throws Exception {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            Assert.fail("Call did not fail");
+        } catch (ExecutionException e) {
+            Assert.assertTrue("Unexpected failure: " + e.getCause(), expected.isInstance(e.getCause()));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.client;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the state transitions of the circuit breaker and the limit of its bulkhead
+ */
+public class CircuitBreakerTest {
+
+    @Test
+    public void testCircuitOpensAfterFailureThreshold() throws Exception {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("threshold.example.org", 3, 60000, 10);
+        circuitBreaker.acquire().failed();
+        circuitBreaker.acquire().failed();
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        // a success resets the consecutive failures
+        circuitBreaker.acquire().succeeded();
+        circuitBreaker.acquire().failed();
+        circuitBreaker.acquire().failed();
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        circuitBreaker.acquire().failed();
+        Assert.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        // checking the state is no request and, thus, no rejection
+        Assert.assertTrue(circuitBreaker.isOpen());
+        Assert.assertEquals(0, circuitBreaker.getRejectionCount());
+        assertRejected(circuitBreaker);
+    }
+
+    @Test
+    public void testOnlyOneProbeIsLetThroughWhenHalfOpen() throws Exception {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("probe.example.org", 1, 0, 10);
+        circuitBreaker.acquire().failed();
+        Assert.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        CircuitBreaker.Permit probe = circuitBreaker.acquire();
+        Assert.assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertRejected(circuitBreaker);
+
+        probe.succeeded();
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        circuitBreaker.acquire().succeeded();
+    }
+
+    @Test
+    public void testFailedProbeOpensCircuitAgain() throws Exception {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("reopen.example.org", 1, 200, 10);
+        circuitBreaker.acquire().failed();
+        assertRejected(circuitBreaker);
+
+        Thread.sleep(300);
+        CircuitBreaker.Permit probe = circuitBreaker.acquire();
+        Assert.assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        probe.failed();
+
+        // the open duration starts again with the failed probe
+        Assert.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        Assert.assertTrue(circuitBreaker.isOpen());
+        assertRejected(circuitBreaker);
+    }
+
+    @Test
+    public void testBulkheadRejectsRequestsAboveLimit() throws Exception {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("bulkhead.example.org", 5, 60000, 2);
+        CircuitBreaker.Permit first = circuitBreaker.acquire();
+        circuitBreaker.acquire();
+        assertRejected(circuitBreaker);
+
+        // rejected requests neither count as failures nor block the released permit
+        first.succeeded();
+        circuitBreaker.acquire();
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        Assert.assertEquals(1, circuitBreaker.getRejectionCount());
+    }
+
+    private static void assertRejected(CircuitBreaker circuitBreaker) {
+        try {
+            circuitBreaker.acquire();
+            Assert.fail("Request to " + circuitBreaker.getHost() + " was not rejected");
+        } catch (OpenToscaUnavailableException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.engine;
+
+import java.util.Collections;
+
+import org.camunda.bpm.cockpit.plugin.test.AbstractCockpitPluginTest;
+import org.camunda.bpm.engine.RepositoryService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.repository.Deployment;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.quantil.camunda.plugin.services.ViewIndex;
+import org.quantil.camunda.plugin.services.ViewRegistry;
+
+/**
+ * Tests that the views of a deployment are indexed completely, also when the process engine loads the deployment into
+ * its deployment cache again and only passes the resources of the process definition to the deployers
+ */
+public class ViewRegistryDeployerTest extends AbstractCockpitPluginTest {
+
+    private RepositoryService repositoryService;
+
+    private Deployment deployment;
+
+    @Before
+    public void setUp() {
+        repositoryService = getProcessEngine().getRepositoryService();
+        deployment = repositoryService.createDeployment()
+                .addString("workflow.bpmn", process("Workflow"))
+                .addString("view-with-patterns.xml", process("Workflow"))
+                .addString("view-before-rewriting.xml", process("Workflow"))
+                .deploy();
+    }
+
+    @After
+    public void tearDown() {
+        repositoryService.deleteDeployment(deployment.getId(), true);
+    }
+
+    @Test
+    public void testViewsAreRegisteredOnDeployment() {
+        ViewIndex viewIndex = getRegisteredViewIndex();
+        Assert.assertNotNull(viewIndex);
+        Assert.assertEquals(3, viewIndex.getOrderedViews().size());
+        Assert.assertEquals("workflow.bpmn", viewIndex.getInitialView());
+    }
+
+    @Test
+    public void testAllViewsAreRegisteredWhenDeploymentCacheIsReloaded() {
+        // simulate a restart, after which the registry is empty and the deployment cache is reloaded on first access
+        ViewRegistry.getViewIndexes().invalidate(getProcessEngine().getName() + "/" + deployment.getId());
+        reloadDeploymentCache();
+
+        ViewIndex viewIndex = getRegisteredViewIndex();
+        Assert.assertNotNull(viewIndex);
+        Assert.assertEquals(3, viewIndex.getOrderedViews().size());
+        Assert.assertEquals("view-before-rewriting.xml", viewIndex.getNextView("workflow.bpmn"));
+    }
+
+    @Test
+    public void testRegisteredViewsAreNotReplacedBySubset() {
+        reloadDeploymentCache();
+        Assert.assertEquals(3, getRegisteredViewIndex().getOrderedViews().size());
+
+        String resourceId = getRegisteredViewIndex().getResourceId("workflow.bpmn");
+        ViewRegistry.register(getProcessEngine().getName(), deployment.getId(),
+                Collections.singletonMap(resourceId, "workflow.bpmn"), Collections.<String, byte[]>emptyMap());
+        Assert.assertEquals(3, getRegisteredViewIndex().getOrderedViews().size());
+    }
+
+    @Test
+    public void testDeploymentsOfOtherEnginesAreRegisteredSeparately() {
+        // another engine may create a deployment with the same ID in its own database
+        ViewRegistry.register("other-engine", deployment.getId(), Collections.singletonMap("1", "other.bpmn"),
+                Collections.<String, byte[]>emptyMap());
+
+        Assert.assertEquals(3, getRegisteredViewIndex().getOrderedViews().size());
+        Assert.assertEquals("other.bpmn", ViewRegistry.get("other-engine", deployment.getId()).getInitialView());
+        ViewRegistry.getViewIndexes().invalidate("other-engine/" + deployment.getId());
+    }
+
+    private ViewIndex getRegisteredViewIndex() {
+        return ViewRegistry.get(getProcessEngine().getName(), deployment.getId());
+    }
+
+    private void reloadDeploymentCache() {
+        ProcessEngineConfigurationImpl configuration = (ProcessEngineConfigurationImpl) getProcessEngine()
+                .getProcessEngineConfiguration();
+        configuration.getDeploymentCache().discardProcessDefinitionCache();
+        String processDefinitionId = repositoryService.createProcessDefinitionQuery()
+                .deploymentId(deployment.getId()).singleResult().getId();
+        repositoryService.getProcessDefinition(processDefinitionId);
+    }
+
+    private static String process(String id) {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<bpmn:definitions xmlns:bpmn=\"http://www.omg.org/spec/BPMN/20100524/MODEL\" id=\"Definitions_1\""
+                + " targetNamespace=\"http://bpmn.io/schema/bpmn\">\n"
+                + "  <bpmn:process id=\"" + id + "\" isExecutable=\"true\">\n"
+                + "    <bpmn:startEvent id=\"StartEvent_1\"/>\n"
+                + "  </bpmn:process>\n"
+                + "</bpmn:definitions>\n";
+    }
+}
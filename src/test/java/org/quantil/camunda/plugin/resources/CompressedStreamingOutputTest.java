@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.resources;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the negotiation of the content encoding and the compression of streamed responses
+ */
+public class CompressedStreamingOutputTest {
+
+    private static final String XML = "<bpmn:definitions><bpmn:process id=\"Process_1\"/></bpmn:definitions>";
+
+    @Test
+    public void testGzipIsPreferredOverDeflate() {
+        Assert.assertEquals("gzip", CompressedStreamingOutput.negotiateContentEncoding("deflate, gzip"));
+        Assert.assertEquals("gzip", CompressedStreamingOutput.negotiateContentEncoding("gzip, deflate, br"));
+        Assert.assertEquals("gzip", CompressedStreamingOutput.negotiateContentEncoding("x-gzip"));
+        Assert.assertEquals("gzip", CompressedStreamingOutput.negotiateContentEncoding("GZIP;q=0.5"));
+        Assert.assertEquals("deflate", CompressedStreamingOutput.negotiateContentEncoding("deflate"));
+    }
+
+    @Test
+    public void testRejectedOrUnsupportedEncodingsAreNotUsed() {
+        Assert.assertNull(CompressedStreamingOutput.negotiateContentEncoding(null));
+        Assert.assertNull(CompressedStreamingOutput.negotiateContentEncoding(""));
+        Assert.assertNull(CompressedStreamingOutput.negotiateContentEncoding("br, identity"));
+        Assert.assertNull(CompressedStreamingOutput.negotiateContentEncoding("gzip;q=0, deflate; q=0.000"));
+        Assert.assertEquals("deflate", CompressedStreamingOutput.negotiateContentEncoding("gzip; q=0.0, deflate"));
+    }
+
+    @Test
+    public void testContentIsCompressedWithNegotiatedEncoding() throws IOException {
+        Assert.assertEquals(XML, new String(write(null), StandardCharsets.UTF_8));
+        Assert.assertEquals(XML, read(new GZIPInputStream(new ByteArrayInputStream(write("gzip")))));
+        Assert.assertEquals(XML, read(new InflaterInputStream(new ByteArrayInputStream(write("deflate")))));
+    }
+
+    private static byte[] write(String contentEncoding) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new CompressedStreamingOutput(new ByteArrayInputStream(XML.getBytes(StandardCharsets.UTF_8)),
+                contentEncoding).write(output);
+        return output.toByteArray();
+    }
+
+    private static String read(InputStream stream) throws IOException {
+        ByteArrayOutputStream value = new ByteArrayOutputStream();
+        try (InputStream input = stream) {
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                value.write(buffer, 0, read);
+            }
+        }
+        return new String(value.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,312 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.resources;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriInfo;
+
+import org.camunda.bpm.cockpit.plugin.test.AbstractCockpitPluginTest;
+import org.camunda.bpm.engine.OptimisticLockingException;
+import org.camunda.bpm.engine.RepositoryService;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.repository.DeploymentBuilder;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.quantil.camunda.plugin.client.OpenToscaClient;
+import org.quantil.camunda.plugin.dto.DeploymentInformation;
+import org.quantil.camunda.plugin.services.DeploymentDescriptor;
+import org.quantil.camunda.plugin.services.DeploymentInformationService;
+import org.quantil.camunda.plugin.services.MemoizingDeploymentResourceResolver;
+import org.quantil.camunda.plugin.services.ProcessViewService;
+
+/**
+ * Load test requesting the active view, changing views, and retrieving deployment information for many process
+ * instances concurrently, as done by multiple Cockpit users at the same time
+ *
+ * The defaults keep the test short, larger loads can be configured using system properties, e.g.,
+ * mvn test -Dtest=ConcurrentEndpointLoadTest -Dload-test.requests=20000 -Dload-test.threads=32
+ */
+public class ConcurrentEndpointLoadTest extends AbstractCockpitPluginTest {
+
+    private static final String ACTIVE_VIEW_VARIABLE = "process-view-extension-active-view";
+
+    private static final int PROCESS_DEFINITIONS = Integer.getInteger("load-test.process-definitions", 2);
+
+    private static final int VIEWS = Integer.getInteger("load-test.views", 5);
+
+    private static final int DEPLOYMENTS = Integer.getInteger("load-test.deployments", 3);
+
+    private static final int PROCESS_INSTANCES = Integer.getInteger("load-test.process-instances", 20);
+
+    private static final int THREADS = Integer.getInteger("load-test.threads", 8);
+
+    private static final int REQUESTS = Integer.getInteger("load-test.requests", 400);
+
+    private static final long OPENTOSCA_LATENCY_MILLIS = Long.getLong("load-test.opentosca.latency-millis", 5L);
+
+    private static final double OPENTOSCA_ERROR_RATE = Double.parseDouble(
+            System.getProperty("load-test.opentosca.error-rate", "0.05"));
+
+    private static final int OPENTOSCA_LOG_ENTRIES = Integer.getInteger("load-test.opentosca.log-entries", 50);
+
+    private static final UriInfo URI_INFO = (UriInfo) Proxy.newProxyInstance(UriInfo.class.getClassLoader(),
+            new Class<?>[] { UriInfo.class }, (proxy, method, args) -> "getAbsolutePath".equals(method.getName())
+                    ? URI.create("http://localhost:8080/camunda/api/cockpit/plugin/" + ProcessViewPluginRootResource.class.getSimpleName())
+                    : null);
+
+    // the simulated users do not send preconditions, thus, always receive the complete payload
+    private static final Request REQUEST = (Request) Proxy.newProxyInstance(Request.class.getClassLoader(),
+            new Class<?>[] { Request.class }, (proxy, method, args) -> null);
+
+    private OpenToscaStubServer openTosca;
+
+    private final List<String> deploymentIds = new ArrayList<>();
+
+    private final List<String> processInstanceIds = new ArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        // fetch the running deployments for every request instead of serving them from the cache
+        System.setProperty("process-views.opentosca.running-state-ttl-millis", "0");
+        openTosca = new OpenToscaStubServer(OPENTOSCA_LATENCY_MILLIS, OPENTOSCA_ERROR_RATE, OPENTOSCA_LOG_ENTRIES,
+                THREADS * DEPLOYMENTS);
+
+        RepositoryService repositoryService = getProcessEngine().getRepositoryService();
+        for (int definition = 0; definition < PROCESS_DEFINITIONS; definition++) {
+            String processId = "load-test-" + definition;
+            DeploymentBuilder deployment = repositoryService.createDeployment()
+                    .name(processId)
+                    .addString("workflow.bpmn", createWorkflow(processId, definition));
+            for (int view = 0; view < VIEWS; view++) {
+                deployment.addString(getViewName(view), createWorkflow(processId + "-view-" + view, definition));
+            }
+            deploymentIds.add(deployment.deploy().getId());
+        }
+
+        RuntimeService runtimeService = getProcessEngine().getRuntimeService();
+        for (int instance = 0; instance < PROCESS_INSTANCES; instance++) {
+            processInstanceIds.add(runtimeService.startProcessInstanceByKey("load-test-" + instance % PROCESS_DEFINITIONS).getId());
+        }
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty("process-views.opentosca.running-state-ttl-millis");
+        openTosca.close();
+        for (String deploymentId : deploymentIds) {
+            getProcessEngine().getRepositoryService().deleteDeployment(deploymentId, true);
+        }
+
+        // the caches are shared by all resources, thus, remove the entries of the deleted deployments
+        ProcessViewService.getViewIndexCache().invalidateAll();
+        MemoizingDeploymentResourceResolver.getProcessInstanceDeploymentCache().invalidateAll();
+        DeploymentInformationService.getDescriptorCache().invalidateAll();
+        OpenToscaClient.getResponseCache().invalidateAll();
+    }
+
+    @Test
+    public void testConcurrentRequests() throws Exception {
+        String engineName = getProcessEngine().getName();
+
+        // initialize the active view of all process instances as done when they are opened in Cockpit the first time
+        for (String processInstanceId : processInstanceIds) {
+            new ProcessViewPluginRootResource().getCurrentlyActiveProcessView(URI_INFO, REQUEST, engineName, processInstanceId);
+        }
+
+        List<EndpointStatistics> statistics = new ArrayList<>();
+        EndpointStatistics activeView = new EndpointStatistics("active-view");
+        EndpointStatistics changeView = new EndpointStatistics("change-view");
+        EndpointStatistics selectView = new EndpointStatistics("view/{viewName}");
+        EndpointStatistics deploymentInfo = new EndpointStatistics("deployment-info");
+        Collections.addAll(statistics, activeView, changeView, selectView, deploymentInfo);
+        AtomicReference<Exception> firstError = new AtomicReference<>();
+
+        ExecutorService users = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> requests = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            EndpointStatistics endpoint = statistics.get(i % statistics.size());
+            requests.add(users.submit(() -> {
+                String processInstanceId = processInstanceIds.get(ThreadLocalRandom.current().nextInt(processInstanceIds.size()));
+                long requestStart = System.nanoTime();
+                try {
+                    boolean degraded = false;
+                    if (endpoint == deploymentInfo) {
+                        // deployments failing in OpenTOSCA are omitted or reported with state TIMEOUT
+                        List<DeploymentInformation> deployments = new OpenToscaRootResource().getDeploymentInformation(
+                                engineName, processInstanceId, null, null, 0);
+                        degraded = deployments.size() < DEPLOYMENTS || deployments.stream()
+                                .anyMatch(deployment -> DeploymentInformationService.STATE_TIMEOUT.equals(deployment.getBuildPlanState()));
+                    } else {
+                        Response response;
+                        if (endpoint == activeView) {
+                            response = new ProcessViewPluginRootResource().getCurrentlyActiveProcessView(URI_INFO, REQUEST,
+                                    engineName, processInstanceId);
+                        } else if (endpoint == changeView) {
+                            response = new ProcessViewPluginRootResource().switchToNextProcessView(URI_INFO, engineName,
+                                    processInstanceId);
+                        } else {
+                            response = new ProcessViewPluginRootResource().getSpecifiedProcessView(URI_INFO, engineName,
+                                    processInstanceId, getViewName(ThreadLocalRandom.current().nextInt(VIEWS)));
+                        }
+                        if (response.getStatus() != 200) {
+                            throw new IllegalStateException(endpoint.name + " returned status code " + response.getStatus());
+                        }
+                    }
+                    endpoint.record(System.nanoTime() - requestStart, degraded);
+                } catch (OptimisticLockingException e) {
+                    // users changing the view of the same process instance at the same time
+                    endpoint.conflicts.incrementAndGet();
+                } catch (Exception e) {
+                    endpoint.errors.incrementAndGet();
+                    firstError.compareAndSet(null, e);
+                }
+            }));
+        }
+        for (Future<?> request : requests) {
+            request.get();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        users.shutdown();
+        users.awaitTermination(10, TimeUnit.SECONDS);
+
+        System.out.println(String.format("%d requests for %d process instances using %d threads in %.2f s (%.1f requests/s)",
+                REQUESTS, PROCESS_INSTANCES, THREADS, seconds, REQUESTS / seconds));
+        System.out.println(String.format("OpenTOSCA stub: %d requests, %d injected errors, %d ms latency",
+                openTosca.getRequestCount(), openTosca.getInjectedErrorCount(), OPENTOSCA_LATENCY_MILLIS));
+        System.out.println(String.format("%-16s %9s %12s %9s %9s %7s %10s %9s", "endpoint", "requests", "requests/s",
+                "p50 ms", "p99 ms", "errors", "conflicts", "degraded"));
+        for (EndpointStatistics endpoint : statistics) {
+            System.out.println(endpoint.format(seconds));
+        }
+
+        if (firstError.get() != null) {
+            throw new AssertionError("Requests failed unexpectedly", firstError.get());
+        }
+        Assert.assertTrue(openTosca.getRequestCount() > 0);
+        if (OPENTOSCA_ERROR_RATE == 0) {
+            Assert.assertEquals(0, deploymentInfo.degraded.get());
+        }
+        for (String processInstanceId : processInstanceIds) {
+            Assert.assertNotNull(getProcessEngine().getRuntimeService().getVariable(processInstanceId, ACTIVE_VIEW_VARIABLE));
+        }
+    }
+
+    private static String getViewName(int view) {
+        switch (view) {
+        case 0:
+            return "view-with-patterns.xml";
+        case 1:
+            return "view-before-rewriting.xml";
+        default:
+            return "view-" + view + ".xml";
+        }
+    }
+
+    /**
+     * Create a workflow waiting in a user task, followed by service tasks using deployments served by the OpenTOSCA
+     * stub
+     */
+    private String createWorkflow(String processId, int definition) {
+        StringBuilder xml = new StringBuilder()
+                .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<bpmn:definitions xmlns:bpmn=\"http://www.omg.org/spec/BPMN/20100524/MODEL\"")
+                .append(" xmlns:camunda=\"http://camunda.org/schema/1.0/bpmn\"")
+                .append(" xmlns:opentosca=\"").append(DeploymentDescriptor.OPENTOSCA_NS).append("\"")
+                .append(" id=\"Definitions_").append(processId).append("\" targetNamespace=\"http://bpmn.io/schema/bpmn\">\n")
+                .append("  <bpmn:process id=\"").append(processId).append("\" isExecutable=\"true\">\n")
+                .append("    <bpmn:startEvent id=\"StartEvent\" />\n")
+                .append("    <bpmn:sequenceFlow id=\"Flow_Start\" sourceRef=\"StartEvent\" targetRef=\"Task_Wait\" />\n")
+                .append("    <bpmn:userTask id=\"Task_Wait\" />\n");
+        String previous = "Task_Wait";
+        for (int deployment = 0; deployment < DEPLOYMENTS; deployment++) {
+            String csarName = "QuantumApplication" + definition + "_" + deployment;
+            String taskId = "Task_Deploy_" + deployment;
+            xml.append("    <bpmn:sequenceFlow id=\"Flow_").append(deployment).append("\" sourceRef=\"").append(previous)
+                    .append("\" targetRef=\"").append(taskId).append("\" />\n")
+                    .append("    <bpmn:serviceTask id=\"").append(taskId).append("\" camunda:expression=\"${true}\"")
+                    .append(" opentosca:deploymentModelUrl=\"").append(openTosca.getDeploymentModelUrl(csarName)).append("\"")
+                    .append(" opentosca:deploymentBuildPlanInstanceUrl=\"")
+                    .append(openTosca.getBuildPlanInstanceUrl(csarName, definition * DEPLOYMENTS + deployment)).append("\" />\n");
+            previous = taskId;
+        }
+        return xml.append("    <bpmn:sequenceFlow id=\"Flow_End\" sourceRef=\"").append(previous)
+                .append("\" targetRef=\"EndEvent\" />\n")
+                .append("    <bpmn:endEvent id=\"EndEvent\" />\n")
+                .append("  </bpmn:process>\n")
+                .append("</bpmn:definitions>\n")
+                .toString();
+    }
+
+    /**
+     * Latencies and failures of the requests to one endpoint
+     */
+    private static class EndpointStatistics {
+
+        private final String name;
+
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+
+        private final AtomicLong errors = new AtomicLong();
+
+        private final AtomicLong conflicts = new AtomicLong();
+
+        private final AtomicLong degraded = new AtomicLong();
+
+        private EndpointStatistics(String name) {
+            this.name = name;
+        }
+
+        private void record(long nanos, boolean degraded) {
+            latencies.add(nanos);
+            if (degraded) {
+                this.degraded.incrementAndGet();
+            }
+        }
+
+        private String format(double seconds) {
+            List<Long> sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            long requests = sorted.size() + errors.get() + conflicts.get();
+            return String.format("%-16s %9d %12.1f %9.2f %9.2f %6.1f%% %9.1f%% %8.1f%%", name, requests,
+                    requests / seconds, percentile(sorted, 0.5), percentile(sorted, 0.99),
+                    100.0 * errors.get() / Math.max(requests, 1), 100.0 * conflicts.get() / Math.max(requests, 1),
+                    100.0 * degraded.get() / Math.max(requests, 1));
+        }
+
+        private static double percentile(List<Long> sorted, double quantile) {
+            if (sorted.isEmpty()) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.size()) - 1;
+            return sorted.get(Math.max(index, 0)) / 1e6;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.resources;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local HTTP server serving build plan instances and service template instances in place of OpenTOSCA
+ *
+ * Each response is delayed by the given latency, and the given fraction of the requests fails with status code 500.
+ */
+public class OpenToscaStubServer implements AutoCloseable {
+
+    private final HttpServer server;
+
+    private final ExecutorService executor;
+
+    private final long latencyMillis;
+
+    private final double errorRate;
+
+    private final int logEntries;
+
+    private final AtomicLong requests = new AtomicLong();
+
+    private final AtomicLong injectedErrors = new AtomicLong();
+
+    public OpenToscaStubServer(long latencyMillis, double errorRate, int logEntries, int threads) throws IOException {
+        this.latencyMillis = latencyMillis;
+        this.errorRate = errorRate;
+        this.logEntries = logEntries;
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext("/csars/", this::handle);
+        server.start();
+    }
+
+    /**
+     * @return the URL of the deployment model of the CSAR with the given name, as annotated by the QuantME Modeler
+     */
+    public String getDeploymentModelUrl(String csarName) {
+        return "http://localhost:" + server.getAddress().getPort() + "/winery/servicetemplates/ns/" + csarName + "/?csar";
+    }
+
+    public String getBuildPlanInstanceUrl(String csarName, int instance) {
+        return getServiceTemplateUrl(csarName) + "/buildplans/build/instances/" + instance;
+    }
+
+    private String getServiceTemplateUrl(String csarName) {
+        return "http://localhost:" + server.getAddress().getPort() + "/csars/" + csarName + ".csar/servicetemplates/"
+                + csarName;
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    public long getInjectedErrorCount() {
+        return injectedErrors.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+            if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+                injectedErrors.incrementAndGet();
+                respond(exchange, 500, "{\"message\":\"Injected error\"}");
+                return;
+            }
+
+            // paths: /csars/{csar}.csar/servicetemplates/{csar}/(buildplans/build/)?instances/{id}
+            String path = exchange.getRequestURI().getPath();
+            String[] segments = path.split("/");
+            if (segments.length < 7) {
+                respond(exchange, 404, "{}");
+                return;
+            }
+            String csarName = segments[4];
+            String id = segments[segments.length - 1];
+            if (path.contains("/buildplans/")) {
+                respond(exchange, 200, buildPlanInstance(csarName, id));
+            } else {
+                respond(exchange, 200, serviceTemplateInstance(csarName, id));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respond(exchange, 503, "{}");
+        }
+    }
+
+    private String buildPlanInstance(String csarName, String id) {
+        StringBuilder json = new StringBuilder("{\"id\":").append(id).append(",\"state\":\"RUNNING\",\"logs\":[");
+        for (int i = 0; i < logEntries; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"start_timestamp\":").append(1700000000000L + i)
+                    .append(",\"end_timestamp\":").append(1700000000001L + i)
+                    .append(",\"status\":\"INFO\",\"type\":\"INFO\",\"message\":\"Executed activity ").append(i)
+                    .append("\"}");
+        }
+        return json.append("],\"_links\":{\"self\":{\"href\":\"").append(getBuildPlanInstanceUrl(csarName, Integer.parseInt(id)))
+                .append("\"},\"service_template_instance\":{\"href\":\"").append(getServiceTemplateUrl(csarName))
+                .append("/instances/").append(id).append("\"}}}").toString();
+    }
+
+    private String serviceTemplateInstance(String csarName, String id) {
+        return "{\"id\":" + id + ",\"state\":\"CREATING\",\"created_at\":1700000000000,\"_links\":{\"self\":{\"href\":\""
+                + getServiceTemplateUrl(csarName) + "/instances/" + id + "\"}}}";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.resources;
+
+import javax.ws.rs.core.EntityTag;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the entity tags of the process view endpoints and the matching of tags sent back by clients
+ */
+public class ViewEntityTagsTest {
+
+    private static final String VIEW_XML_KEY = "default/deployment-1/1700000000000/resource-1";
+
+    @Test
+    public void testViewXmlTagIsStrongAndDependsOnEncoding() {
+        EntityTag uncompressed = ViewEntityTags.forViewXml(VIEW_XML_KEY, null);
+        EntityTag gzip = ViewEntityTags.forViewXml(VIEW_XML_KEY, "gzip");
+
+        Assert.assertFalse(uncompressed.isWeak());
+        Assert.assertFalse(gzip.isWeak());
+        Assert.assertEquals(uncompressed.getValue() + "-gzip", gzip.getValue());
+        Assert.assertEquals(uncompressed.getValue(), ViewEntityTags.forViewXml(VIEW_XML_KEY, null).getValue());
+    }
+
+    @Test
+    public void testViewXmlTagDiffersForOtherEngineOrRecreatedDeployment() {
+        String value = ViewEntityTags.forViewXml(VIEW_XML_KEY, null).getValue();
+
+        // the same deployment and resource IDs in another engine or after the database of the engine was reset
+        Assert.assertFalse(value.equals(ViewEntityTags.forViewXml(
+                "other-engine/deployment-1/1700000000000/resource-1", null).getValue()));
+        Assert.assertFalse(value.equals(ViewEntityTags.forViewXml(
+                "default/deployment-1/1800000000000/resource-1", null).getValue()));
+    }
+
+    @Test
+    public void testViewXmlTagMatchesInAllForms() {
+        String value = ViewEntityTags.forViewXml(VIEW_XML_KEY, null).getValue();
+
+        Assert.assertTrue(ViewEntityTags.matchesViewXml(VIEW_XML_KEY, value));
+        Assert.assertTrue(ViewEntityTags.matchesViewXml(VIEW_XML_KEY, "\"" + value + "\""));
+        Assert.assertTrue(ViewEntityTags.matchesViewXml(VIEW_XML_KEY, " W/\"" + value + "\" "));
+        Assert.assertTrue(ViewEntityTags.matchesViewXml(VIEW_XML_KEY, "\"" + value + "-gzip\""));
+        Assert.assertTrue(ViewEntityTags.matchesViewXml(VIEW_XML_KEY, "W/\"" + value + "-deflate\""));
+
+        Assert.assertFalse(ViewEntityTags.matchesViewXml(VIEW_XML_KEY, "\"" + value.substring(1) + "\""));
+        Assert.assertFalse(ViewEntityTags.matchesViewXml("default/deployment-1/1700000000000/resource-2", value));
+    }
+
+    @Test
+    public void testActiveViewTagIsWeakAndChangesWithActiveView() {
+        EntityTag entityTag = ViewEntityTags.forActiveView("view-1.xml", VIEW_XML_KEY);
+
+        Assert.assertTrue(entityTag.isWeak());
+        Assert.assertEquals(entityTag.getValue(), ViewEntityTags.forActiveView("view-1.xml", VIEW_XML_KEY).getValue());
+        Assert.assertFalse(entityTag.getValue().equals(
+                ViewEntityTags.forActiveView("view-1", VIEW_XML_KEY).getValue()));
+
+        // the XML of the active view can not be revalidated using the tag of the active view and vice versa
+        Assert.assertFalse(ViewEntityTags.matchesViewXml(VIEW_XML_KEY, entityTag.getValue()));
+    }
+
+    @Test
+    public void testViewBundleTagIsWeakAndChangesWithItsParts() {
+        String viewXmlETag = ViewEntityTags.forViewXml(VIEW_XML_KEY, null).getValue();
+        EntityTag entityTag = ViewEntityTags.forViewBundle("view-1.xml", viewXmlETag, "[{\"id\":\"1\"},{}]");
+
+        Assert.assertTrue(entityTag.isWeak());
+        Assert.assertEquals(entityTag.getValue(),
+                ViewEntityTags.forViewBundle("view-1.xml", viewXmlETag, "[{\"id\":\"1\"},{}]").getValue());
+        Assert.assertFalse(entityTag.getValue().equals(
+                ViewEntityTags.forViewBundle("view-2.xml", viewXmlETag, "[{\"id\":\"1\"},{}]").getValue()));
+        Assert.assertFalse(entityTag.getValue().equals(ViewEntityTags.forViewBundle("view-1.xml",
+                ViewEntityTags.forViewXml("other-engine/deployment-1/1700000000000/resource-1", null).getValue(),
+                "[{\"id\":\"1\"},{}]").getValue()));
+        Assert.assertFalse(entityTag.getValue().equals(
+                ViewEntityTags.forViewBundle("view-1.xml", viewXmlETag, "[{\"id\":\"2\"},{}]").getValue()));
+    }
+}
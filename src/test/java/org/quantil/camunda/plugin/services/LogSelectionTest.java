@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.quantil.camunda.plugin.client.model.LogEntry;
+import org.quantil.camunda.plugin.dto.DeploymentInformation;
+
+/**
+ * Tests the selection of build plan log entries returned to clients
+ */
+public class LogSelectionTest {
+
+    @Test
+    public void testAllEntriesAreSelectedWithoutLimit() {
+        DeploymentInformation deploymentInformation = apply(LogSelection.of(Collections.emptyList(),
+                Collections.emptyList(), 0), logs(0, 1000), 0);
+
+        Assert.assertEquals(1000, deploymentInformation.getLogs().size());
+        Assert.assertFalse(deploymentInformation.isHasMoreLogs());
+        Assert.assertEquals("Task_1:1000", deploymentInformation.getNextLogCursor());
+        Assert.assertEquals(0, deploymentInformation.getDroppedLogCount());
+    }
+
+    @Test
+    public void testEntriesAreSelectedAfterCursorUpToLimit() {
+        DeploymentInformation deploymentInformation = apply(LogSelection.of(Collections.singletonList("Task_1:10"),
+                Collections.emptyList(), 5), logs(0, 100), 0);
+
+        Assert.assertEquals(5, deploymentInformation.getLogs().size());
+        Assert.assertEquals("message-10", deploymentInformation.getLogs().get(0).getMessage());
+        Assert.assertEquals(10, deploymentInformation.getLogOffset());
+        Assert.assertTrue(deploymentInformation.isHasMoreLogs());
+        Assert.assertEquals("Task_1:15", deploymentInformation.getNextLogCursor());
+    }
+
+    @Test
+    public void testEntriesDroppedFromBufferAreReported() {
+        // only the latest 50 of 150 entries were retained, while the client continues after the first 20 entries
+        DeploymentInformation deploymentInformation = apply(LogSelection.of(Collections.singletonList("Task_1:20"),
+                Collections.emptyList(), 0), logs(100, 50), 100);
+
+        Assert.assertEquals(100, deploymentInformation.getLogOffset());
+        Assert.assertEquals(50, deploymentInformation.getLogs().size());
+        Assert.assertEquals(80, deploymentInformation.getDroppedLogCount());
+    }
+
+    private static DeploymentInformation apply(LogSelection logSelection, List<LogEntry> logs, int logsOffset) {
+        DeploymentInformation deploymentInformation = new DeploymentInformation();
+        deploymentInformation.setElementId("Task_1");
+        logSelection.apply(deploymentInformation, logs, logsOffset);
+        return deploymentInformation;
+    }
+
+    private static List<LogEntry> logs(int offset, int count) {
+        List<LogEntry> logs = new ArrayList<>();
+        for (int i = offset; i < offset + count; i++) {
+            LogEntry logEntry = new LogEntry();
+            logEntry.setStartTimestamp(i);
+            logEntry.setStatus("INFO");
+            logEntry.setMessage("message-" + i);
+            logs.add(logEntry);
+        }
+        return logs;
+    }
+}
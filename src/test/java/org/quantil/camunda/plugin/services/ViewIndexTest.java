@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.services;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the ring of views of a deployment and the resolution of views by name, suffix, and resource ID
+ */
+public class ViewIndexTest {
+
+    private static ViewIndex createViewIndex() {
+        Map<String, String> resources = new LinkedHashMap<>();
+        resources.put("resource-c", "views/view-c.xml");
+        resources.put("resource-form", "forms/task.html");
+        resources.put("resource-a", "views/view-a.xml");
+        resources.put("resource-workflow", "workflow.bpmn");
+        resources.put("resource-b", "views/view-with-patterns.xml");
+        return ViewIndex.fromResources("deployment", resources);
+    }
+
+    @Test
+    public void testViewsStartWithWorkflowFollowedBySortedViews() {
+        ViewIndex viewIndex = createViewIndex();
+
+        Assert.assertEquals("workflow.bpmn", viewIndex.getInitialView());
+        Assert.assertEquals(Arrays.asList("workflow.bpmn", "views/view-a.xml", "views/view-c.xml",
+                "views/view-with-patterns.xml"), viewIndex.getOrderedViews());
+        Assert.assertEquals(-1, viewIndex.getPosition("forms/task.html"));
+        Assert.assertEquals(2, viewIndex.getPosition("views/view-c.xml"));
+    }
+
+    @Test
+    public void testNextViewRestartsWithWorkflowAtEndOfRing() {
+        ViewIndex viewIndex = createViewIndex();
+
+        Assert.assertEquals("views/view-a.xml", viewIndex.getNextView("workflow.bpmn"));
+        Assert.assertEquals("views/view-with-patterns.xml", viewIndex.getNextView("views/view-c.xml"));
+        Assert.assertEquals("workflow.bpmn", viewIndex.getNextView("views/view-with-patterns.xml"));
+
+        // an unknown active view, e.g., of a previous deployment, continues with the first view
+        Assert.assertEquals("workflow.bpmn", viewIndex.getNextView("unknown.xml"));
+        Assert.assertNull(ViewIndex.fromResources("empty", new LinkedHashMap<>()).getNextView("workflow.bpmn"));
+    }
+
+    @Test
+    public void testViewsAreFoundByNameOrSuffix() {
+        ViewIndex viewIndex = createViewIndex();
+
+        Assert.assertEquals("views/view-a.xml", viewIndex.findView("views/view-a.xml"));
+        Assert.assertEquals("views/view-with-patterns.xml", viewIndex.findView("view-with-patterns.xml"));
+        Assert.assertEquals("views/view-with-patterns.xml", viewIndex.findView("view-with-patterns.xml"));
+        Assert.assertNull(viewIndex.findView("view-d.xml"));
+
+        // forms are resources, but no views
+        Assert.assertNull(viewIndex.findView("task.html"));
+    }
+
+    @Test
+    public void testResourcesAreResolvedInBothDirections() {
+        ViewIndex viewIndex = createViewIndex();
+
+        Assert.assertEquals("resource-b", viewIndex.getResourceId("views/view-with-patterns.xml"));
+        Assert.assertEquals("views/view-a.xml", viewIndex.getViewName("resource-a"));
+        Assert.assertNull(viewIndex.getResourceId("view-a.xml"));
+        Assert.assertNull(viewIndex.getViewName("resource-unknown"));
+    }
+}
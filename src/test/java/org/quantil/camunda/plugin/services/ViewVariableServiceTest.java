@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.cockpit.plugin.test.AbstractCockpitPluginTest;
+import org.camunda.bpm.engine.RepositoryService;
+import org.camunda.bpm.engine.repository.Deployment;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.quantil.camunda.plugin.dtos.VariableValueDto;
+import org.quantil.camunda.plugin.dtos.ViewVariablesDto;
+
+/**
+ * Tests the paging of the variables visible in a process view
+ */
+public class ViewVariableServiceTest extends AbstractCockpitPluginTest {
+
+    private static final int VARIABLE_COUNT = 25;
+
+    private RepositoryService repositoryService;
+
+    private Deployment deployment;
+
+    private String processInstanceId;
+
+    private ViewVariableService viewVariableService;
+
+    @Before
+    public void setUp() {
+        repositoryService = getProcessEngine().getRepositoryService();
+        deployment = repositoryService.createDeployment().addString("workflow.bpmn", process()).deploy();
+
+        // besides the visible variables, the instance has the internal variables of the plugin and hybrid runtimes
+        Map<String, Object> variables = new HashMap<>();
+        for (int i = 0; i < VARIABLE_COUNT; i++) {
+            variables.put(String.format("var-%02d", i), "value-" + i);
+        }
+        variables.put(ViewVariableFilter.ACTIVE_VIEW_VARIABLE, "workflow.bpmn");
+        variables.put("hybridJob-1-status", "RUNNING");
+        processInstanceId = getProcessEngine().getRuntimeService().startProcessInstanceByKey("Workflow", variables)
+                .getId();
+        viewVariableService = new ViewVariableService(getProcessEngine().getRuntimeService());
+    }
+
+    @After
+    public void tearDown() {
+        repositoryService.deleteDeployment(deployment.getId(), true);
+    }
+
+    @Test
+    public void testPageContainsVariablesOrderedByName() {
+        ViewVariablesDto page = viewVariableService.getVisibleVariables(processInstanceId, "workflow.bpmn", null, 10,
+                5);
+
+        Assert.assertEquals(VARIABLE_COUNT, page.getCount());
+        Assert.assertEquals(10, page.getFirstResult());
+        Assert.assertEquals(5, page.getMaxResults());
+        Assert.assertEquals(Arrays.asList("var-10", "var-11", "var-12", "var-13", "var-14"),
+                names(page.getVariables()));
+    }
+
+    @Test
+    public void testLastPageIsIncompleteAndPagesAfterItAreEmpty() {
+        ViewVariablesDto lastPage = viewVariableService.getVisibleVariables(processInstanceId, "workflow.bpmn", null,
+                20, 10);
+        Assert.assertEquals(Arrays.asList("var-20", "var-21", "var-22", "var-23", "var-24"),
+                names(lastPage.getVariables()));
+
+        ViewVariablesDto emptyPage = viewVariableService.getVisibleVariables(processInstanceId, "workflow.bpmn", null,
+                40, 10);
+        Assert.assertTrue(emptyPage.getVariables().isEmpty());
+        Assert.assertEquals(VARIABLE_COUNT, emptyPage.getCount());
+    }
+
+    @Test
+    public void testPagesOnlyContainVariablesMatchingTheFilter() {
+        ViewVariablesDto page = viewVariableService.getVisibleVariables(processInstanceId, "workflow.bpmn", "var-1",
+                5, 10);
+
+        Assert.assertEquals(10, page.getCount());
+        Assert.assertEquals(Arrays.asList("var-15", "var-16", "var-17", "var-18", "var-19"),
+                names(page.getVariables()));
+    }
+
+    @Test
+    public void testHybridRuntimeVariablesAreOnlyCountedInTheirView() {
+        ViewVariablesDto page = viewVariableService.getVisibleVariables(processInstanceId,
+                "view-before-rewriting.xml", null, 0, 1);
+
+        Assert.assertEquals(VARIABLE_COUNT + 1, page.getCount());
+        Assert.assertEquals(Arrays.asList("hybridJob-1-status"), names(page.getVariables()));
+    }
+
+    private static List<String> names(List<VariableValueDto> variables) {
+        List<String> names = new ArrayList<>();
+        for (VariableValueDto variable : variables) {
+            names.add(variable.getName());
+        }
+        return names;
+    }
+
+    private static String process() {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<bpmn:definitions xmlns:bpmn=\"http://www.omg.org/spec/BPMN/20100524/MODEL\" id=\"Definitions_1\""
+                + " targetNamespace=\"http://bpmn.io/schema/bpmn\">\n"
+                + "  <bpmn:process id=\"Workflow\" isExecutable=\"true\">\n"
+                + "    <bpmn:startEvent id=\"StartEvent_1\"/>\n"
+                + "    <bpmn:sequenceFlow id=\"Flow_1\" sourceRef=\"StartEvent_1\" targetRef=\"Task_1\"/>\n"
+                + "    <bpmn:userTask id=\"Task_1\"/>\n"
+                + "  </bpmn:process>\n"
+                + "</bpmn:definitions>\n";
+    }
+}
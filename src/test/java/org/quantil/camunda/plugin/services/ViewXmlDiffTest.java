@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2023 Institute of Architecture of Application Systems -
+ * University of Stuttgart
+ *
+ * This program and the accompanying materials are made available under the
+ * terms the Apache Software License 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.quantil.camunda.plugin.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests that the XML of a view is reconstructed exactly from the XML of another view and their difference
+ */
+public class ViewXmlDiffTest {
+
+    @Test
+    public void testSharedLinesAreCopied() {
+        String base = "<definitions>\n  <process id=\"p\">\n    <task id=\"a\"/>\n    <task id=\"b\"/>\n"
+                + "  </process>\n  <diagram/>\n</definitions>\n";
+        String target = "<definitions>\n  <process id=\"p\">\n    <task id=\"a\"/>\n    <subProcess id=\"c\"/>\n"
+                + "  </process>\n  <diagram/>\n</definitions>\n";
+
+        ViewXmlDiff diff = ViewXmlDiff.compute(base, target, 100);
+        Assert.assertEquals(target, ViewXmlDiff.apply(base, diff.getOperations()));
+        Assert.assertEquals(target.length(), diff.getTargetLength());
+        Assert.assertEquals("    <subProcess id=\"c\"/>\n".length(), diff.getInsertedLength());
+        Assert.assertEquals(3, diff.getOperations().size());
+    }
+
+    @Test
+    public void testIdenticalAndEmptyDocuments() {
+        String xml = "<definitions>\n</definitions>";
+        Assert.assertEquals(1, ViewXmlDiff.compute(xml, xml, 100).getOperations().size());
+        Assert.assertEquals(0, ViewXmlDiff.compute(xml, xml, 100).getInsertedLength());
+        Assert.assertEquals("", ViewXmlDiff.apply(xml, ViewXmlDiff.compute(xml, "", 100).getOperations()));
+        Assert.assertEquals(xml, ViewXmlDiff.apply("", ViewXmlDiff.compute("", xml, 100).getOperations()));
+    }
+
+    @Test
+    public void testRandomEditsAreReconstructed() {
+        Random random = new Random(42);
+        for (int run = 0; run < 200; run++) {
+            List<String> lines = new ArrayList<>();
+            for (int i = 0; i < random.nextInt(200); i++) {
+                lines.add("<task id=\"Task_" + random.nextInt(50) + "\"/>\n");
+            }
+            String base = String.join("", lines);
+            for (int i = 0; i < random.nextInt(20) && !lines.isEmpty(); i++) {
+                int position = random.nextInt(lines.size());
+                if (random.nextBoolean()) {
+                    lines.remove(position);
+                } else {
+                    lines.add(position, "<subProcess id=\"SubProcess_" + random.nextInt(50) + "\"/>\n");
+                }
+            }
+            String target = String.join("", lines) + (random.nextBoolean() ? "</definitions>" : "");
+
+            // a small maximum edit distance falls back to copying only the common prefix and suffix
+            for (int maxEditDistance : new int[] { 0, 5, 1000 }) {
+                ViewXmlDiff diff = ViewXmlDiff.compute(base, target, maxEditDistance);
+                Assert.assertEquals(target, ViewXmlDiff.apply(base, diff.getOperations()));
+            }
+        }
+    }
+
+    @Test
+    public void testMinimalDifferenceIsFound() {
+        StringBuilder base = new StringBuilder();
+        StringBuilder target = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            base.append("<task id=\"Task_").append(i).append("\"/>\n");
+            target.append("<task id=\"Task_").append(i % 100 == 50 ? "changed" : i).append("\"/>\n");
+        }
+
+        ViewXmlDiff diff = ViewXmlDiff.compute(base.toString(), target.toString(), 1000);
+        Assert.assertEquals(10 * "<task id=\"Task_changed\"/>\n".length(), diff.getInsertedLength());
+    }
+}